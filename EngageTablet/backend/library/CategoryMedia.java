@@ -1,124 +1,194 @@
-package backend.library;
-
-import java.io.File;
-import java.util.Iterator;
-import java.util.TreeMap;
-
-/**
- * Used to store all of the MediaFiles within a single category.
- * 
- * @author Carl Angiolillo
- *
- */
-public class CategoryMedia extends LibraryObject{
-	
-	//-------------------------------------------------------------------------
-	// Private Fields
-	//-------------------------------------------------------------------------
-	
-	// A list of all of the media files stored in this category.
-	private TreeMap<String, MediaFile> mediaFiles = new TreeMap<String, MediaFile>();
-	
-	//-------------------------------------------------------------------------
-	// END Private Fields
-	//-------------------------------------------------------------------------
-
-	
-	//-------------------------------------------------------------------------
-	// Getters and Setters
-	//-------------------------------------------------------------------------
-	
-	/**
-	 * Returns an Iterator of the MediaFiles in this category.
-	 * 
-	 * @return An Iterator of all the MediaFiles in this category.
-	 * @see MediaFile
-	 */
-	public Iterator getMediaFiles(){
-		return mediaFiles.values().iterator();
-	}
-	
-	/**
-	 * Given the name, return the MediaFile with that name, or null if none
-	 * is found.
-	 * 
-	 * @param name the name of the media file to seek for.
-	 * @return A MediaFile with this name, or null if none is found.
-	 */
-	public MediaFile getMediaFile(String name){
-		return (MediaFile)mediaFiles.get(name);
-	}
-	
-	/**
-	 * Returns true if this CategoryMedia contains no MediaFiles.
-	 * 
-	 * @return true if this category has no media files
-	 */
-	public boolean isEmpty(){
-		return mediaFiles.size()==0;
-	}
-	
-	//-------------------------------------------------------------------------
-	// END Getters and Setters
-	//-------------------------------------------------------------------------
-	
-
-	//-------------------------------------------------------------------------
-	// Constructor
-	//-------------------------------------------------------------------------
-
-	/**
-	 * Creates a CategoryMedia from a directory containing images, and a
-	 * reference to the station in which this category resides.
-	 * 
-	 * @param categoryDirectory the directory in which the media resides
-	 * @param parent the station in which this category resides
-	 */
-	public CategoryMedia(File categoryDirectory, StationMedia parent){
-		super(categoryDirectory, parent);
-		log("Loading...");
-		
-		// Loop through the contents of the category directory.
-		File[] directoryContents = getFile().listFiles();
-		for (int i=0; i<directoryContents.length; i++) {
-			
-			// For every file in the category directory that is NOT a folder, add it as a media
-			// item to the list of media files in this category.
-			if(!directoryContents[i].isDirectory()){
-				MediaFile fileToAdd = MediaFile.convertToMediaFile(directoryContents[i], this);
-				
-				//If the conversion succeeded then we will add the file to our list.
-				if (fileToAdd != null) mediaFiles.put(fileToAdd.getName(), fileToAdd);
-			}
-			
-		}
-		log("Done!");
-	}
-
-	//-------------------------------------------------------------------------
-	// END Constructor
-	//-------------------------------------------------------------------------
-
-	
-	
-	//-------------------------------------------------------------------------
-	// Prefetching
-	//-------------------------------------------------------------------------
-	
-	/**
-	 * Prefetches the images associated with this category.
-	 * @param waitForThumbImage true if we should wait for the thumbnail image to load
-	 * @param waitForCentralImage true if we should wait for the central image to load
-	 */
-	public void prefetchImages(boolean waitForThumbImage, boolean waitForCentralImage) {
-		Iterator i = this.getMediaFiles();
-		while(i.hasNext()){
-			((MediaFile)i.next()).loadImages(waitForThumbImage, waitForCentralImage);
-		}
-	}
-	
-	//-------------------------------------------------------------------------
-	// END Prefetching
-	//-------------------------------------------------------------------------
-	
-}
+package backend.library;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.TreeMap;
+
+/**
+ * Used to store all of the MediaFiles within a single category.
+ * 
+ * @author Carl Angiolillo
+ *
+ */
+public class CategoryMedia extends LibraryObject{
+	
+	//-------------------------------------------------------------------------
+	// Private Fields
+	//-------------------------------------------------------------------------
+	
+	// A list of all of the media files stored in this category.
+	private TreeMap<String, MediaFile> mediaFiles = new TreeMap<String, MediaFile>();
+	
+	//-------------------------------------------------------------------------
+	// END Private Fields
+	//-------------------------------------------------------------------------
+
+	
+	//-------------------------------------------------------------------------
+	// Getters and Setters
+	//-------------------------------------------------------------------------
+	
+	/**
+	 * Returns an Iterator of the MediaFiles in this category. The category may change
+	 * while the library is being watched, so this iterates over a copy.
+	 * 
+	 * @return An Iterator of all the MediaFiles in this category.
+	 * @see MediaFile
+	 */
+	public synchronized Iterator getMediaFiles(){
+		return new ArrayList<MediaFile>(mediaFiles.values()).iterator();
+	}
+	
+	/**
+	 * Given the name, return the MediaFile with that name, or null if none
+	 * is found.
+	 * 
+	 * @param name the name of the media file to seek for.
+	 * @return A MediaFile with this name, or null if none is found.
+	 */
+	public synchronized MediaFile getMediaFile(String name){
+		return (MediaFile)mediaFiles.get(name);
+	}
+	
+	/**
+	 * Returns true if this CategoryMedia contains no MediaFiles.
+	 * 
+	 * @return true if this category has no media files
+	 */
+	public synchronized boolean isEmpty(){
+		return mediaFiles.size()==0;
+	}
+	
+	//-------------------------------------------------------------------------
+	// END Getters and Setters
+	//-------------------------------------------------------------------------
+	
+
+	//-------------------------------------------------------------------------
+	// Constructor
+	//-------------------------------------------------------------------------
+
+	/**
+	 * Creates a CategoryMedia from a directory containing images, and a
+	 * reference to the station in which this category resides.
+	 * 
+	 * @param categoryDirectory the directory in which the media resides
+	 * @param parent the station in which this category resides
+	 */
+	public CategoryMedia(File categoryDirectory, StationMedia parent){
+		super(categoryDirectory, parent);
+		log("Loading...");
+		
+		// Add every file in the category directory as a media item to the list of media
+		// files in this category, and let the library find it by its path.
+		MediaLibrary library = getMediaLibrary();
+		ArrayList<DirectoryIndex.Entry> files = listDirectory().files;
+		for (int i=0; i<files.size(); i++) {
+			MediaFile fileToAdd = MediaFile.convertToMediaFile(files.get(i), this);
+				
+			//If the conversion succeeded then we will add the file to our list.
+			if (fileToAdd != null) {
+				mediaFiles.put(fileToAdd.getName(), fileToAdd);
+				if (library != null) library.addToIndex(fileToAdd);
+			}
+		}
+		log("Done!");
+	}
+
+	//-------------------------------------------------------------------------
+	// END Constructor
+	//-------------------------------------------------------------------------
+
+	
+	
+	//-------------------------------------------------------------------------
+	// Refreshing
+	//-------------------------------------------------------------------------
+	
+	/*
+	 * Lists the category directory again and brings our media files up to date: new
+	 * files are added, missing ones are removed, and files whose size or date has 
+	 * changed have their images thrown away. The listener (which may be null) is told 
+	 * about each change once the new thumbnails have been made.
+	 */
+	void refresh(LibraryListener listener){
+		ArrayList<DirectoryIndex.Entry> files = DirectoryIndex.scan(getFile()).files;
+		ArrayList<MediaFile> added = new ArrayList<MediaFile>();
+		ArrayList<MediaFile> changed = new ArrayList<MediaFile>();
+		ArrayList<MediaFile> removed = new ArrayList<MediaFile>();
+		
+		synchronized(this) {
+			HashSet<String> present = new HashSet<String>();
+			for (int i=0; i<files.size(); i++) {
+				DirectoryIndex.Entry entry = files.get(i);
+				present.add(entry.name);
+				
+				MediaFile existing = mediaFiles.get(entry.name);
+				if(existing == null) {
+					MediaFile fileToAdd = MediaFile.convertToMediaFile(entry, this);
+					if (fileToAdd != null) {
+						mediaFiles.put(fileToAdd.getName(), fileToAdd);
+						added.add(fileToAdd);
+					}
+				}
+				else if(existing.getLength() != entry.length || existing.getLastModified() != entry.modified) {
+					existing.invalidate(entry);
+					changed.add(existing);
+				}
+			}
+			
+			Iterator<MediaFile> i = mediaFiles.values().iterator();
+			while(i.hasNext()) {
+				MediaFile file = i.next();
+				if(!present.contains(file.getName())) {
+					i.remove();
+					removed.add(file);
+				}
+			}
+		}
+		log(added.size()+" added, "+changed.size()+" changed, "+removed.size()+" removed.");
+		
+		MediaLibrary library = getMediaLibrary();
+		if(library != null) {
+			for (int i=0; i<removed.size(); i++) library.removeFromIndex(removed.get(i));
+			for (int i=0; i<added.size(); i++) library.addToIndex(added.get(i));
+		}
+		
+		// Make the thumbnails here, off of the event thread, so the views can show them at once.
+		for (int i=0; i<added.size(); i++) added.get(i).getThumbImage();
+		for (int i=0; i<changed.size(); i++) changed.get(i).getThumbImage();
+		
+		if(listener == null) return;
+		for (int i=0; i<removed.size(); i++) listener.mediaFileRemoved(removed.get(i));
+		for (int i=0; i<added.size(); i++) listener.mediaFileAdded(added.get(i));
+		for (int i=0; i<changed.size(); i++) listener.mediaFileChanged(changed.get(i));
+	}
+	
+	//-------------------------------------------------------------------------
+	// END Refreshing
+	//-------------------------------------------------------------------------
+	
+	
+	//-------------------------------------------------------------------------
+	// Prefetching
+	//-------------------------------------------------------------------------
+	
+	/**
+	 * Prefetches the images associated with this category.
+	 * @param waitForThumbImage true if we should wait for the thumbnail image to load
+	 * @param waitForCentralImage true if we should wait for the central image to load
+	 */
+	public void prefetchImages(boolean waitForThumbImage, boolean waitForCentralImage) {
+		Iterator i = this.getMediaFiles();
+		while(i.hasNext()){
+			((MediaFile)i.next()).loadImages(waitForThumbImage, waitForCentralImage);
+		}
+	}
+	
+	//-------------------------------------------------------------------------
+	// END Prefetching
+	//-------------------------------------------------------------------------
+	
+}
@@ -0,0 +1,331 @@
+package backend.library;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import main.Logger;
+
+/**
+ * The DirectoryIndex remembers what was in each folder of the library the last time
+ * it was loaded: the names of its sub-folders, and the name, size and modification date
+ * of each of its files. It is saved to disk after the library is loaded.
+ *
+ * The next time the library is loaded, a folder whose own modification date has not
+ * changed is taken from the index instead of being listed again, which saves listing
+ * it and telling its files from its sub-folders. On a library kept on a network share
+ * this is most of the time it takes to start up.
+ *
+ * Adding, removing or renaming anything in a folder changes its modification date, so
+ * such changes are always picked up. A file that is overwritten in place (keeping its
+ * name) does not change its folder, so the size and date of a file taken from the
+ * index are checked against the file itself, but only once its images are needed
+ * (see MediaFile.verify). Most files of a large library are never looked at in a 
+ * session, and checking them all at start-up would cost as much as listing them.
+ */
+public class DirectoryIndex {
+
+	//-------------------------------------------------------------------------
+	// Constants
+	//-------------------------------------------------------------------------
+
+	// Changed whenever the layout of the index file changes, so old files are ignored.
+	static private final int VERSION = 1;
+
+	// A folder modified this recently (in milliseconds) before it was listed may still be
+	// changing, so its listing is not trusted the next time.
+	static private final long SETTLE_TIME = 2000;
+
+	//-------------------------------------------------------------------------
+	// END Constants
+	//-------------------------------------------------------------------------
+
+
+	//-------------------------------------------------------------------------
+	// Private Fields
+	//-------------------------------------------------------------------------
+
+	private File indexFile;		// Where the index is kept between runs.
+	private String rootPath;	// The absolute path of the library folder.
+
+	// What was in each folder the last time, by path relative to the library folder.
+	private HashMap<String, Listing> previous = new HashMap<String, Listing>();
+
+	// What is in each folder this time. Folders are listed from several threads at once.
+	private ConcurrentHashMap<String, Listing> current = new ConcurrentHashMap<String, Listing>();
+
+	private AtomicInteger reused = new AtomicInteger();		// Folders taken from the index.
+	private AtomicInteger listed = new AtomicInteger();		// Folders that had to be listed.
+
+	//-------------------------------------------------------------------------
+	// END Private Fields
+	//-------------------------------------------------------------------------
+
+
+	//-------------------------------------------------------------------------
+	// Constructor
+	//-------------------------------------------------------------------------
+
+	/**
+	 * Creates an index that is read from and saved to the given file.
+	 *
+	 * @param indexFile The file the index is kept in.
+	 */
+	public DirectoryIndex(File indexFile) {
+		this.indexFile = indexFile;
+	}
+
+	//-------------------------------------------------------------------------
+	// END Constructor
+	//-------------------------------------------------------------------------
+
+
+	//-------------------------------------------------------------------------
+	// Index Methods
+	//-------------------------------------------------------------------------
+
+	/**
+	 * Reads the index saved by the last run for the library in the given folder. If
+	 * there is no index, or it was made for a different folder, every folder will be
+	 * listed from scratch.
+	 *
+	 * @param root The library folder.
+	 */
+	public void load(File root) {
+		rootPath = root.getAbsolutePath();
+		previous.clear();
+		current.clear();
+		if(!indexFile.isFile()) return;
+
+		DataInputStream in = null;
+		try {
+			in = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)));
+			if(in.readInt() != VERSION || !in.readUTF().equals(rootPath)) return;
+
+			int count = in.readInt();
+			for(int d=0; d<count; d++) {
+				String path = in.readUTF();
+				Listing listing = new Listing(in.readLong());
+
+				int directories = in.readInt();
+				for(int i=0; i<directories; i++) listing.directories.add(in.readUTF());
+
+				int files = in.readInt();
+				for(int i=0; i<files; i++) listing.files.add(new Entry(in.readUTF(), in.readLong(), in.readLong(), false));
+
+				previous.put(path, listing);
+			}
+		} catch (IOException e) {
+			Logger.log(Logger.ERROR, "DirectoryIndex: Unable to read \""+indexFile.getPath()+"\", the library will be listed from scratch.");
+			previous.clear();
+		} finally {
+			close(in);
+		}
+	}
+
+	/**
+	 * Saves the folders listed since load was called, so that the next run can use them.
+	 * Programs are only loaded when they are used, so folders that were not listed this
+	 * time are kept as they were, unless they no longer exist.
+	 */
+	public synchronized void save() {
+		Logger.log(Logger.IMPORTANT, "DirectoryIndex: "+reused.get()+" folders were unchanged, "+listed.get()+" had to be listed.");
+
+		HashMap<String, Listing> all = new HashMap<String, Listing>(current);
+		int pruned = 0;
+		Iterator<Map.Entry<String, Listing>> p = previous.entrySet().iterator();
+		while(p.hasNext()) {
+			Map.Entry<String, Listing> directory = p.next();
+			if(all.containsKey(directory.getKey())) continue;
+
+			if(new File(rootPath + directory.getKey()).isDirectory()) all.put(directory.getKey(), directory.getValue());
+			else pruned++;
+		}
+		if(pruned > 0) Logger.log(Logger.INFO, "DirectoryIndex: Dropped "+pruned+" folders that no longer exist.");
+
+		File parent = indexFile.getAbsoluteFile().getParentFile();
+		if(parent != null && !parent.isDirectory() && !parent.mkdirs()) return;
+
+		// Write to a temporary file first so a crash never leaves a truncated index behind.
+		File temp = new File(indexFile.getPath()+".tmp");
+		DataOutputStream out = null;
+		try {
+			out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)));
+			out.writeInt(VERSION);
+			out.writeUTF(rootPath);
+			out.writeInt(all.size());
+
+			Iterator<Map.Entry<String, Listing>> i = all.entrySet().iterator();
+			while(i.hasNext()) {
+				Map.Entry<String, Listing> directory = i.next();
+				Listing listing = directory.getValue();
+				out.writeUTF(directory.getKey());
+				out.writeLong(listing.modified);
+
+				out.writeInt(listing.directories.size());
+				for(int d=0; d<listing.directories.size(); d++) out.writeUTF(listing.directories.get(d));
+
+				out.writeInt(listing.files.size());
+				for(int f=0; f<listing.files.size(); f++) {
+					Entry entry = listing.files.get(f);
+					out.writeUTF(entry.name);
+					out.writeLong(entry.length);
+					out.writeLong(entry.modified);
+				}
+			}
+			out.close();
+			out = null;
+
+			if((indexFile.delete() || !indexFile.exists()) && temp.renameTo(indexFile)) return;
+		} catch (IOException e) {
+			Logger.log(Logger.ERROR, "DirectoryIndex: Unable to save \""+indexFile.getPath()+"\": "+e.getMessage());
+		} finally {
+			close(out);
+		}
+		temp.delete();
+	}
+
+	/**
+	 * Returns what is in a folder of the library, from the index if the folder has not
+	 * changed since it was last listed, or by listing it otherwise.
+	 *
+	 * @param directory A folder inside the library.
+	 * @return The sub-folders and files in that folder.
+	 */
+	Listing list(File directory) {
+		String path = directory.getAbsolutePath();
+		if(rootPath != null && path.startsWith(rootPath)) path = path.substring(rootPath.length());
+
+		long modified = directory.lastModified();
+		Listing listing = previous.get(path);
+		if(listing != null && listing.modified != 0 && listing.modified == modified) reused.incrementAndGet();
+		else {
+			listing = scan(directory);
+			listed.incrementAndGet();
+		}
+		current.put(path, listing);
+		return listing;
+	}
+
+	/**
+	 * Lists a folder without the help of an index. Only standard (visible) folders and
+	 * files are included.
+	 *
+	 * @param directory The folder to list.
+	 * @return The sub-folders and files in that folder.
+	 */
+	static Listing scan(File directory) {
+		long startTime = System.currentTimeMillis();
+		long modified = directory.lastModified();
+
+		// If the folder was changed just before we looked, something may still be writing to
+		// it, so make sure it is listed again next time.
+		Listing listing = new Listing(modified > startTime-SETTLE_TIME ? 0 : modified);
+
+		File[] directoryContents = directory.listFiles();
+		if(directoryContents == null) return listing;
+
+		for(int i=0; i<directoryContents.length; i++) {
+			File file = directoryContents[i];
+			if(MediaLibrary.isStandardDir(file))
+				listing.directories.add(file.getName());
+			else if(!file.getName().startsWith(".") && !file.isHidden()) {
+				Entry entry = stat(file);
+				if(entry != null) listing.files.add(entry);
+			}
+		}
+		return listing;
+	}
+
+	/**
+	 * Reads the size and modification date of a file, both from a single look at it.
+	 *
+	 * @param file The file to look at.
+	 * @return An Entry for the file, or null if it is not an ordinary file (or is gone).
+	 */
+	static Entry stat(File file) {
+		try {
+			BasicFileAttributes attributes = Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+			if(!attributes.isRegularFile()) return null;
+			return new Entry(file.getName(), attributes.size(), attributes.lastModifiedTime().toMillis(), true);
+		} catch (IOException e) {
+			return null;
+		}
+	}
+
+	//-------------------------------------------------------------------------
+	// END Index Methods
+	//-------------------------------------------------------------------------
+
+
+	//-------------------------------------------------------------------------
+	// Listings
+	//-------------------------------------------------------------------------
+
+	/*
+	 * The contents of one folder: the names of its sub-folders, and an Entry for each file.
+	 */
+	static class Listing {
+		long modified;
+		ArrayList<String> directories = new ArrayList<String>();
+		ArrayList<Entry> files = new ArrayList<Entry>();
+
+		Listing(long modified) {
+			this.modified = modified;
+		}
+	}
+
+	/*
+	 * A file as it was when its folder was last listed. The size and date of an entry
+	 * taken from the index are not known to be current until they have been verified.
+	 */
+	static class Entry {
+		String name;
+		long length;
+		long modified;
+		boolean verified;
+
+		Entry(String name, long length, long modified, boolean verified) {
+			this.name = name;
+			this.length = length;
+			this.modified = modified;
+			this.verified = verified;
+		}
+	}
+
+	//-------------------------------------------------------------------------
+	// END Listings
+	//-------------------------------------------------------------------------
+
+
+	//-------------------------------------------------------------------------
+	// Private Methods
+	//-------------------------------------------------------------------------
+
+	/*
+	 * Closes a stream, ignoring any errors.
+	 */
+	private static void close(Closeable stream) {
+		if(stream == null) return;
+		try { stream.close(); } catch (IOException e) {}
+	}
+
+	//-------------------------------------------------------------------------
+	// END Private Methods
+	//-------------------------------------------------------------------------
+
+}
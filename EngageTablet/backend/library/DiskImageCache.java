@@ -0,0 +1,354 @@
+package backend.library;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.nio.file.Files;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+
+import javax.imageio.ImageIO;
+
+import main.Constants;
+import main.Logger;
+
+/**
+ * The DiskImageCache keeps pre-scaled copies of the thumbnail and central images on
+ * disk so that they do not have to be decoded from the (often enormous) originals
+ * every time Engage starts.
+ *
+ * Every cached image is named after a hash of the original's path, size and
+ * modification date (and the size it was scaled to), so an image that is edited or
+ * replaced in the library simply misses the cache and is regenerated. The size and
+ * date are the ones recorded when the library was listed, so looking up an image does
+ * not have to touch the original at all. The renditions of an original that has 
+ * changed are removed when the change is noticed (see MediaFile.invalidate).
+ *
+ * The cache is kept under a size limit. Each time Engage starts, the cache folder is
+ * swept in the background: temporary files left by a crash are deleted, and if the
+ * renditions take up more than the limit, the ones used least recently are deleted
+ * until they fit. This also clears out renditions of originals that have been
+ * removed from the library.
+ */
+public class DiskImageCache {
+
+	//-------------------------------------------------------------------------
+	// Constants
+	//-------------------------------------------------------------------------
+
+	/**
+	 * The rendition used for thumbnails in the library and in the queue.
+	 */
+	static public final String THUMB = "thumb";
+
+	/**
+	 * The rendition used for the central image displayed on the stage.
+	 */
+	static public final String CENTER = "center";
+
+	// The format the renditions are stored in. They are only ever drawn on a black
+	// artboard, so a lossy format without transparency is fine and keeps them small.
+	static private final String FORMAT = "jpg";
+
+	/**
+	 * The default limit on the size of the cache folder, in megabytes.
+	 */
+	static public final int DEFAULT_SIZE_MB = 512;
+
+	// A temporary file older than this (in milliseconds) is not being written any more.
+	static private final long TEMP_FILE_AGE = 60*1000;
+
+	// A rendition's date is moved forward when it is read, but at most this often (in
+	// milliseconds), so that the sweep can tell which renditions are still in use.
+	static private final long TOUCH_INTERVAL = 24*60*60*1000;
+
+	//-------------------------------------------------------------------------
+	// END Constants
+	//-------------------------------------------------------------------------
+
+
+	//-------------------------------------------------------------------------
+	// Private Fields
+	//-------------------------------------------------------------------------
+
+	private File cacheDirectory;	// The folder the renditions are kept in.
+	private boolean enabled;		// False if the folder could not be created.
+	private long maxBytes;			// The most the renditions may take up, as of the start-up sweep.
+
+	//-------------------------------------------------------------------------
+	// END Private Fields
+	//-------------------------------------------------------------------------
+
+
+	//-------------------------------------------------------------------------
+	// Constructor
+	//-------------------------------------------------------------------------
+
+	/**
+	 * Creates a cache in the given folder, creating the folder if it does not
+	 * already exist, and starts sweeping it in the background. If the folder cannot
+	 * be created the cache is disabled and every lookup is a miss.
+	 *
+	 * @param cachePath The (absolute or relative) location of the cache folder.
+	 * @param maxBytes The most the cached renditions may take up, in bytes.
+	 */
+	public DiskImageCache(String cachePath, long maxBytes) {
+		cacheDirectory = new File(cachePath);
+		enabled = cacheDirectory.isDirectory() || cacheDirectory.mkdirs();
+		this.maxBytes = maxBytes;
+
+		if(enabled)
+			Logger.log(Logger.IMPORTANT,"DiskImageCache: Using image cache at \""+cacheDirectory.getAbsolutePath()+"\".");
+		else {
+			Logger.log(Logger.ERROR,"DiskImageCache: Unable to create image cache at \""+cachePath+"\". Images will not be cached.");
+			return;
+		}
+
+		Thread thread = new Thread(new Runnable() {
+			public void run() {
+				sweep();
+			}
+		}, "DiskImageCache-Sweep");
+		thread.setDaemon(true);
+		thread.setPriority(Thread.MIN_PRIORITY);
+		thread.start();
+	}
+
+	//-------------------------------------------------------------------------
+	// END Constructor
+	//-------------------------------------------------------------------------
+
+
+	//-------------------------------------------------------------------------
+	// Cache Methods
+	//-------------------------------------------------------------------------
+
+	/**
+	 * Reads a rendition of an original image from the cache.
+	 *
+	 * @param original The original image in the library.
+	 * @param rendition Either THUMB or CENTER.
+	 * @return The cached, pre-scaled image, or null if there is no valid copy in the cache.
+	 */
+	public Image read(MediaFile original, String rendition) {
+		if(!enabled) return null;
+
+		File cached = getCacheFile(original, rendition);
+		long modified = cached.lastModified();
+		if(modified == 0) return null;
+
+		try {
+			BufferedImage image = ImageIO.read(cached);
+			if(image != null) {
+				long now = System.currentTimeMillis();
+				if(modified < now-TOUCH_INTERVAL) cached.setLastModified(now);
+				return image;
+			}
+		} catch (IOException e) {}
+
+		// The file is there but unreadable (most likely a half-written file from a crash), so
+		// throw it away and let it be regenerated.
+		Logger.log(Logger.INFO,"DiskImageCache: Discarding unreadable cache entry \""+cached.getName()+"\".");
+		cached.delete();
+		return null;
+	}
+
+	/**
+	 * Checks whether a rendition of an original image is in the cache, without reading it.
+	 *
+	 * @param original The original image in the library.
+	 * @param rendition Either THUMB or CENTER.
+	 * @return true if there is a cached copy of the rendition.
+	 */
+	public boolean contains(MediaFile original, String rendition) {
+		return enabled && getCacheFile(original, rendition).isFile();
+	}
+
+	/**
+	 * Stores a rendition of an original image in the cache. The image must already
+	 * be completely loaded.
+	 *
+	 * @param original The original image in the library.
+	 * @param rendition Either THUMB or CENTER.
+	 * @param image The scaled image to store.
+	 */
+	public void write(MediaFile original, String rendition, Image image) {
+		if(!enabled || image == null) return;
+
+		int width = image.getWidth(null);
+		int height = image.getHeight(null);
+		if(width <= 0 || height <= 0) return;
+
+		File cached = getCacheFile(original, rendition);
+		File parent = cached.getParentFile();
+		if(!parent.isDirectory() && !parent.mkdirs()) return;
+
+		// The encoder wants an opaque BufferedImage, so paint the scaled image onto black (which
+		// is what it would be drawn against anyway).
+		BufferedImage opaque = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		Graphics2D g = opaque.createGraphics();
+		g.setColor(Color.BLACK);
+		g.fillRect(0, 0, width, height);
+		g.drawImage(image, 0, 0, null);
+		g.dispose();
+
+		// Write to a temporary file first so a crash never leaves a truncated image behind
+		// under the real name.
+		File temp = new File(parent, cached.getName()+".tmp");
+		try {
+			if(ImageIO.write(opaque, FORMAT, temp) && (cached.delete() || !cached.exists()) && temp.renameTo(cached))
+				return;
+		} catch (IOException e) {
+			Logger.log(Logger.ERROR,"DiskImageCache: Unable to write \""+cached.getName()+"\": "+e.getMessage());
+		}
+		temp.delete();
+	}
+
+	/**
+	 * Deletes every rendition of an original image from the cache. This is used when
+	 * the original has changed, before its new size and date are recorded, since the
+	 * renditions under its old key would never be read again.
+	 *
+	 * @param original The original image in the library.
+	 */
+	public void remove(MediaFile original) {
+		if(!enabled) return;
+		getCacheFile(original, THUMB).delete();
+		getCacheFile(original, CENTER).delete();
+	}
+
+	//-------------------------------------------------------------------------
+	// END Cache Methods
+	//-------------------------------------------------------------------------
+
+
+	//-------------------------------------------------------------------------
+	// Private Methods
+	//-------------------------------------------------------------------------
+
+	/*
+	 * Returns the location in the cache for a rendition of the original. Entries are
+	 * spread over 256 sub-folders so no single folder grows too large. The key is kept
+	 * by the MediaFile until its original changes, so it is only hashed once.
+	 */
+	private File getCacheFile(MediaFile original, String rendition) {
+		String key = original.getCacheKey();
+		if(key == null) {
+			key = getKey(original);
+			original.setCacheKey(key);
+		}
+		return new File(new File(cacheDirectory, key.substring(0,2)), key+"-"+rendition+"."+FORMAT);
+	}
+
+	/*
+	 * Hashes everything that identifies the renditions of an original: where it is,
+	 * its size and modification date, and the sizes it is scaled to.
+	 */
+	private static String getKey(MediaFile original) {
+		Dimension thumb = Constants.THUMB_SIZE;
+		Dimension center = Constants.CENTER_SIZE;
+		String identity = original.getFile().getAbsolutePath()+"|"+original.getLength()+"|"+original.getLastModified()
+							+"|"+thumb.width+"x"+thumb.height+"|"+center.width+"x"+center.height;
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-1").digest(identity.getBytes("UTF-8"));
+			StringBuffer hex = new StringBuffer();
+			for(int i=0; i<digest.length; i++) {
+				hex.append(Character.forDigit((digest[i] >> 4) & 0xF, 16));
+				hex.append(Character.forDigit(digest[i] & 0xF, 16));
+			}
+			return hex.toString();
+		} catch (NoSuchAlgorithmException e) {
+			// Every JVM is required to provide SHA-1, so this will not happen.
+			throw new IllegalStateException(e);
+		} catch (UnsupportedEncodingException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/*
+	 * Deletes the temporary files left behind by a crash, then deletes the renditions
+	 * used least recently until the rest fit within the size limit. Only the folders
+	 * the renditions are spread over are looked at; the cache folder itself holds 
+	 * other files as well.
+	 */
+	private void sweep() {
+		long startTime = System.currentTimeMillis();
+		ArrayList<Rendition> renditions = new ArrayList<Rendition>();
+		long total = 0;
+		int temporary = 0;
+
+		File[] folders = cacheDirectory.listFiles();
+		if(folders == null) return;
+		for(int f=0; f<folders.length; f++) {
+			if(folders[f].getName().length() != 2 || !folders[f].isDirectory()) continue;
+			File[] files = folders[f].listFiles();
+			if(files == null) continue;
+
+			for(int i=0; i<files.length; i++) {
+				BasicFileAttributes attributes;
+				try {
+					attributes = Files.readAttributes(files[i].toPath(), BasicFileAttributes.class);
+				} catch (IOException e) {
+					continue;
+				}
+				long modified = attributes.lastModifiedTime().toMillis();
+
+				if(files[i].getName().endsWith(".tmp")) {
+					if(modified < startTime-TEMP_FILE_AGE && files[i].delete()) temporary++;
+				}
+				else {
+					renditions.add(new Rendition(files[i], attributes.size(), modified));
+					total += attributes.size();
+				}
+			}
+		}
+
+		int removed = 0;
+		if(total > maxBytes) {
+			Collections.sort(renditions, new Comparator<Rendition>() {
+				public int compare(Rendition a, Rendition b) {
+					return (a.modified < b.modified) ? -1 : ((a.modified == b.modified) ? 0 : 1);
+				}
+			});
+			for(int i=0; i<renditions.size() && total > maxBytes; i++) {
+				Rendition rendition = renditions.get(i);
+				if(rendition.file.delete()) {
+					total -= rendition.length;
+					removed++;
+				}
+			}
+		}
+
+		Logger.log(Logger.INFO,"DiskImageCache: Swept the cache in "+(System.currentTimeMillis()-startTime)+" ms: "
+					+temporary+" temporary files and "+removed+" old images removed, "+(total/(1024*1024))+" MB in use.");
+	}
+
+	/*
+	 * A rendition found by the sweep, with its size and the last time it was used.
+	 */
+	private static class Rendition {
+		File file;
+		long length;
+		long modified;
+
+		Rendition(File file, long length, long modified) {
+			this.file = file;
+			this.length = length;
+			this.modified = modified;
+		}
+	}
+
+	//-------------------------------------------------------------------------
+	// END Private Methods
+	//-------------------------------------------------------------------------
+
+}
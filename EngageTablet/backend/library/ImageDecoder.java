@@ -0,0 +1,248 @@
+package backend.library;
+
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.HeadlessException;
+import java.awt.Image;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
+import main.Constants;
+
+/**
+ * The ImageDecoder reads images straight from disk at (roughly) the size they will be
+ * displayed at. Rather than decoding a huge original at full resolution and then
+ * scaling it down, it asks the ImageReader to skip over pixels as it decodes (source
+ * subsampling), so a 24-megapixel photograph only ever occupies a few megabytes of heap.
+ *
+ * It also converts images into the screen's own pixel format (see toCompatible), so
+ * that drawing them is a straight copy rather than a conversion of every pixel.
+ *
+ * Everything here is synchronous and safe to call from several threads at once.
+ */
+public class ImageDecoder {
+
+	//-------------------------------------------------------------------------
+	// Private Fields
+	//-------------------------------------------------------------------------
+
+	// The configuration of the screen images are drawn on, or null if there is no screen.
+	private static final GraphicsConfiguration screen = findScreen();
+
+	//-------------------------------------------------------------------------
+	// END Private Fields
+	//-------------------------------------------------------------------------
+
+
+	//-------------------------------------------------------------------------
+	// Decoding
+	//-------------------------------------------------------------------------
+
+	/**
+	 * Decodes an image so that it fits within the given box, keeping its proportions.
+	 * Images taller than the box's ratio are fit to its height, and wider ones to its width
+	 * (just as Image.getScaledInstance would be asked to).
+	 *
+	 * @param file The image file.
+	 * @param box The size the image must fit within, usually Constants.CENTER_SIZE or THUMB_SIZE.
+	 * @return The decoded and scaled image, or null if ImageIO cannot decode this file, in
+	 * which case the caller should fall back to the Toolkit.
+	 */
+	public static BufferedImage decode(File file, Dimension box) {
+		ImageInputStream input = null;
+		ImageReader reader = null;
+		try {
+			input = ImageIO.createImageInputStream(file);
+			reader = getReader(input);
+			if(reader == null) return null;
+
+			int width = reader.getWidth(0);
+			int height = reader.getHeight(0);
+			if(width <= 0 || height <= 0) return null;
+			Dimension target = fit(width, height, box);
+
+			// Skip over as many source pixels as we can while still decoding at least
+			// as many pixels as we need, then make up the difference with a real scale.
+			int subsampling = Math.max(1, Math.min(width/target.width, height/target.height));
+			ImageReadParam param = reader.getDefaultReadParam();
+			param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+
+			BufferedImage decoded = reader.read(0, param);
+			return scale(decoded, target.width, target.height);
+
+		} catch (IOException e) {
+			// Typically a JPEG in a colour space ImageIO does not support (such as CMYK).
+			return null;
+		} catch (RuntimeException e) {
+			// Some readers throw unchecked exceptions on malformed files.
+			return null;
+		} finally {
+			close(reader, input);
+		}
+	}
+
+	/**
+	 * Scales an already decoded image so that it fits within the given box, keeping its
+	 * proportions. This is how the thumbnail is made from the central image without
+	 * going back to the original.
+	 *
+	 * @param image A completely loaded image.
+	 * @param box The size the image must fit within.
+	 * @return The scaled image.
+	 */
+	public static BufferedImage scale(Image image, Dimension box) {
+		Dimension target = fit(image.getWidth(null), image.getHeight(null), box);
+		return scale(image, target.width, target.height);
+	}
+
+	//-------------------------------------------------------------------------
+	// END Decoding
+	//-------------------------------------------------------------------------
+
+
+	//-------------------------------------------------------------------------
+	// Converting
+	//-------------------------------------------------------------------------
+
+	/**
+	 * Copies an image into the screen's own pixel format, so that it can be drawn (and
+	 * kept in video memory by Java2D) without being converted every time. Images that
+	 * are already in that format are returned as they are. Without a screen, images are
+	 * copied into plain integer RGB, which is still much quicker to draw than the byte
+	 * formats ImageIO decodes into or a Toolkit image.
+	 *
+	 * @param image A completely loaded image, or null.
+	 * @return The image in the screen's format, or the image itself if it is null, not
+	 * loaded yet or already in the screen's format.
+	 */
+	public static Image toCompatible(Image image) {
+		if(image == null) return null;
+		int width = image.getWidth(null);
+		int height = image.getHeight(null);
+		if(width <= 0 || height <= 0) return image;
+
+		// We only know whether a BufferedImage is see-through, so assume the worst for others.
+		int transparency = (image instanceof BufferedImage) ? ((BufferedImage)image).getTransparency() : Transparency.TRANSLUCENT;
+
+		BufferedImage compatible;
+		if(screen != null) {
+			if(image instanceof BufferedImage && ((BufferedImage)image).getColorModel().equals(screen.getColorModel(transparency)))
+				return image;
+			compatible = screen.createCompatibleImage(width, height, transparency);
+		}
+		else {
+			int type = (transparency == Transparency.OPAQUE) ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB_PRE;
+			if(image instanceof BufferedImage && ((BufferedImage)image).getType() == type) return image;
+			compatible = new BufferedImage(width, height, type);
+		}
+
+		Graphics2D g = compatible.createGraphics();
+		g.drawImage(image, 0, 0, null);
+		g.dispose();
+		return compatible;
+	}
+
+	//-------------------------------------------------------------------------
+	// END Converting
+	//-------------------------------------------------------------------------
+
+
+	//-------------------------------------------------------------------------
+	// Private Methods
+	//-------------------------------------------------------------------------
+
+	/*
+	 * Works out the size of an image once it has been fit into a box, in the same way
+	 * MediaFile has always done: by height if it is taller than the standard ratio,
+	 * otherwise by width.
+	 */
+	private static Dimension fit(int width, int height, Dimension box) {
+		double heightToWidth = (double)height/width;
+		if(heightToWidth >= Constants.HEIGHT_TO_WIDTH)
+			return new Dimension(Math.max(1, (int)Math.round((double)width*box.height/height)), box.height);
+		else
+			return new Dimension(box.width, Math.max(1, (int)Math.round((double)height*box.width/width)));
+	}
+
+	/*
+	 * Scales an image to exactly the given size. Large reductions are done in several
+	 * halving steps, since a single bilinear step would skip pixels and look grainy.
+	 */
+	private static BufferedImage scale(Image image, int width, int height) {
+		int type = BufferedImage.TYPE_INT_RGB;
+		if(image instanceof BufferedImage && ((BufferedImage)image).getColorModel().hasAlpha())
+			type = BufferedImage.TYPE_INT_ARGB;
+
+		Image current = image;
+		int currentWidth = image.getWidth(null);
+		int currentHeight = image.getHeight(null);
+
+		do {
+			// Never shrink by more than half in one step, and never overshoot the target.
+			currentWidth = Math.max(width, currentWidth/2);
+			currentHeight = Math.max(height, currentHeight/2);
+
+			BufferedImage step = new BufferedImage(currentWidth, currentHeight, type);
+			Graphics2D g = step.createGraphics();
+			g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+			g.drawImage(current, 0, 0, currentWidth, currentHeight, null);
+			g.dispose();
+			current = step;
+
+		} while(currentWidth != width || currentHeight != height);
+
+		return (BufferedImage)current;
+	}
+
+	/*
+	 * Returns a reader attached to the input, or null if no reader understands it.
+	 */
+	private static ImageReader getReader(ImageInputStream input) {
+		if(input == null) return null;
+		Iterator readers = ImageIO.getImageReaders(input);
+		if(!readers.hasNext()) return null;
+
+		ImageReader reader = (ImageReader)readers.next();
+		reader.setInput(input, true, true);
+		return reader;
+	}
+
+	/*
+	 * Returns the configuration of the default screen, or null if there is none (for
+	 * instance when the library is used without a display).
+	 */
+	private static GraphicsConfiguration findScreen() {
+		if(GraphicsEnvironment.isHeadless()) return null;
+		try {
+			return GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration();
+		} catch (HeadlessException e) {
+			return null;
+		}
+	}
+
+	/*
+	 * Releases the native resources held by a reader and its input.
+	 */
+	private static void close(ImageReader reader, ImageInputStream input) {
+		if(reader != null) reader.dispose();
+		if(input != null) {
+			try { input.close(); } catch (IOException e) {}
+		}
+	}
+
+	//-------------------------------------------------------------------------
+	// END Private Methods
+	//-------------------------------------------------------------------------
+
+}
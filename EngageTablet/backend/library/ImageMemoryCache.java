@@ -0,0 +1,231 @@
+package backend.library;
+
+import java.awt.Image;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import main.Constants;
+
+/**
+ * The ImageMemoryCache holds on to the central images that have been loaded most
+ * recently, up to a fixed number of bytes. When it is full, the central image that has
+ * gone unused the longest is dropped; it can always be loaded again (quickly, from the
+ * DiskImageCache) the next time it is needed.
+ *
+ * Thumbnails are small and are shown all the time, so they are not kept here: each
+ * MediaFile holds on to its own thumbnail.
+ */
+public class ImageMemoryCache {
+
+	//-------------------------------------------------------------------------
+	// Constants
+	//-------------------------------------------------------------------------
+
+	/**
+	 * The default budget for central images, in megabytes.
+	 */
+	static public final int DEFAULT_SIZE_MB = 64;
+
+	//-------------------------------------------------------------------------
+	// END Constants
+	//-------------------------------------------------------------------------
+
+
+	//-------------------------------------------------------------------------
+	// Private Fields
+	//-------------------------------------------------------------------------
+
+	// The cached images, kept in order from least to most recently used.
+	private LinkedHashMap<MediaFile, Entry> images = new LinkedHashMap<MediaFile, Entry>(64, 0.75f, true);
+
+	private long budget;	// The most bytes we may hold.
+	private long size;		// The bytes we currently hold.
+
+	private long hits;		// Lookups that found their image.
+	private long misses;	// Lookups that did not.
+	private long evictions;	// Images dropped to stay within the budget.
+
+	//-------------------------------------------------------------------------
+	// END Private Fields
+	//-------------------------------------------------------------------------
+
+
+	//-------------------------------------------------------------------------
+	// Constructor
+	//-------------------------------------------------------------------------
+
+	/**
+	 * Creates an empty cache.
+	 *
+	 * @param budget The most bytes of images this cache may hold.
+	 */
+	public ImageMemoryCache(long budget) {
+		this.budget = budget;
+	}
+
+	//-------------------------------------------------------------------------
+	// END Constructor
+	//-------------------------------------------------------------------------
+
+
+	//-------------------------------------------------------------------------
+	// Cache Methods
+	//-------------------------------------------------------------------------
+
+	/**
+	 * Returns the central image of a MediaFile, and marks it as recently used.
+	 *
+	 * @param file The MediaFile whose image we want.
+	 * @return The image, or null if it is not in the cache.
+	 */
+	public synchronized Image get(MediaFile file) {
+		Entry entry = images.get(file);
+		if(entry == null) {
+			misses++;
+			return null;
+		}
+		hits++;
+		return entry.image;
+	}
+
+	/**
+	 * Returns the central image of a MediaFile if it is in the cache, and marks it as
+	 * recently used, without counting the lookup as a hit or a miss. This is for callers
+	 * that only want the image if it is already here, and will load it (through get)
+	 * otherwise, so that the statistics count each image that was needed only once.
+	 *
+	 * @param file The MediaFile whose image we want.
+	 * @return The image, or null if it is not in the cache.
+	 */
+	public synchronized Image peek(MediaFile file) {
+		Entry entry = images.get(file);
+		return (entry == null) ? null : entry.image;
+	}
+
+	/**
+	 * Adds the central image of a MediaFile to the cache, dropping the least recently
+	 * used images if that puts us over budget. The image just added is never dropped,
+	 * even if it is larger than the whole budget.
+	 *
+	 * @param file The MediaFile the image belongs to.
+	 * @param image The image to keep.
+	 */
+	public synchronized void put(MediaFile file, Image image) {
+		if(image == null) return;
+
+		Entry entry = new Entry(image);
+		Entry previous = images.put(file, entry);
+		if(previous != null) size -= previous.bytes;
+		size += entry.bytes;
+
+		// The eldest entries come first, so drop from the front until we fit.
+		Iterator<Map.Entry<MediaFile, Entry>> i = images.entrySet().iterator();
+		while(size > budget && images.size() > 1) {
+			Map.Entry<MediaFile, Entry> eldest = i.next();
+			if(eldest.getKey() == file) continue;
+
+			size -= eldest.getValue().bytes;
+			i.remove();
+			evictions++;
+		}
+	}
+
+	/**
+	 * Drops the central image of a MediaFile from the cache, for instance because the
+	 * original has changed on disk.
+	 *
+	 * @param file The MediaFile whose image should be forgotten.
+	 */
+	public synchronized void remove(MediaFile file) {
+		Entry entry = images.remove(file);
+		if(entry != null) size -= entry.bytes;
+	}
+
+	//-------------------------------------------------------------------------
+	// END Cache Methods
+	//-------------------------------------------------------------------------
+
+
+	//-------------------------------------------------------------------------
+	// Getters
+	//-------------------------------------------------------------------------
+
+	/**
+	 * @return The number of lookups that found their image.
+	 */
+	public synchronized long getHits() {
+		return hits;
+	}
+
+	/**
+	 * @return The number of lookups that did not find their image.
+	 */
+	public synchronized long getMisses() {
+		return misses;
+	}
+
+	/**
+	 * @return The number of images dropped to stay within the budget.
+	 */
+	public synchronized long getEvictions() {
+		return evictions;
+	}
+
+	/**
+	 * @return The number of bytes of images currently held.
+	 */
+	public synchronized long getSize() {
+		return size;
+	}
+
+	/**
+	 * Returns a one line summary of the cache, suitable for the log.
+	 */
+	public synchronized String toString() {
+		return "ImageMemoryCache: "+images.size()+" images, "+(size/1024)+"KB of "+(budget/1024)+"KB; "
+				+hits+" hits, "+misses+" misses, "+evictions+" evictions.";
+	}
+
+	//-------------------------------------------------------------------------
+	// END Getters
+	//-------------------------------------------------------------------------
+
+
+	//-------------------------------------------------------------------------
+	// Private Methods
+	//-------------------------------------------------------------------------
+
+	/*
+	 * Estimates how much memory an image takes up, assuming four bytes per pixel. An
+	 * image that has not finished loading is assumed to be the full central size.
+	 */
+	private static long getBytes(Image image) {
+		int width = image.getWidth(null);
+		int height = image.getHeight(null);
+		if(width <= 0 || height <= 0) {
+			width = Constants.CENTER_SIZE.width;
+			height = Constants.CENTER_SIZE.height;
+		}
+		return 4L*width*height;
+	}
+
+	/*
+	 * An image along with its size when it was added, so that exactly the same
+	 * number of bytes is taken off when it is removed.
+	 */
+	private static class Entry {
+		Image image;
+		long bytes;
+
+		Entry(Image image) {
+			this.image = image;
+			this.bytes = getBytes(image);
+		}
+	}
+
+	//-------------------------------------------------------------------------
+	// END Private Methods
+	//-------------------------------------------------------------------------
+
+}
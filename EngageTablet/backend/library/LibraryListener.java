@@ -0,0 +1,49 @@
+package backend.library;
+
+/**
+ * A LibraryListener is told when the media library changes on disk while it is being
+ * watched (see LibraryWatcher). It is called from the watcher's thread, so anything
+ * that touches Swing components must be passed on to the event dispatch thread.
+ *
+ * By the time a file is reported as added or changed, its thumbnail has been made.
+ */
+public interface LibraryListener {
+
+	/**
+	 * Called when a new media file appears in a category.
+	 *
+	 * @param file The new MediaFile, which is already part of its category.
+	 */
+	public void mediaFileAdded(MediaFile file);
+
+	/**
+	 * Called when a media file is removed from a category.
+	 *
+	 * @param file The MediaFile that has been removed from its category.
+	 */
+	public void mediaFileRemoved(MediaFile file);
+
+	/**
+	 * Called when a media file is overwritten, so that its images must be shown again.
+	 *
+	 * @param file The MediaFile whose images have changed.
+	 */
+	public void mediaFileChanged(MediaFile file);
+
+	/**
+	 * Called when a new category (with something in it) appears in a station.
+	 *
+	 * @param category The new CategoryMedia, which is already part of its station.
+	 */
+	public void categoryAdded(CategoryMedia category);
+
+	/**
+	 * Called when a category is removed from a station, either because its folder is
+	 * gone or because it has become empty. Any files it still had have already been
+	 * reported as removed.
+	 *
+	 * @param category The CategoryMedia that has been removed from its station.
+	 */
+	public void categoryRemoved(CategoryMedia category);
+
+}
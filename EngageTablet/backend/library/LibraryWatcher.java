@@ -0,0 +1,251 @@
+package backend.library;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import main.Logger;
+
+/**
+ * The LibraryWatcher keeps the program that is in use up to date with the folders it
+ * was loaded from, so that images can be added to (or removed from) the library while
+ * Engage is running instead of having to restart it.
+ *
+ * Each station folder and each of its category folders is watched. When something in
+ * a folder changes, the watcher waits until the folder has been quiet for a moment
+ * (copying a batch of photographs produces a stream of events) and then lists it again,
+ * adding, removing or invalidating only the MediaFiles and CategoryMedia that actually
+ * changed. The LibraryListener is then told about each change.
+ */
+public class LibraryWatcher implements Runnable {
+
+	//-------------------------------------------------------------------------
+	// Constants
+	//-------------------------------------------------------------------------
+
+	// How long (in milliseconds) a folder must go without changing before it is listed again.
+	static private final long QUIET_TIME = 1000;
+
+	//-------------------------------------------------------------------------
+	// END Constants
+	//-------------------------------------------------------------------------
+
+
+	//-------------------------------------------------------------------------
+	// Private Fields
+	//-------------------------------------------------------------------------
+
+	private WatchService service;	// Tells us when a watched folder changes.
+
+	// What each watched folder is: a station, or a category within a station.
+	private HashMap<WatchKey, Target> targets = new HashMap<WatchKey, Target>();
+
+	// The folders that have changed, and when they last changed. Only used by the watcher thread.
+	private HashMap<WatchKey, Long> pending = new HashMap<WatchKey, Long>();
+
+	// Told about each change, may be null.
+	private volatile LibraryListener listener;
+
+	//-------------------------------------------------------------------------
+	// END Private Fields
+	//-------------------------------------------------------------------------
+
+
+	//-------------------------------------------------------------------------
+	// Constructor
+	//-------------------------------------------------------------------------
+
+	/**
+	 * Creates a LibraryWatcher and starts its (daemon) thread. Nothing is watched until
+	 * watchProgram is called.
+	 *
+	 * @throws IOException If the file system cannot watch folders.
+	 */
+	public LibraryWatcher() throws IOException {
+		service = FileSystems.getDefault().newWatchService();
+
+		Thread thread = new Thread(this, "LibraryWatcher");
+		thread.setDaemon(true);
+		thread.setPriority(Thread.NORM_PRIORITY-1);
+		thread.start();
+	}
+
+	//-------------------------------------------------------------------------
+	// END Constructor
+	//-------------------------------------------------------------------------
+
+
+	//-------------------------------------------------------------------------
+	// Watching
+	//-------------------------------------------------------------------------
+
+	/**
+	 * Sets the listener that is told about each change.
+	 *
+	 * @param listener The LibraryListener to notify, or null for none.
+	 */
+	public void setLibraryListener(LibraryListener listener) {
+		this.listener = listener;
+	}
+
+	/**
+	 * Watches the stations and categories of a program, and stops watching whatever
+	 * was watched before.
+	 *
+	 * @param program The program that is in use.
+	 */
+	public synchronized void watchProgram(ProgramMedia program) {
+		Iterator<WatchKey> keys = targets.keySet().iterator();
+		while(keys.hasNext()) keys.next().cancel();
+		targets.clear();
+
+		Iterator stations = program.getStations();
+		while(stations.hasNext()) register((StationMedia)stations.next());
+
+		Logger.log(Logger.IMPORTANT, "LibraryWatcher: Watching "+targets.size()+" folders in \""+program.getName()+"\".");
+	}
+
+	/**
+	 * Stops watching altogether. The watcher cannot be used again afterwards.
+	 */
+	public void close() {
+		try {
+			service.close();
+		} catch (IOException e) {}
+	}
+
+	/**
+	 * Waits for folders to change and lists them again once they have settled down.
+	 * This runs on the watcher's own thread until close is called.
+	 */
+	public void run() {
+		while(true) {
+			WatchKey key;
+			try {
+				if(pending.isEmpty()) key = service.take();
+				else key = service.poll(QUIET_TIME, TimeUnit.MILLISECONDS);
+			} catch (InterruptedException e) {
+				return;
+			} catch (ClosedWatchServiceException e) {
+				return;
+			}
+
+			long now = System.currentTimeMillis();
+			if(key != null) {
+				// We list the whole folder again anyway, so the events themselves do not matter.
+				key.pollEvents();
+				if(key.reset()) pending.put(key, Long.valueOf(now));
+				else {
+					synchronized(this) { targets.remove(key); }
+					pending.remove(key);
+				}
+			}
+
+			// Refresh every folder that has been quiet for long enough.
+			ArrayList<WatchKey> ready = new ArrayList<WatchKey>();
+			Iterator<Map.Entry<WatchKey, Long>> i = pending.entrySet().iterator();
+			while(i.hasNext()) {
+				Map.Entry<WatchKey, Long> changed = i.next();
+				if(now - changed.getValue().longValue() >= QUIET_TIME) {
+					ready.add(changed.getKey());
+					i.remove();
+				}
+			}
+			for(int r=0; r<ready.size(); r++) refresh(ready.get(r));
+		}
+	}
+
+	//-------------------------------------------------------------------------
+	// END Watching
+	//-------------------------------------------------------------------------
+
+
+	//-------------------------------------------------------------------------
+	// Private Methods and Classes
+	//-------------------------------------------------------------------------
+
+	/*
+	 * Brings the station or category behind a watch key up to date with its folder.
+	 */
+	private void refresh(WatchKey key) {
+		Target target;
+		synchronized(this) { target = targets.get(key); }
+
+		// The program is no longer being watched.
+		if(target == null) return;
+
+		try {
+			CategoryMedia category = (target.categoryName == null) ? null : target.station.getCategory(target.categoryName);
+			if(category != null) {
+				category.refresh(listener);
+				// A category that has been emptied is no longer shown.
+				if(category.isEmpty()) target.station.refresh(listener);
+			}
+			else {
+				// Either the station itself changed, or a category that was empty until now.
+				target.station.refresh(listener);
+				synchronized(this) {
+					if(targets.containsKey(key)) register(target.station);
+				}
+			}
+		} catch (RuntimeException e) {
+			Logger.log(Logger.ERROR, "LibraryWatcher: Unable to refresh \""+target.station.getName()+"\": "+e);
+		}
+	}
+
+	/*
+	 * Watches a station folder and every folder inside it. Folders that are already
+	 * watched keep their existing keys.
+	 */
+	private void register(StationMedia station) {
+		register(station.getFile(), new Target(station, null));
+
+		ArrayList<String> directories = DirectoryIndex.scan(station.getFile()).directories;
+		for(int d=0; d<directories.size(); d++)
+			register(new File(station.getFile(), directories.get(d)), new Target(station, directories.get(d)));
+	}
+
+	/*
+	 * Watches a single folder for files being created, deleted or modified.
+	 */
+	private void register(File directory, Target target) {
+		try {
+			WatchKey key = directory.toPath().register(service,
+								StandardWatchEventKinds.ENTRY_CREATE,
+								StandardWatchEventKinds.ENTRY_DELETE,
+								StandardWatchEventKinds.ENTRY_MODIFY);
+			targets.put(key, target);
+		} catch (IOException e) {
+			Logger.log(Logger.ERROR, "LibraryWatcher: Unable to watch \""+directory.getPath()+"\": "+e.getMessage());
+		} catch (ClosedWatchServiceException e) {
+			// We have been closed; there is nothing left to watch.
+		}
+	}
+
+	/*
+	 * A watched folder: either a station (with no category name), or one of its categories.
+	 */
+	private static class Target {
+		StationMedia station;
+		String categoryName;
+
+		Target(StationMedia station, String categoryName) {
+			this.station = station;
+			this.categoryName = categoryName;
+		}
+	}
+
+	//-------------------------------------------------------------------------
+	// END Private Methods and Classes
+	//-------------------------------------------------------------------------
+
+}
@@ -1,269 +1,443 @@
-package backend.library;
-
-import java.awt.Image;
-import java.awt.MediaTracker;
-import java.io.File;
-
-import javax.swing.ImageIcon;
-
-import main.Constants;
-
-/**
- * Every file we can display is a kind of MediaFile. To actually instantiate a media file, you 
- * must actually create the specific kind of MediaFile that represents the file -- there is no 
- * such thing as a "defualt MediaFile".
- * 
- * @author Carl Angiolillo
- *
- *TODO Corl plenty of out of memory errors mayybe you can load images on demand?
- *
- */
-public abstract class MediaFile extends LibraryObject{
-
-	
-	//-------------------------------------------------------------------------
-	// Constants
-	//-------------------------------------------------------------------------
-	
-	/** 
-	 * Determines the speed of image scaling. Can be changed to: SCALE_DEFAULT,
-	 * SCALE_FAST, SCALE_SMOOTH, SCALE_REPLICATE, SCALE_AREA_AVERAGING (slow)
-	 * I've played around and they all seem comperable in speed.
-	 */ 
-	static public final int	  SCALE_SPEED = Image.SCALE_FAST;
-	
-	/**
-	 * There is currently only one recognized filetype, and that is an image.
-	 */ 
-	static public final String IMAGE_TYPE = "image";
-	//static protected final String VIDEO_TYPE = "video";
-	//static protected final String MODEL_TYPE = "model"; //3-D?
-	//static protected final String MAP_TYPE = "map"; //realtime maps
-	//static protected final String TV_TYPE = "tv"; //Live TV stream?
-	//static protected final String AUDIO_TYPE = "audio";
-	
-	//-------------------------------------------------------------------------
-	// END Constants
-	//-------------------------------------------------------------------------
-
-
-	//-------------------------------------------------------------------------
-	// Protected Fields
-	//-------------------------------------------------------------------------
-	
-	protected Image centralImage;	//The central image, displayed on the stage.
-	protected Image thumbImage; 	//The thumbnail image.
-	
-	private double heightToWidth = 0; //The height-to-width ratio of the image.
-	
-	// Necessary to block until the image has fully loaded.
-	private MediaTracker mt = new MediaTracker(this);
-	
-	//-------------------------------------------------------------------------
-	// END Protected Fields
-	//-------------------------------------------------------------------------
-	
-	
-	//-------------------------------------------------------------------------
-	// Constructor
-	//-------------------------------------------------------------------------
-
-	/**
-	 * @param file The original media file.
-	 * @param parent The CategoryMedia containing this MediaFile.
-	 */
-	public MediaFile(File file, CategoryMedia parent) {
-		super(file, parent);
-	}
-
-	//-------------------------------------------------------------------------
-	// END Constructor
-	//-------------------------------------------------------------------------
-	
-	
-	//-------------------------------------------------------------------------
-	// Getters and Setters
-	//-------------------------------------------------------------------------
-	
-
-	
-	/**
-	 * @return The Image to be displayed in the center pane.
-	 */	
-	public Image getCentralImage(){
-		
-		// We want to make sure the central image is definately loaded if it has not been loaded yet.
-		loadImages(false,true);
-		return centralImage;
-	}
-
-	/**
-	 * @return The thumbnail Image to be displayed in the library and queue.
-	 */
-	public Image getThumbImage(){
-		
-		// We do not particularly care if the central image has finished loading at this point.
-		loadImages(true, false);
-		return thumbImage;
-	}
-	
-	/**
-	 * Returns the path (relative to the the library) of this media file.
-	 * 
-	 * For example, the image "Ducks.jpg" in the category "Fowl" in the station "Birds" 
-	 * in the program "Enviornmental Science" would return the String
-	 * "Data/Library/Enviornmental Science/Birds/Fowl/Ducks.jpg"
-	 * Note that we will always use the Unix standard file seperators.
-	 * 
-	 * @return A String of this file's pathname.
-	 */
-	public String getPath(){
-		String systemIndependentPath = this.getFile().getPath().replaceAll("\\\\","/");
-		String[] pathArray = systemIndependentPath.split("/"); 
-		int n = pathArray.length;
-		
-		// We only need the program, station, category, and file
-		if(n<=3) log("File pathnames must have a depth of at least four: Program/Station/Category/File. This file does not.");
-		String shortPath = pathArray[n-4]+"/"+pathArray[n-3]+"/"+pathArray[n-2]+"/"+pathArray[n-1]; 
-		
-		return shortPath;
-	}
-	
-	//-------------------------------------------------------------------------
-	// END Getters and Setters
-	//-------------------------------------------------------------------------
-
-	
-	//-------------------------------------------------------------------------
-	// Imaging Methods
-	//-------------------------------------------------------------------------
-
-	/*
-	 * Used to set both the large image and the thumbnail image. If the image 
-	 * is not of the right size it will be resized. If the image is not of the
-	 * right ratio, it will modify the image by adding a background color and
-	 * then resizing it.
-	 */
-	protected void loadImages(boolean waitForThumbImage, boolean waitForCentralImage){
-				
-		// If they images are not set, set them.
-		if(centralImage == null || thumbImage == null) {
-
-			// One of them is null, so we need to get the original image.
-			Image original = (new ImageIcon(this.getFile().getAbsolutePath())).getImage();
-
-			// If we don't already have the height to width ratio, get it.
-			if (heightToWidth==0) {
-				//loadImage(original); TODO I'm pretty sure I don't need this...
-				heightToWidth = (double)original.getHeight(null)/original.getWidth(null);
-			}
-
-			// Check to see if the image is taller or wider than the standard h/w ratio.
-			if(heightToWidth >= Constants.HEIGHT_TO_WIDTH){
-
-				// The image is taller than (or equal to) the standard h/w ratio, so we must restrict by the height.
-				if(centralImage==null) 	
-					centralImage = original.getScaledInstance(-1,Constants.CENTER_SIZE.height,SCALE_SPEED);
-				if(thumbImage==null) 
-					thumbImage 	 = original.getScaledInstance(-1,Constants.THUMB_SIZE.height,SCALE_SPEED);
-
-				log("Generating thumbnail from tall image, ratio:"+heightToWidth);
-
-			}else {
-
-				// The image is wider than the standard h/w ratio, so we must restrict by the width.
-				if(centralImage==null)
-					centralImage = original.getScaledInstance(Constants.CENTER_SIZE.width,-1,SCALE_SPEED);
-				if(thumbImage==null)
-					thumbImage 	 = original.getScaledInstance(Constants.THUMB_SIZE.width,-1,SCALE_SPEED);
-
-				log("Generating thumbnail from wide image, ratio: "+heightToWidth);			
-			}
-			System.gc();
-
-
-		}
-		if(centralImage !=null && waitForCentralImage) loadImage(centralImage);
-		if(waitForThumbImage)	loadImage(thumbImage);
-
-	}
-
-	/**
-     * Creates an image object and ensures that it is completely
-     * loaded before returning the object.
-     * 
-     * @param load the image.
-     */
-    protected synchronized void loadImage(Image img) {
-		mt.addImage(img,1);
-		try { 
-			mt.waitForAll(); 
-		} catch (InterruptedException  e) {}
-		mt.removeImage(img);
-    }
-    
-	//-------------------------------------------------------------------------
-	// END Imaging Methods
-	//-------------------------------------------------------------------------
-	
-	
-	//-------------------------------------------------------------------------
-	// Static File Identification Methods
-	//-------------------------------------------------------------------------
-	
-	/*
-	 * This static method is used to analyze the filetype and, if possible, convert it to the 
-	 * correct kind of MediaFile. It will return null if it does not recognize the file type 
-	 * it is given.
-	 */
-	protected static MediaFile convertToMediaFile(File file, CategoryMedia parent) {
-		if(!file.isFile()) {
-			parent.log(" "+file.getName()+": is not a file.");
-			return null;
-		}
-		
-		else if(file.getName().startsWith(".")||file.isHidden()){
-			parent.log(" "+file.getName()+": is a hidden file.");
-			return null;
-		}
-				
-		String type = MediaFile.getType(file);	
-		if(type == null){
-			parent.log(" "+file.getName()+": \""+getExtension(file)+"\" is an unsupported file type.");
-			return null;			
-		}
-		
-		if(type.equals(IMAGE_TYPE)) return new ImageFile(file,parent);
-
-		return null;
-	}
-	
-	/*
-	 * Given a file, returns a constant representing the file type. If it 
-	 * cannot determine the file type, null is returned.
-	 */
-	private static String getType(File file) {
-		String extension = getExtension(file);
-		
-		if (extension.equals("jpeg") ||
-			extension.equals("png") ||
-			extension.equals("gif") ||
-			extension.equals("jpg"))
-			return IMAGE_TYPE;
-		else return null;
-	}	
-
-	/*
-	 * Returns the extension of of the file in question.
-	 */
-	private static String getExtension(File file){
-		String filename = file.getName().toLowerCase();
-		return filename.substring(filename.lastIndexOf(".")+1);
-	}
-	
-	//-------------------------------------------------------------------------
-	// END Static File Identification Methods
-	//-------------------------------------------------------------------------
-
-	
-}
+package backend.library;
+
+import java.awt.Dimension;
+import java.awt.Image;
+import java.awt.MediaTracker;
+import java.awt.image.BufferedImage;
+import java.io.File;
+
+import javax.swing.ImageIcon;
+
+import main.Constants;
+
+/**
+ * Every file we can display is a kind of MediaFile. To actually instantiate a media file, you 
+ * must actually create the specific kind of MediaFile that represents the file -- there is no 
+ * such thing as a "defualt MediaFile".
+ * 
+ * @author Carl Angiolillo
+ *
+ *TODO Corl plenty of out of memory errors mayybe you can load images on demand?
+ *
+ */
+public abstract class MediaFile extends LibraryObject{
+
+	
+	//-------------------------------------------------------------------------
+	// Constants
+	//-------------------------------------------------------------------------
+	
+	/** 
+	 * Determines the speed of image scaling. Can be changed to: SCALE_DEFAULT,
+	 * SCALE_FAST, SCALE_SMOOTH, SCALE_REPLICATE, SCALE_AREA_AVERAGING (slow)
+	 * I've played around and they all seem comperable in speed.
+	 */ 
+	static public final int	  SCALE_SPEED = Image.SCALE_FAST;
+	
+	/**
+	 * There is currently only one recognized filetype, and that is an image.
+	 */ 
+	static public final String IMAGE_TYPE = "image";
+	//static protected final String VIDEO_TYPE = "video";
+	//static protected final String MODEL_TYPE = "model"; //3-D?
+	//static protected final String MAP_TYPE = "map"; //realtime maps
+	//static protected final String TV_TYPE = "tv"; //Live TV stream?
+	//static protected final String AUDIO_TYPE = "audio";
+	
+	//-------------------------------------------------------------------------
+	// END Constants
+	//-------------------------------------------------------------------------
+
+
+	//-------------------------------------------------------------------------
+	// Protected Fields
+	//-------------------------------------------------------------------------
+	
+	// The thumbnail image. The central image is kept in the library's ImageMemoryCache
+	// instead, so that it can be dropped when memory runs low.
+	protected volatile Image thumbImage;
+	
+	private double heightToWidth = 0; //The height-to-width ratio of the image.
+	
+	private String path;		// The path of this file within the library, made the first time it is asked for.
+	
+	private long length;		// The size of the original file, as of when it was listed.
+	private long lastModified;	// The modification date of the original, as of when it was listed.
+	private boolean verified;	// False until the size and date are known to match the original.
+	
+	private String cacheKey;	// The name of this file's images in the DiskImageCache, made the first time it is asked for.
+	
+	// Necessary to block until the image has fully loaded.
+	private MediaTracker mt = new MediaTracker(this);
+	
+	//-------------------------------------------------------------------------
+	// END Protected Fields
+	//-------------------------------------------------------------------------
+	
+	
+	//-------------------------------------------------------------------------
+	// Constructor
+	//-------------------------------------------------------------------------
+
+	/**
+	 * @param file The original media file.
+	 * @param parent The CategoryMedia containing this MediaFile.
+	 */
+	public MediaFile(File file, CategoryMedia parent) {
+		super(file, parent);
+	}
+
+	//-------------------------------------------------------------------------
+	// END Constructor
+	//-------------------------------------------------------------------------
+	
+	
+	//-------------------------------------------------------------------------
+	// Getters and Setters
+	//-------------------------------------------------------------------------
+	
+
+	
+	/**
+	 * @return The Image to be displayed in the center pane.
+	 */	
+	public Image getCentralImage(){
+		
+		// We want to make sure the central image is definately loaded if it has not been loaded yet.
+		return loadImages(false,true);
+	}
+
+	/**
+	 * Returns the central image only if it can be had without loading anything, that
+	 * is, if it is still in the library's ImageMemoryCache.
+	 * 
+	 * @return The Image to be displayed in the center pane, or null if it would have to be loaded.
+	 */
+	public Image peekCentralImage(){
+		MediaLibrary library = getMediaLibrary();
+		ImageMemoryCache memory = (library == null) ? null : library.getImageMemoryCache();
+		return (memory == null) ? null : memory.peek(this);
+	}
+
+	/**
+	 * Returns the thumbnail only if it has already been loaded. Unlike getThumbImage,
+	 * this never decodes anything or waits for another thread to finish loading.
+	 * 
+	 * @return The thumbnail Image, or null if it has not been loaded yet.
+	 */
+	public Image peekThumbImage(){
+		return thumbImage;
+	}
+
+	/**
+	 * @return The thumbnail Image to be displayed in the library and queue.
+	 */
+	public Image getThumbImage(){
+		
+		// We do not particularly care if the central image has finished loading at this point,
+		// and once we have a thumbnail there is no need to bring the central image back.
+		if(thumbImage == null) loadImages(true, false);
+		return thumbImage;
+	}
+	
+	/*
+	 * Returns the size of the original file as of when its category was listed.
+	 */
+	long getLength(){
+		return length;
+	}
+	
+	/*
+	 * Returns the modification date of the original file as of when its category was listed.
+	 */
+	long getLastModified(){
+		return lastModified;
+	}
+	
+	/*
+	 * Returns the key of this file's images in the DiskImageCache, or null if it has not
+	 * been made yet (or the original has changed since).
+	 */
+	synchronized String getCacheKey(){
+		return cacheKey;
+	}
+	
+	/*
+	 * Keeps the key of this file's images in the DiskImageCache.
+	 */
+	synchronized void setCacheKey(String key){
+		cacheKey = key;
+	}
+	
+	/**
+	 * Returns the path (relative to the the library) of this media file.
+	 * 
+	 * For example, the image "Ducks.jpg" in the category "Fowl" in the station "Birds" 
+	 * in the program "Enviornmental Science" would return the String
+	 * "Data/Library/Enviornmental Science/Birds/Fowl/Ducks.jpg"
+	 * Note that we will always use the Unix standard file seperators.
+	 * 
+	 * The path is worked out once and then kept. It is interned, since it is the key 
+	 * by which the library finds this file and is compared against every saved queue.
+	 * 
+	 * @return A String of this file's pathname.
+	 */
+	public String getPath(){
+		if(path != null) return path;
+		
+		String systemIndependentPath = this.getFile().getPath().replaceAll("\\\\","/");
+		String[] pathArray = systemIndependentPath.split("/"); 
+		int n = pathArray.length;
+		
+		// We only need the program, station, category, and file
+		if(n<=3) log("File pathnames must have a depth of at least four: Program/Station/Category/File. This file does not.");
+		String shortPath = pathArray[n-4]+"/"+pathArray[n-3]+"/"+pathArray[n-2]+"/"+pathArray[n-1]; 
+		
+		path = shortPath.intern();
+		return path;
+	}
+	
+	//-------------------------------------------------------------------------
+	// END Getters and Setters
+	//-------------------------------------------------------------------------
+
+	
+	//-------------------------------------------------------------------------
+	// Imaging Methods
+	//-------------------------------------------------------------------------
+
+	/*
+	 * Used to set both the large image and the thumbnail image. If the image 
+	 * is not of the right size it will be resized. If the image is not of the
+	 * right ratio, it will modify the image by adding a background color and
+	 * then resizing it.
+	 * 
+	 * Images that were resized on a previous run are read straight from the 
+	 * library's DiskImageCache; the original is only decoded on a cache miss.
+	 * The central image is handed to the library's ImageMemoryCache rather than
+	 * kept here, and is returned so the caller can use it before it is evicted.
+	 * 
+	 * This is synchronized so that a PrefetchEngine worker and the event thread
+	 * never decode the same file twice; different files load in parallel.
+	 */
+	protected synchronized Image loadImages(boolean waitForThumbImage, boolean waitForCentralImage){
+		
+		MediaLibrary library = getMediaLibrary();
+		DiskImageCache cache = (library == null) ? null : library.getDiskImageCache();
+		ImageMemoryCache memory = (library == null) ? null : library.getImageMemoryCache();
+		
+		// The central image may still be in memory from the last time it was used.
+		Image centralImage = (memory == null) ? null : memory.get(this);
+		
+		// If the images are not set, see if there are already scaled copies on disk. The
+		// central image is only read back if it is about to be used; otherwise it is 
+		// enough to know that it is there.
+		boolean needCentralImage = true;
+		if(cache != null) {
+			verify();
+			if(thumbImage == null)	 thumbImage   = ImageDecoder.toCompatible(cache.read(this, DiskImageCache.THUMB));
+			if(centralImage == null) {
+				if(waitForCentralImage) {
+					centralImage = ImageDecoder.toCompatible(cache.read(this, DiskImageCache.CENTER));
+					if(memory != null) memory.put(this, centralImage);
+				}
+				else if(cache.contains(this, DiskImageCache.CENTER)) needCentralImage = false;
+			}
+		}
+				
+		// If the images are still not set, scale them from the original.
+		if((centralImage == null && needCentralImage) || thumbImage == null) {
+			boolean scaledThumbImage = (thumbImage == null);
+			boolean scaledCentralImage = (centralImage == null && needCentralImage);
+			
+			// Decode straight to size with ImageIO if we can, otherwise use the Toolkit.
+			BufferedImage decoded = ImageDecoder.decode(this.getFile(), 
+									scaledCentralImage ? Constants.CENTER_SIZE : Constants.THUMB_SIZE);
+			if(decoded != null) {
+				if(scaledCentralImage) {
+					centralImage = decoded;
+					
+					// Make the thumbnail from the central image so the original is only read once.
+					if(scaledThumbImage) thumbImage = ImageDecoder.scale(decoded, Constants.THUMB_SIZE);
+				}
+				else thumbImage = decoded;
+			}
+			else {
+				Image original = (new ImageIcon(this.getFile().getAbsolutePath())).getImage();
+				if(scaledCentralImage) centralImage = scaleWithToolkit(original, Constants.CENTER_SIZE);
+				if(scaledThumbImage)   thumbImage   = scaleWithToolkit(original, Constants.THUMB_SIZE);
+				System.gc();
+				
+				// They have to be completely loaded before they can be converted below.
+				if(scaledCentralImage) loadImage(centralImage);
+				if(scaledThumbImage)   loadImage(thumbImage);
+			}
+			
+			// Keep the images in the screen's own format, so drawing them is a straight copy.
+			if(scaledCentralImage) centralImage = ImageDecoder.toCompatible(centralImage);
+			if(scaledThumbImage)   thumbImage   = ImageDecoder.toCompatible(thumbImage);
+			
+			// Save the newly scaled images so we don't have to do this again next time. They
+			// have to be completely loaded before they can be written out.
+			if(cache != null) {
+				if(scaledThumbImage) {
+					loadImage(thumbImage);
+					cache.write(this, DiskImageCache.THUMB, thumbImage);
+				}
+				if(scaledCentralImage) {
+					loadImage(centralImage);
+					cache.write(this, DiskImageCache.CENTER, centralImage);
+				}
+			}
+			if(scaledCentralImage && memory != null) memory.put(this, centralImage);
+
+		}
+		if(centralImage !=null && waitForCentralImage) loadImage(centralImage);
+		if(waitForThumbImage)	loadImage(thumbImage);
+		
+		return centralImage;
+	}
+	
+	/*
+	 * Has the Toolkit scale the original to fit within the box. This is slow and needs 
+	 * a lot of memory, so it is only used for files that ImageIO cannot decode.
+	 */
+	private Image scaleWithToolkit(Image original, Dimension box){
+
+		// If we don't already have the height to width ratio, get it.
+		if (heightToWidth==0) {
+			//loadImage(original); TODO I'm pretty sure I don't need this...
+			heightToWidth = (double)original.getHeight(null)/original.getWidth(null);
+		}
+
+		// Check to see if the image is taller or wider than the standard h/w ratio.
+		if(heightToWidth >= Constants.HEIGHT_TO_WIDTH){
+
+			// The image is taller than (or equal to) the standard h/w ratio, so we must restrict by the height.
+			log("Generating image from tall image, ratio:"+heightToWidth);
+			return original.getScaledInstance(-1,box.height,SCALE_SPEED);
+
+		}else {
+
+			// The image is wider than the standard h/w ratio, so we must restrict by the width.
+			log("Generating image from wide image, ratio: "+heightToWidth);
+			return original.getScaledInstance(box.width,-1,SCALE_SPEED);
+		}
+	}
+
+	/*
+	 * Forgets the scaled images of this file because the original has changed on disk,
+	 * and records its new size and modification date. The next time the images are
+	 * asked for they are made again; the DiskImageCache is keyed on the size and date,
+	 * so the stale copies there are deleted while the old key is still known.
+	 */
+	synchronized void invalidate(DirectoryIndex.Entry entry){
+		MediaLibrary library = getMediaLibrary();
+		DiskImageCache cache = (library == null) ? null : library.getDiskImageCache();
+		if(cache != null) cache.remove(this);
+		cacheKey = null;
+		
+		length = entry.length;
+		lastModified = entry.modified;
+		verified = entry.verified;
+		thumbImage = null;
+		heightToWidth = 0;
+		
+		ImageMemoryCache memory = (library == null) ? null : library.getImageMemoryCache();
+		if(memory != null) memory.remove(this);
+	}
+
+	/*
+	 * Checks the size and date this file was listed with against the original, the 
+	 * first time the DiskImageCache is about to be used. A listing taken from the 
+	 * DirectoryIndex may be out of date for a file overwritten in place while the 
+	 * program was closed, and its old scaled images must not be read back.
+	 */
+	private synchronized void verify(){
+		if(verified) return;
+		verified = true;
+		
+		DirectoryIndex.Entry entry = DirectoryIndex.stat(this.getFile());
+		if(entry == null || (entry.length == length && entry.modified == lastModified)) return;
+		
+		log("has changed since it was indexed.");
+		invalidate(entry);
+	}
+
+	/**
+     * Creates an image object and ensures that it is completely
+     * loaded before returning the object.
+     * 
+     * @param load the image.
+     */
+    protected synchronized void loadImage(Image img) {
+		mt.addImage(img,1);
+		try { 
+			mt.waitForAll(); 
+		} catch (InterruptedException  e) {}
+		mt.removeImage(img);
+    }
+    
+	//-------------------------------------------------------------------------
+	// END Imaging Methods
+	//-------------------------------------------------------------------------
+	
+	
+	//-------------------------------------------------------------------------
+	// Static File Identification Methods
+	//-------------------------------------------------------------------------
+	
+	/*
+	 * This static method is used to analyze the filetype and, if possible, convert it to the 
+	 * correct kind of MediaFile. It will return null if it does not recognize the file type 
+	 * it is given. Hidden files and folders have already been left out of the listing.
+	 */
+	protected static MediaFile convertToMediaFile(DirectoryIndex.Entry entry, CategoryMedia parent) {
+		File file = new File(parent.getFile(), entry.name);
+				
+		String type = MediaFile.getType(file);	
+		if(type == null){
+			parent.log(" "+file.getName()+": \""+getExtension(file)+"\" is an unsupported file type.");
+			return null;			
+		}
+		
+		MediaFile mediaFile = null;
+		if(type.equals(IMAGE_TYPE)) mediaFile = new ImageFile(file,parent);
+		
+		if(mediaFile != null) {
+			mediaFile.length = entry.length;
+			mediaFile.lastModified = entry.modified;
+			mediaFile.verified = entry.verified;
+		}
+		return mediaFile;
+	}
+	
+	/*
+	 * Given a file, returns a constant representing the file type. If it 
+	 * cannot determine the file type, null is returned.
+	 */
+	private static String getType(File file) {
+		String extension = getExtension(file);
+		
+		if (extension.equals("jpeg") ||
+			extension.equals("png") ||
+			extension.equals("gif") ||
+			extension.equals("jpg"))
+			return IMAGE_TYPE;
+		else return null;
+	}	
+
+	/*
+	 * Returns the extension of of the file in question.
+	 */
+	private static String getExtension(File file){
+		String filename = file.getName().toLowerCase();
+		return filename.substring(filename.lastIndexOf(".")+1);
+	}
+	
+	//-------------------------------------------------------------------------
+	// END Static File Identification Methods
+	//-------------------------------------------------------------------------
+
+	
+}
@@ -1,255 +1,528 @@
-package backend.library;
-
-import java.io.File;
-import java.util.GregorianCalendar;
-import java.util.Iterator;
-import java.util.TreeMap;
-
-import main.Logger;
-
-/**
- * The MediaLibrary contains all of the media files that Pittsburgh Voyager 
- * uses.
- * 
- * @author Carl Angiolillo
- *
- */
-public class MediaLibrary extends LibraryObject{
-
-	
-	//-------------------------------------------------------------------------
-	// Private Fields
-	//-------------------------------------------------------------------------
-
-	/* 
-	 * The list of all educational programs in this library.
-	 */ 
-	private TreeMap<String, ProgramMedia> programs = new TreeMap<String, ProgramMedia>(); 
-
-	//-------------------------------------------------------------------------
-	// END Private Fields
-	//-------------------------------------------------------------------------
-
-	
-	//-------------------------------------------------------------------------
-	// Getters and Setters
-	//-------------------------------------------------------------------------
-	
-	/**
-	 * Returns an Iterator of ProgramMedia files.
-	 * 
-	 * @return An Iterator of ProgramMedia files.
-	 * @see ProgramMedia
-	 */
-	public Iterator getPrograms(){
-		return programs.values().iterator();
-	}
-	
-	/**
-	 * Used to procure a list of the names of all of the programs.
-	 * @return a String[] containing all of the program names.
-	 */
-	public String[] getProgramNames(){
-		Iterator progs = this.getPrograms();
-		String[] names = new String[programs.size()];
-		for(int i=0; i<programs.size(); i++){
-			names[i] = ((ProgramMedia) progs.next()).getName();
-		}
-		return names;
-	}
-
-	/**
-	 * Given the name of an educational program, returns a ProgramMedia with this name,
-	 * or null if none is found.
-	 * 
-	 * @param name the name of the program to seek for.
-	 * @return A ProgramMedia with this name, or null if none is found.
-	 */
-	public ProgramMedia getProgram(String name){
-		return (ProgramMedia)programs.get(name);
-	}
-	
-	/**
-	 * This method uses a relative pathname to find the associated MediaFile.
-	 * All paths are of the form: "Data/Library/Program/Station/Category/file.ext"
-	 * 
-	 * @param path The relative location of the media. This must be a unix-style path (using '/')
-	 * @return A MediaFile representing that location, or null if path is invalid.
-	 */
-	public MediaFile getMediaFile(String path){
-		
-		// Split the path into each of the component parts along the file separator.
-		// This application uses the unix standard for hierarchical structure.
-		String[] p = path.split("/");
-		if(p.length!=4)Logger.log(Logger.ERROR,"Invalid file path:"+path+". File paths should have a depth of four.");
-
-		// TODO I should probably take out these null constructors...
-		ProgramMedia program = null;
-		StationMedia station = null;
-		CategoryMedia category = null;
-		MediaFile file = null;
-		
-		// We can ignore p[0] and p[1] because they are merely the name of the database and
-		// library respecitvely. They will most likely be "Data" and "Library".
-		try{program = this.getProgram(p[0]);}
-		catch (Exception e){}
-		if (program == null){
-			Logger.log(Logger.ERROR,"Unable to locate program \""+p[0]+"\" on path: "+path);
-			return null;
-		}
-		
-		try{station = program.getStation(p[1]);}
-		catch (Exception e){}
-		if (station == null){
-			Logger.log(Logger.ERROR,"Unable to locate station \""+p[1]+"\" on path: "+path);
-			return null;
-		}
-		
-		try{category = station.getCategory(p[2]);}
-		catch (Exception e){}
-		if (category == null){
-			Logger.log(Logger.ERROR,"Unable to locate category \""+p[2]+"\" on path: "+path);
-			return null;
-		}
-		
-		try{file = category.getMediaFile(p[3]);}
-		catch (Exception e){}
-		if (file == null) {
-			Logger.log(Logger.ERROR,"Unable to locate media file \""+p[3]+"\" on path: "+path);
-			return null;
-		}
-		
-		log("File found at: "+path);
-		return file;
-	}
-	
-	//-------------------------------------------------------------------------
-	// END Getters and Setters
-	//-------------------------------------------------------------------------
-	
-	
-	
-	//-------------------------------------------------------------------------
-	// Prefetching
-	//-------------------------------------------------------------------------
-
-	/**
-	 * Goes through the MediaLibrary, and "prefetches" the images. This means
-	 * loading them if they are not already loaded, and waiting for them to load
-	 * depending on the values of the two booleans.
-	 * 
-	 * @param programName A string containing the name of the program to "prefetch"
-	 * @param waitForThumbImage true if we should use a MediaTracker to ensure that the thumbnail is loaded before returning.
-	 * @param waitForCentralImage true if we should use a MediaTracker to ensure that the large central image is loaded before returning.
-	 */
-	public void prefetchProgramImages(String programName, boolean waitForThumbImage, boolean waitForCentralImage){
-		long startTime = (new GregorianCalendar()).getTimeInMillis();
-		Logger.log(Logger.IMPORTANT, "MediaLibrary: Prefetching images.");
-		getProgram(programName).prefetchImages(waitForThumbImage, waitForCentralImage);
-
-		long endTime = (new GregorianCalendar()).getTimeInMillis();
-		double elapsedTime = ((double)(endTime-startTime))/1000;
-		Logger.log(Logger.IMPORTANT,"MediaLibrary: Done! Took " + elapsedTime + " seconds to prefetch \""+programName+"\" program images.");
-	}
-
-	//-------------------------------------------------------------------------
-	// END Prefetching
-	//-------------------------------------------------------------------------
-
-	
-
-	//-------------------------------------------------------------------------
-	// Constructor
-	//-------------------------------------------------------------------------
-	
-	/**
-	 * This constructor will turn a pathname into the entire library
-	 * for use with the OnDemandMedia application. It expects the path of the
-	 * main "Library" folder, which is where the library is kept.
-	 * 
-	 * @param libraryPath The (absolute or relative) location of the Library folder.
-	 */
-	public MediaLibrary(String libraryPath) {
-		super(convertPathToDirectory(libraryPath), null);
-		
-		// If the path sucessfully resolved to a directory, begin loading the library.
-		if(this.getFile() != null) {
-			long startTime = (new GregorianCalendar()).getTimeInMillis();
-			Logger.log(Logger.IMPORTANT,"MediaLibrary: Loading library from \""+this.getFile().getAbsolutePath()+"\".");
-			
-			// Loop through the contents of the library directory.
-			File[] directoryContents = this.getFile().listFiles();
-			for (int i=0; i<directoryContents.length; i++) {
-				
-				// Every folder in the main library directory represents another educational program.
-				if(isStandardDir(directoryContents[i])) {
-					ProgramMedia programToAdd = new ProgramMedia(directoryContents[i],this);
-					
-					// If the program is not empty, add it to the list of programs.
-					if(!programToAdd.isEmpty()) programs.put(programToAdd.getName(),programToAdd);
-				}
-			}
-			long endTime = (new GregorianCalendar()).getTimeInMillis();
-			double elapsedTime = ((double)(endTime-startTime))/1000;
-			Logger.log(Logger.IMPORTANT,"MediaLibrary: Done! Took " + elapsedTime + " seconds to load library.");
-		} 
-		
-		// If the path was not resolved to a directory, we cannot load the library.
-		else 
-			Logger.log(Logger.ERROR, "Error loading library. I could not find the directory at \""+libraryPath+"\".");
-		
-	}
-
-	//-------------------------------------------------------------------------
-	// END Constructor
-	//-------------------------------------------------------------------------
-
-	
-	//-------------------------------------------------------------------------
-	// Static Methods
-	//-------------------------------------------------------------------------
-	
-	/*
-	 * Converts a path into a directory if possible. If it is not possible for
-	 * some reason, then the method returns null.
-	 */
-	private static File convertPathToDirectory (String path){
-		File directory = null;
-		
-		// Attempt to load the folder containing the media library.
-		try{
-			directory = new File(path);
-		}catch (NullPointerException e){
-			Logger.log(Logger.IMPORTANT, "\""+path+"\" is a null path.");
-		}
-		
-		// Make certain that we have actually loaded a directory.
-		if(isStandardDir(directory))
-			return directory;
-		else
-			return null;
-	}
-	
-	/*
-	 * Determines whether or not the File it is given is a standard directory,
-	 * which means it must be a directory, but it also must not be a system
-	 * directory in order to be considered "standard".
-	 */
-	protected static boolean isStandardDir(File file){
-		
-		// It must exist and be a directory.
-		if (!file.exists()) return false;
-		if (!file.isDirectory()) return false;
-		
-		// Also, we do not wish to look through system directories.
-		if (file.getName().startsWith(".")) return false;
-		if (file.isHidden()) return false;
-		return true;
-	}
-	
-	//-------------------------------------------------------------------------
-	// END Static Methods
-	//-------------------------------------------------------------------------
-
-	
-}
+package backend.library;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.GregorianCalendar;
+import java.util.Iterator;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.Vector;
+import java.util.concurrent.ConcurrentHashMap;
+
+import main.Logger;
+
+/**
+ * The MediaLibrary contains all of the media files that Pittsburgh Voyager 
+ * uses.
+ * 
+ * @author Carl Angiolillo
+ *
+ */
+public class MediaLibrary extends LibraryObject{
+
+	
+	//-------------------------------------------------------------------------
+	// Private Fields
+	//-------------------------------------------------------------------------
+
+	/* 
+	 * The list of all educational programs in this library.
+	 */ 
+	private TreeMap<String, ProgramMedia> programs = new TreeMap<String, ProgramMedia>(); 
+
+	/*
+	 * Every MediaFile in the programs that have been loaded, by its path (see MediaFile.getPath).
+	 */
+	private ConcurrentHashMap<String, MediaFile> mediaFilesByPath = new ConcurrentHashMap<String, MediaFile>();
+
+	/*
+	 * Pre-scaled copies of the images, kept on disk between runs. Null if images
+	 * should always be scaled from the originals.
+	 */
+	private DiskImageCache diskCache;
+
+	/*
+	 * What was in each folder of the library last time, so that unchanged folders do 
+	 * not have to be listed again. Null if every folder should be listed.
+	 */
+	private DirectoryIndex directoryIndex;
+
+	/*
+	 * The central images that have been used most recently. Thumbnails are kept by
+	 * each MediaFile, but central images are only held as long as there is room here.
+	 */
+	private ImageMemoryCache memoryCache = new ImageMemoryCache(ImageMemoryCache.DEFAULT_SIZE_MB*1024L*1024L);
+
+	/*
+	 * Loads the images of a program on several threads at once.
+	 */
+	private PrefetchEngine prefetchEngine = new PrefetchEngine(PrefetchEngine.DEFAULT_THREADS);
+
+	/*
+	 * Keeps the program in use up to date with its folders. Null until a program is watched.
+	 */
+	private LibraryWatcher watcher;
+	
+	/*
+	 * Told when the watched program changes on disk, may be null.
+	 */
+	private LibraryListener libraryListener;
+
+	//-------------------------------------------------------------------------
+	// END Private Fields
+	//-------------------------------------------------------------------------
+
+	
+	//-------------------------------------------------------------------------
+	// Getters and Setters
+	//-------------------------------------------------------------------------
+	
+	/**
+	 * Returns an Iterator of ProgramMedia files.
+	 * 
+	 * @return An Iterator of ProgramMedia files.
+	 * @see ProgramMedia
+	 */
+	public Iterator getPrograms(){
+		return programs.values().iterator();
+	}
+	
+	/**
+	 * Used to procure a list of the names of all of the programs.
+	 * @return a String[] containing all of the program names.
+	 */
+	public String[] getProgramNames(){
+		Iterator progs = this.getPrograms();
+		String[] names = new String[programs.size()];
+		for(int i=0; i<programs.size(); i++){
+			names[i] = ((ProgramMedia) progs.next()).getName();
+		}
+		return names;
+	}
+
+	/**
+	 * Given the name of an educational program, returns a ProgramMedia with this name,
+	 * or null if none is found.
+	 * 
+	 * @param name the name of the program to seek for.
+	 * @return A ProgramMedia with this name, or null if none is found.
+	 */
+	public ProgramMedia getProgram(String name){
+		return (ProgramMedia)programs.get(name);
+	}
+	
+	/**
+	 * This method uses a relative pathname to find the associated MediaFile.
+	 * All paths are of the form: "Program/Station/Category/file.ext", as returned by
+	 * MediaFile.getPath.
+	 * 
+	 * Every file in a program that has been loaded is found straight from an index of
+	 * paths. Otherwise its program is loaded first (see ProgramMedia), and a path that
+	 * still cannot be found is logged along with the part of it that is missing.
+	 * 
+	 * @param path The relative location of the media. This must be a unix-style path (using '/')
+	 * @return A MediaFile representing that location, or null if path is invalid.
+	 */
+	public MediaFile getMediaFile(String path){
+		MediaFile file = mediaFilesByPath.get(path);
+		if(file != null) return file;
+		
+		return findMediaFile(path);
+	}
+	
+	/**
+	 * Finds the MediaFiles for a list of paths at once, which is how the queues are
+	 * loaded. Paths that cannot be found are logged and left out, so the result may 
+	 * be shorter than the list of paths.
+	 * 
+	 * @param paths The relative locations of the media, as for getMediaFile.
+	 * @return The MediaFiles that were found, in the same order as their paths.
+	 */
+	public Vector<MediaFile> getMediaFiles(List<String> paths){
+		Vector<MediaFile> files = new Vector<MediaFile>(paths.size());
+		for(int i=0; i<paths.size(); i++){
+			MediaFile file = mediaFilesByPath.get(paths.get(i));
+			if(file == null) file = findMediaFile(paths.get(i));
+			if(file != null) files.add(file);
+		}
+		return files;
+	}
+	
+	/*
+	 * Adds a MediaFile to the index of paths. Called by each category as it is loaded,
+	 * and whenever a file is added to it.
+	 */
+	void addToIndex(MediaFile file){
+		mediaFilesByPath.put(file.getPath(), file);
+	}
+	
+	/*
+	 * Removes a MediaFile from the index of paths, once it has been removed from its category.
+	 */
+	void removeFromIndex(MediaFile file){
+		mediaFilesByPath.remove(file.getPath(), file);
+	}
+	
+	/*
+	 * Finds a MediaFile by walking down the library one level at a time. This loads its
+	 * program if needed, and reports exactly which part of the path is wrong.
+	 */
+	private MediaFile findMediaFile(String path){
+		
+		// Split the path into each of the component parts along the file separator.
+		// This application uses the unix standard for hierarchical structure.
+		String[] p = splitPath(path);
+		if(p == null){
+			Logger.log(Logger.ERROR,"Invalid file path:"+path+". File paths should have a depth of four.");
+			return null;
+		}
+
+		// TODO I should probably take out these null constructors...
+		ProgramMedia program = null;
+		StationMedia station = null;
+		CategoryMedia category = null;
+		MediaFile file = null;
+		
+		// We can ignore p[0] and p[1] because they are merely the name of the database and
+		// library respecitvely. They will most likely be "Data" and "Library".
+		try{program = this.getProgram(p[0]);}
+		catch (Exception e){}
+		if (program == null){
+			Logger.log(Logger.ERROR,"Unable to locate program \""+p[0]+"\" on path: "+path);
+			return null;
+		}
+		
+		try{station = program.getStation(p[1]);}
+		catch (Exception e){}
+		if (station == null){
+			Logger.log(Logger.ERROR,"Unable to locate station \""+p[1]+"\" on path: "+path);
+			return null;
+		}
+		
+		try{category = station.getCategory(p[2]);}
+		catch (Exception e){}
+		if (category == null){
+			Logger.log(Logger.ERROR,"Unable to locate category \""+p[2]+"\" on path: "+path);
+			return null;
+		}
+		
+		try{file = category.getMediaFile(p[3]);}
+		catch (Exception e){}
+		if (file == null) {
+			Logger.log(Logger.ERROR,"Unable to locate media file \""+p[3]+"\" on path: "+path);
+			return null;
+		}
+		
+		log("File found at: "+path);
+		return file;
+	}
+	
+	/*
+	 * Splits a path into its program, station, category and file names, or returns 
+	 * null if it does not have exactly four parts.
+	 */
+	private static String[] splitPath(String path){
+		String[] p = new String[4];
+		int start = 0;
+		for(int i=0; i<3; i++){
+			int end = path.indexOf('/', start);
+			if(end < 0) return null;
+			p[i] = path.substring(start, end);
+			start = end+1;
+		}
+		if(path.indexOf('/', start) >= 0) return null;
+		p[3] = path.substring(start);
+		return p;
+	}
+	
+	/**
+	 * Returns the cache that pre-scaled images are read from and written to.
+	 * 
+	 * @return The DiskImageCache used by this library, or null if there is none.
+	 */
+	public DiskImageCache getDiskImageCache(){
+		return diskCache;
+	}
+	
+	/**
+	 * Sets the cache that pre-scaled images are read from and written to. This
+	 * should be set before any images are loaded.
+	 * 
+	 * @param cache The DiskImageCache to use, or null to always scale the originals.
+	 */
+	public void setDiskImageCache(DiskImageCache cache){
+		diskCache = cache;
+	}
+	
+	/**
+	 * Returns the index of the library's folders that was used to load it.
+	 * 
+	 * @return The DirectoryIndex used by this library, or null if there is none.
+	 */
+	public DirectoryIndex getDirectoryIndex(){
+		return directoryIndex;
+	}
+	
+	/**
+	 * Returns the cache that recently used central images are kept in.
+	 * 
+	 * @return The ImageMemoryCache used by this library.
+	 */
+	public ImageMemoryCache getImageMemoryCache(){
+		return memoryCache;
+	}
+	
+	/**
+	 * Sets the cache that recently used central images are kept in. This should
+	 * be set before any images are loaded.
+	 * 
+	 * @param cache The ImageMemoryCache to use.
+	 */
+	public void setImageMemoryCache(ImageMemoryCache cache){
+		memoryCache = cache;
+	}
+	
+	//-------------------------------------------------------------------------
+	// END Getters and Setters
+	//-------------------------------------------------------------------------
+	
+	
+	
+	//-------------------------------------------------------------------------
+	// Prefetching
+	//-------------------------------------------------------------------------
+
+	/**
+	 * Goes through the MediaLibrary, and "prefetches" the images. This means
+	 * loading them if they are not already loaded, and waiting for them to load
+	 * depending on the values of the two booleans. Does not return until every
+	 * image in the program has been prefetched.
+	 * 
+	 * @param programName A string containing the name of the program to "prefetch"
+	 * @param waitForThumbImage true if we should use a MediaTracker to ensure that the thumbnail is loaded before returning.
+	 * @param waitForCentralImage true if we should use a MediaTracker to ensure that the large central image is loaded before returning.
+	 */
+	public void prefetchProgramImages(String programName, boolean waitForThumbImage, boolean waitForCentralImage){
+		schedulePrefetch(programName, null, waitForThumbImage, waitForCentralImage);
+		waitForPrefetch();
+	}
+
+	/**
+	 * Schedules the images of a program to be prefetched by the worker threads of
+	 * the PrefetchEngine and returns immediately. The images of firstStation are
+	 * loaded before the rest of the program. Use waitForPrefetch to block until
+	 * they are ready.
+	 * 
+	 * @param programName A string containing the name of the program to "prefetch"
+	 * @param firstStation The name of the station to prefetch first, or null to prefetch in order.
+	 * @param waitForThumbImage true if we should use a MediaTracker to ensure that the thumbnail is loaded.
+	 * @param waitForCentralImage true if we should use a MediaTracker to ensure that the large central image is loaded.
+	 */
+	public void schedulePrefetch(String programName, String firstStation, boolean waitForThumbImage, boolean waitForCentralImage){
+		ProgramMedia program = getProgram(programName);
+		if(program == null){
+			Logger.log(Logger.ERROR, "MediaLibrary: Unable to prefetch unknown program \""+programName+"\".");
+			return;
+		}
+		prefetchEngine.prefetchProgram(program, firstStation, waitForThumbImage, waitForCentralImage);
+	}
+
+	/**
+	 * Loads the central images of the given files in the background, dropping any 
+	 * that were asked for earlier but have not been loaded yet.
+	 * 
+	 * @param files The files whose central images are likely to be displayed next.
+	 */
+	public void preloadCentralImages(List<MediaFile> files){
+		prefetchEngine.preloadCentralImages(files);
+	}
+
+	/**
+	 * Blocks until every image of the most recently scheduled program has been prefetched.
+	 */
+	public void waitForPrefetch(){
+		prefetchEngine.waitForAll();
+	}
+
+	/**
+	 * Blocks until every image of one station in the most recently scheduled program
+	 * has been prefetched. The rest of the program continues to load in the background.
+	 * 
+	 * @param stationName The name of the station to wait for.
+	 */
+	public void waitForPrefetch(String stationName){
+		prefetchEngine.waitForStation(stationName);
+	}
+
+	/**
+	 * Sets the listener that is told how far along the prefetching is.
+	 * 
+	 * @param listener The PrefetchListener to notify, or null for none.
+	 */
+	public void setPrefetchListener(PrefetchListener listener){
+		prefetchEngine.setPrefetchListener(listener);
+	}
+
+	//-------------------------------------------------------------------------
+	// END Prefetching
+	//-------------------------------------------------------------------------
+	
+	
+	
+	//-------------------------------------------------------------------------
+	// Watching
+	//-------------------------------------------------------------------------
+
+	/**
+	 * Starts watching the folders of a program, so that images added to, removed from or
+	 * changed in it on disk show up without restarting. Only one program is watched at a 
+	 * time; whatever was watched before is forgotten.
+	 * 
+	 * @param programName The name of the program that is in use.
+	 */
+	public synchronized void watchProgram(String programName){
+		ProgramMedia program = getProgram(programName);
+		if(program == null){
+			Logger.log(Logger.ERROR, "MediaLibrary: Unable to watch unknown program \""+programName+"\".");
+			return;
+		}
+		
+		if(watcher == null) {
+			try {
+				watcher = new LibraryWatcher();
+				watcher.setLibraryListener(libraryListener);
+			} catch (IOException e) {
+				Logger.log(Logger.ERROR, "MediaLibrary: Unable to watch the library for changes: "+e.getMessage());
+				return;
+			}
+		}
+		watcher.watchProgram(program);
+	}
+
+	/**
+	 * Sets the listener that is told when the watched program changes on disk.
+	 * 
+	 * @param listener The LibraryListener to notify, or null for none.
+	 */
+	public synchronized void setLibraryListener(LibraryListener listener){
+		libraryListener = listener;
+		if(watcher != null) watcher.setLibraryListener(listener);
+	}
+
+	//-------------------------------------------------------------------------
+	// END Watching
+	//-------------------------------------------------------------------------
+
+	
+
+	//-------------------------------------------------------------------------
+	// Constructor
+	//-------------------------------------------------------------------------
+	
+	/**
+	 * This constructor will turn a pathname into the entire library
+	 * for use with the OnDemandMedia application. It expects the path of the
+	 * main "Library" folder, which is where the library is kept.
+	 * 
+	 * @param libraryPath The (absolute or relative) location of the Library folder.
+	 */
+	public MediaLibrary(String libraryPath) {
+		this(libraryPath, null);
+	}
+	
+	/**
+	 * This constructor will turn a pathname into the entire library, using an index
+	 * of the library's folders from the last run to skip the folders that have not 
+	 * changed. Only the programs and the names of their stations are read here; the 
+	 * rest of a program is loaded the first time it is used (see ProgramMedia). 
+	 * The index is saved again once the library has been loaded.
+	 * 
+	 * @param libraryPath The (absolute or relative) location of the Library folder.
+	 * @param index The DirectoryIndex to use, or null to list every folder.
+	 */
+	public MediaLibrary(String libraryPath, DirectoryIndex index) {
+		super(convertPathToDirectory(libraryPath), null);
+		
+		// If the path sucessfully resolved to a directory, begin loading the library.
+		if(this.getFile() != null) {
+			long startTime = (new GregorianCalendar()).getTimeInMillis();
+			Logger.log(Logger.IMPORTANT,"MediaLibrary: Loading library from \""+this.getFile().getAbsolutePath()+"\".");
+			
+			directoryIndex = index;
+			if(directoryIndex != null) directoryIndex.load(this.getFile());
+			
+			// Every folder in the main library directory represents another educational program.
+			ArrayList<String> directories = listDirectory().directories;
+			for (int i=0; i<directories.size(); i++) {
+				ProgramMedia programToAdd = new ProgramMedia(new File(this.getFile(), directories.get(i)), this);
+				
+				// If the program is not empty, add it to the list of programs.
+				if(!programToAdd.isEmpty()) programs.put(programToAdd.getName(),programToAdd);
+			}
+			
+			if(directoryIndex != null) directoryIndex.save();
+			long endTime = (new GregorianCalendar()).getTimeInMillis();
+			double elapsedTime = ((double)(endTime-startTime))/1000;
+			Logger.log(Logger.IMPORTANT,"MediaLibrary: Done! Took " + elapsedTime + " seconds to load library.");
+		} 
+		
+		// If the path was not resolved to a directory, we cannot load the library.
+		else 
+			Logger.log(Logger.ERROR, "Error loading library. I could not find the directory at \""+libraryPath+"\".");
+		
+	}
+
+	//-------------------------------------------------------------------------
+	// END Constructor
+	//-------------------------------------------------------------------------
+
+	
+	//-------------------------------------------------------------------------
+	// Static Methods
+	//-------------------------------------------------------------------------
+	
+	/*
+	 * Converts a path into a directory if possible. If it is not possible for
+	 * some reason, then the method returns null.
+	 */
+	private static File convertPathToDirectory (String path){
+		File directory = null;
+		
+		// Attempt to load the folder containing the media library.
+		try{
+			directory = new File(path);
+		}catch (NullPointerException e){
+			Logger.log(Logger.IMPORTANT, "\""+path+"\" is a null path.");
+		}
+		
+		// Make certain that we have actually loaded a directory.
+		if(isStandardDir(directory))
+			return directory;
+		else
+			return null;
+	}
+	
+	/*
+	 * Determines whether or not the File it is given is a standard directory,
+	 * which means it must be a directory, but it also must not be a system
+	 * directory in order to be considered "standard".
+	 */
+	protected static boolean isStandardDir(File file){
+		
+		// It must exist and be a directory.
+		if (!file.exists()) return false;
+		if (!file.isDirectory()) return false;
+		
+		// Also, we do not wish to look through system directories.
+		if (file.getName().startsWith(".")) return false;
+		if (file.isHidden()) return false;
+		return true;
+	}
+	
+	//-------------------------------------------------------------------------
+	// END Static Methods
+	//-------------------------------------------------------------------------
+
+	
+}
@@ -0,0 +1,315 @@
+package backend.library;
+
+import java.util.ArrayList;
+import java.util.GregorianCalendar;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import main.Logger;
+
+/**
+ * The PrefetchEngine loads the images of a program on a fixed pool of worker threads,
+ * so that a multi-core tablet decodes and scales several images at once instead of
+ * one at a time.
+ *
+ * The images of one station can be put at the front of the line, which lets the
+ * station the instructor sees first become ready as soon as possible while the rest
+ * of the program continues to load behind it. Scheduling another program cancels
+ * whatever is left of the last one, so it does not have to wait behind it.
+ */
+public class PrefetchEngine {
+
+	//-------------------------------------------------------------------------
+	// Constants
+	//-------------------------------------------------------------------------
+
+	/**
+	 * The default number of worker threads, one for each processor.
+	 */
+	static public final int DEFAULT_THREADS = Math.max(1, Runtime.getRuntime().availableProcessors());
+
+	//-------------------------------------------------------------------------
+	// END Constants
+	//-------------------------------------------------------------------------
+
+
+	//-------------------------------------------------------------------------
+	// Private Fields
+	//-------------------------------------------------------------------------
+
+	// The worker threads that actually load the images.
+	private ExecutorService workers;
+
+	// A single thread that loads the central images we expect to be asked for next. It
+	// is kept apart from the workers so it never waits behind a whole program.
+	private ThreadPoolExecutor lookahead;
+
+	// Told about our progress, may be null.
+	private PrefetchListener listener;
+
+	// The most recently scheduled program.
+	private Batch currentBatch;
+
+	//-------------------------------------------------------------------------
+	// END Private Fields
+	//-------------------------------------------------------------------------
+
+
+	//-------------------------------------------------------------------------
+	// Constructor
+	//-------------------------------------------------------------------------
+
+	/**
+	 * Creates a PrefetchEngine with the given number of worker threads. The workers
+	 * are daemon threads, so they will not keep the application alive.
+	 *
+	 * @param threads The number of images that may be loaded at the same time.
+	 */
+	public PrefetchEngine(int threads) {
+		workers = Executors.newFixedThreadPool(Math.max(1, threads), new WorkerFactory("Prefetch"));
+		lookahead = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+							new LinkedBlockingQueue<Runnable>(), new WorkerFactory("Lookahead"));
+	}
+
+	//-------------------------------------------------------------------------
+	// END Constructor
+	//-------------------------------------------------------------------------
+
+
+	//-------------------------------------------------------------------------
+	// Getters and Setters
+	//-------------------------------------------------------------------------
+
+	/**
+	 * Sets the listener that is told about our progress.
+	 *
+	 * @param listener The PrefetchListener to notify, or null for none.
+	 */
+	public void setPrefetchListener(PrefetchListener listener) {
+		this.listener = listener;
+	}
+
+	//-------------------------------------------------------------------------
+	// END Getters and Setters
+	//-------------------------------------------------------------------------
+
+
+	//-------------------------------------------------------------------------
+	// Prefetching
+	//-------------------------------------------------------------------------
+
+	/**
+	 * Schedules every image in a program to be loaded, and returns immediately.
+	 * The images of firstStation are scheduled before any others. Images of the
+	 * program scheduled before that have not been loaded yet are skipped.
+	 *
+	 * @param program The program to prefetch.
+	 * @param firstStation The name of the station to load first, or null to load them in order.
+	 * @param waitForThumbImage true if each worker should wait for the thumbnail to finish loading.
+	 * @param waitForCentralImage true if each worker should wait for the central image to finish loading.
+	 */
+	public synchronized void prefetchProgram(ProgramMedia program, String firstStation,
+			boolean waitForThumbImage, boolean waitForCentralImage) {
+
+		// Put the first station at the head of the list, followed by the rest in order.
+		ArrayList<StationMedia> stations = new ArrayList<StationMedia>();
+		Iterator i = program.getStations();
+		while(i.hasNext()) {
+			StationMedia station = (StationMedia)i.next();
+			if(station.getName().equals(firstStation)) stations.add(0, station);
+			else stations.add(station);
+		}
+
+		// Gather up the files of each station first so that we know how many there are.
+		HashMap<StationMedia, ArrayList<MediaFile>> files = new HashMap<StationMedia, ArrayList<MediaFile>>();
+		int total = 0;
+		for(int s=0; s<stations.size(); s++) {
+			ArrayList<MediaFile> stationFiles = new ArrayList<MediaFile>();
+			Iterator categories = stations.get(s).getCategories();
+			while(categories.hasNext()) {
+				Iterator mediaFiles = ((CategoryMedia)categories.next()).getMediaFiles();
+				while(mediaFiles.hasNext()) stationFiles.add((MediaFile)mediaFiles.next());
+			}
+			files.put(stations.get(s), stationFiles);
+			total += stationFiles.size();
+		}
+
+		Logger.log(Logger.IMPORTANT, "PrefetchEngine: Prefetching "+total+" images in \""+program.getName()+"\".");
+		if(currentBatch != null) currentBatch.cancelled = true;
+		currentBatch = new Batch(program.getName(), total);
+
+		for(int s=0; s<stations.size(); s++) {
+			ArrayList<MediaFile> stationFiles = files.get(stations.get(s));
+			CountDownLatch stationLatch = new CountDownLatch(stationFiles.size());
+			currentBatch.stations.put(stations.get(s).getName(), stationLatch);
+
+			for(int f=0; f<stationFiles.size(); f++) {
+				workers.execute(new PrefetchTask(currentBatch, stationLatch, stationFiles.get(f),
+								waitForThumbImage, waitForCentralImage));
+			}
+		}
+	}
+
+	/**
+	 * Loads the central images of the given files in the background, in order, so that
+	 * they are already in memory when they are displayed. Any files still waiting from
+	 * an earlier call are forgotten, since the instructor has already moved on.
+	 *
+	 * @param files The files whose central images we expect to be asked for next.
+	 */
+	public void preloadCentralImages(List<MediaFile> files) {
+		lookahead.getQueue().clear();
+		for(int f=0; f<files.size(); f++) {
+			final MediaFile file = files.get(f);
+			lookahead.execute(new Runnable() {
+				public void run() {
+					try {
+						file.loadImages(false, true);
+					} catch (RuntimeException e) {
+						file.log("Unable to preload: "+e);
+					}
+				}
+			});
+		}
+	}
+
+	/**
+	 * Blocks until every image of a station in the most recently scheduled program
+	 * has been loaded. Returns immediately if the station was not scheduled.
+	 *
+	 * @param stationName The name of the station to wait for.
+	 */
+	public void waitForStation(String stationName) {
+		Batch batch;
+		synchronized(this) { batch = currentBatch; }
+		if(batch == null) return;
+
+		CountDownLatch latch = batch.stations.get(stationName);
+		if(latch != null) await(latch);
+	}
+
+	/**
+	 * Blocks until every image in the most recently scheduled program has been loaded.
+	 */
+	public void waitForAll() {
+		Batch batch;
+		synchronized(this) { batch = currentBatch; }
+		if(batch != null) await(batch.all);
+	}
+
+	//-------------------------------------------------------------------------
+	// END Prefetching
+	//-------------------------------------------------------------------------
+
+
+	//-------------------------------------------------------------------------
+	// Private Methods and Classes
+	//-------------------------------------------------------------------------
+
+	/*
+	 * Waits for a latch to reach zero, giving up quietly if we are interrupted.
+	 */
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/*
+	 * Makes the low priority daemon threads that do all of our loading.
+	 */
+	private static class WorkerFactory implements ThreadFactory {
+		private String name;
+		private AtomicInteger count = new AtomicInteger();
+
+		WorkerFactory(String name) {
+			this.name = name;
+		}
+
+		public Thread newThread(Runnable r) {
+			Thread worker = new Thread(r, name+"-"+count.incrementAndGet());
+			worker.setDaemon(true);
+			worker.setPriority(Thread.NORM_PRIORITY-1);
+			return worker;
+		}
+	}
+
+	/*
+	 * Keeps track of one scheduled program: how many images it has, how many are done,
+	 * a latch for each of its stations, and whether another program has replaced it.
+	 */
+	private static class Batch {
+		String programName;
+		int total;
+		volatile boolean cancelled = false;
+		AtomicInteger completed = new AtomicInteger();
+		CountDownLatch all;
+		HashMap<String, CountDownLatch> stations = new HashMap<String, CountDownLatch>();
+		long startTime = (new GregorianCalendar()).getTimeInMillis();
+
+		Batch(String programName, int total) {
+			this.programName = programName;
+			this.total = total;
+			this.all = new CountDownLatch(total);
+		}
+	}
+
+	/*
+	 * Loads the images of a single MediaFile and records that it is done. If its batch
+	 * has been cancelled, the file is only counted as done, and no one is told.
+	 */
+	private class PrefetchTask implements Runnable {
+		private Batch batch;
+		private CountDownLatch stationLatch;
+		private MediaFile file;
+		private boolean waitForThumbImage;
+		private boolean waitForCentralImage;
+
+		PrefetchTask(Batch batch, CountDownLatch stationLatch, MediaFile file,
+				boolean waitForThumbImage, boolean waitForCentralImage) {
+			this.batch = batch;
+			this.stationLatch = stationLatch;
+			this.file = file;
+			this.waitForThumbImage = waitForThumbImage;
+			this.waitForCentralImage = waitForCentralImage;
+		}
+
+		public void run() {
+			try {
+				if(!batch.cancelled) file.loadImages(waitForThumbImage, waitForCentralImage);
+			} catch (RuntimeException e) {
+				// One bad image should not stop the rest of the program from loading.
+				file.log("Unable to prefetch: "+e);
+			} finally {
+				stationLatch.countDown();
+				batch.all.countDown();
+
+				int completed = batch.completed.incrementAndGet();
+				PrefetchListener l = listener;
+				if(l != null && !batch.cancelled) l.prefetchProgress(completed, batch.total);
+
+				if(completed == batch.total && !batch.cancelled) {
+					long endTime = (new GregorianCalendar()).getTimeInMillis();
+					double elapsedTime = ((double)(endTime-batch.startTime))/1000;
+					Logger.log(Logger.IMPORTANT,"PrefetchEngine: Done! Took " + elapsedTime + " seconds to prefetch \""+batch.programName+"\" program images.");
+				}
+			}
+		}
+	}
+
+	//-------------------------------------------------------------------------
+	// END Private Methods and Classes
+	//-------------------------------------------------------------------------
+
+}
@@ -0,0 +1,18 @@
+package backend.library;
+
+/**
+ * A PrefetchListener is told how far along the PrefetchEngine is in loading the images
+ * of a program. It is called from the engine's worker threads, so anything that touches
+ * Swing components must be passed on to the event dispatch thread.
+ */
+public interface PrefetchListener {
+
+	/**
+	 * Called each time another image has been prefetched.
+	 *
+	 * @param completed The number of images that have been prefetched so far.
+	 * @param total The total number of images that are being prefetched.
+	 */
+	public void prefetchProgress(int completed, int total);
+
+}
@@ -1,129 +1,232 @@
-package backend.library;
-
-import java.io.File;
-import java.util.Iterator;
-import java.util.TreeMap;
-
-/**
- * This class is used to store all of the media for an individual educational program for 
- * Pittsburgh Voyager. Primary use will be in the Enviornmental Science program, though
- * it can equally well be used for any other program.
- * 
- * @author Carl Angiolillo
- *
- */
-public class ProgramMedia extends LibraryObject{
-	
-	
-	//-------------------------------------------------------------------------
-	// Private Fields
-	//-------------------------------------------------------------------------
-
-	/* The list of all stations (Birds, Watersheds, Plankton, etc) in this 
-	 * particular educational program.
-	 */
-	private TreeMap<String, StationMedia> stations = new TreeMap<String, StationMedia>();
-
-	//-------------------------------------------------------------------------
-	// END Private Fields
-	//-------------------------------------------------------------------------
-
-	
-	//-------------------------------------------------------------------------
-	// Getters and Setters
-	//-------------------------------------------------------------------------
-	
-	/**
-	 * Returns an Iterator of the StationMedia in this program.
-	 * 
-	 * @return An Iterator of all of the StationMedia in this particular program.
-	 * @see StationMedia
-	 */
-	public Iterator getStations(){
-		return stations.values().iterator();
-	}
-	
-	/**
-	 * Given a name, this method will return a StationMedia with that name, or null
-	 * if none is found.
-	 * 
-	 * @param name the name of the station to seek for.
-	 * @return A StationMedia with this name, or null if none is found.
-	 */
-	public StationMedia getStation(String name){
-		return (StationMedia)stations.get(name);
-	}
-	
-	/**
-	 * Returns true if this ProgramMedia contains no staitons.
-	 * 
-	 * @return true if there are no stations in this program.
-	 */
-	public boolean isEmpty(){
-		return stations.size()==0;
-	}
-
-	
-	//-------------------------------------------------------------------------
-	// END Getters and Setters
-	//-------------------------------------------------------------------------
-	
-	
-	//-------------------------------------------------------------------------
-	// Constructor
-	//-------------------------------------------------------------------------
-
-	/**
-	 * Creates a ProgramMedia from a directory containing several categories
-	 * and a reference to the educational program in which this station resides.
-	 * 
-	 * @param programDirectory The directory contanining the images for this program.
-	 * @param parent A reference to the MediaLibrary in which this program resides.
-	 */
-	public ProgramMedia(File programDirectory, MediaLibrary parent){
-		super(programDirectory, parent);
-		log("Loading...");
-		
-		// Loop through the contents of the program directory.
-		File[] directoryContents = getFile().listFiles();
-		for (int i=0; i<directoryContents.length; i++) {
-			
-			// For every file in the program directory, if it is a folder then add it
-			// to the list of stations in this program. 
-			if(MediaLibrary.isStandardDir(directoryContents[i])){
-				StationMedia stationToAdd = new StationMedia(directoryContents[i],this);
-				
-				// IF the station is not empty, add it to the list.
-				if(!stationToAdd.isEmpty()) stations.put(stationToAdd.getName(),stationToAdd);
-			}
-		}
-		log("Done!");
-	}
-
-	//-------------------------------------------------------------------------
-	// END Constructor
-	//-------------------------------------------------------------------------
-
-	
-	
-	//-------------------------------------------------------------------------
-	// Prefetching
-	//-------------------------------------------------------------------------
-	
-	/**
-	 * Prefetches the images associated with this program.
-	 * @param waitForThumbImage true if we should wait for the thumbnail image to load
-	 * @param waitForCentralImage true if we should wait for the central image to load
-	 */
-	public void prefetchImages(boolean waitForThumbImage, boolean waitForCentralImage) {
-		Iterator i = this.getStations();
-		while(i.hasNext()){
-			((StationMedia)i.next()).prefetchImages(waitForThumbImage, waitForCentralImage);
-		}
-	}
-	
-	//-------------------------------------------------------------------------
-	// END Prefetching
-	//-------------------------------------------------------------------------
-	
-}
+package backend.library;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.GregorianCalendar;
+import java.util.Iterator;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import main.Logger;
+
+/**
+ * This class is used to store all of the media for an individual educational program for 
+ * Pittsburgh Voyager. Primary use will be in the Enviornmental Science program, though
+ * it can equally well be used for any other program.
+ * 
+ * @author Carl Angiolillo
+ *
+ */
+public class ProgramMedia extends LibraryObject{
+	
+	
+	//-------------------------------------------------------------------------
+	// Constants
+	//-------------------------------------------------------------------------
+
+	/*
+	 * The number of stations that are loaded at the same time. Loading is mostly 
+	 * waiting on the disk (or network), so this does not depend on the processors.
+	 */
+	static private final int LOADER_THREADS = 4;
+
+	//-------------------------------------------------------------------------
+	// END Constants
+	//-------------------------------------------------------------------------
+
+	
+	//-------------------------------------------------------------------------
+	// Private Fields
+	//-------------------------------------------------------------------------
+
+	/* The list of all stations (Birds, Watersheds, Plankton, etc) in this 
+	 * particular educational program. Null until the program is first used.
+	 */
+	private TreeMap<String, StationMedia> stations = null;
+	
+	/*
+	 * The names of the station folders in this program, which are known as soon as
+	 * the program is created.
+	 */
+	private TreeSet<String> stationNames = new TreeSet<String>();
+
+	//-------------------------------------------------------------------------
+	// END Private Fields
+	//-------------------------------------------------------------------------
+
+	
+	//-------------------------------------------------------------------------
+	// Getters and Setters
+	//-------------------------------------------------------------------------
+	
+	/**
+	 * Returns an Iterator of the StationMedia in this program.
+	 * 
+	 * @return An Iterator of all of the StationMedia in this particular program.
+	 * @see StationMedia
+	 */
+	public Iterator getStations(){
+		return getStationMap().values().iterator();
+	}
+	
+	/**
+	 * Returns the names of the station folders in this program, in order, without 
+	 * loading the stations themselves.
+	 * 
+	 * @return An Iterator of Strings, one for each station folder in this program.
+	 */
+	public Iterator getStationNames(){
+		return stationNames.iterator();
+	}
+	
+	/**
+	 * Given a name, this method will return a StationMedia with that name, or null
+	 * if none is found.
+	 * 
+	 * @param name the name of the station to seek for.
+	 * @return A StationMedia with this name, or null if none is found.
+	 */
+	public StationMedia getStation(String name){
+		return (StationMedia)getStationMap().get(name);
+	}
+	
+	/**
+	 * Returns true if this ProgramMedia contains no staitons. Until the program has
+	 * been loaded, this only checks that there are station folders.
+	 * 
+	 * @return true if there are no stations in this program.
+	 */
+	public synchronized boolean isEmpty(){
+		if(stations == null) return stationNames.isEmpty();
+		return stations.size()==0;
+	}
+	
+	/**
+	 * Returns true if the stations in this program have been loaded.
+	 * 
+	 * @return true if this program's stations, categories and media files exist.
+	 */
+	public synchronized boolean isLoaded(){
+		return stations != null;
+	}
+
+	
+	//-------------------------------------------------------------------------
+	// END Getters and Setters
+	//-------------------------------------------------------------------------
+	
+	
+	//-------------------------------------------------------------------------
+	// Constructor
+	//-------------------------------------------------------------------------
+
+	/**
+	 * Creates a ProgramMedia from a directory containing several categories
+	 * and a reference to the educational program in which this station resides.
+	 * 
+	 * Only the names of the stations are read here. The stations themselves (and 
+	 * everything in them) are loaded the first time they are asked for, so that a
+	 * session only pays for the program it actually uses.
+	 * 
+	 * @param programDirectory The directory contanining the images for this program.
+	 * @param parent A reference to the MediaLibrary in which this program resides.
+	 */
+	public ProgramMedia(File programDirectory, MediaLibrary parent){
+		super(programDirectory, parent);
+		
+		// Every folder in the program directory is a station in this program.
+		stationNames.addAll(listDirectory().directories);
+	}
+
+	//-------------------------------------------------------------------------
+	// END Constructor
+	//-------------------------------------------------------------------------
+
+	
+	
+	//-------------------------------------------------------------------------
+	// Loading
+	//-------------------------------------------------------------------------
+	
+	/*
+	 * Returns the stations in this program, loading them first if this is the first 
+	 * time they have been asked for. The stations have nothing to do with one another,
+	 * so they are loaded in parallel.
+	 */
+	private synchronized TreeMap<String, StationMedia> getStationMap(){
+		if(stations != null) return stations;
+		
+		long startTime = (new GregorianCalendar()).getTimeInMillis();
+		log("Loading...");
+		
+		ArrayList<String> directories = new ArrayList<String>(stationNames);
+		ExecutorService loaders = Executors.newFixedThreadPool(Math.max(1, Math.min(LOADER_THREADS, directories.size())));
+		ArrayList<Future<StationMedia>> loadedStations = new ArrayList<Future<StationMedia>>();
+		for (int i=0; i<directories.size(); i++) {
+			final File stationDirectory = new File(getFile(), directories.get(i));
+			loadedStations.add(loaders.submit(new Callable<StationMedia>() {
+				public StationMedia call() {
+					return new StationMedia(stationDirectory, ProgramMedia.this);
+				}
+			}));
+		}
+		loaders.shutdown();
+		
+		TreeMap<String, StationMedia> loaded = new TreeMap<String, StationMedia>();
+		for (int i=0; i<loadedStations.size(); i++) {
+			try {
+				StationMedia stationToAdd = loadedStations.get(i).get();
+				
+				// IF the station is not empty, add it to the list.
+				if(!stationToAdd.isEmpty()) loaded.put(stationToAdd.getName(),stationToAdd);
+			} catch (ExecutionException e) {
+				Logger.log(Logger.ERROR, "ProgramMedia: Unable to load station \""+directories.get(i)+"\": "+e.getCause());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				break;
+			}
+		}
+		stations = loaded;
+		
+		// Remember what we just listed for next time.
+		MediaLibrary library = getMediaLibrary();
+		if(library != null && library.getDirectoryIndex() != null) library.getDirectoryIndex().save();
+		
+		long endTime = (new GregorianCalendar()).getTimeInMillis();
+		double elapsedTime = ((double)(endTime-startTime))/1000;
+		Logger.log(Logger.IMPORTANT,"ProgramMedia: Took " + elapsedTime + " seconds to load \""+getName()+"\".");
+		return stations;
+	}
+	
+	//-------------------------------------------------------------------------
+	// END Loading
+	//-------------------------------------------------------------------------
+
+	
+	
+	//-------------------------------------------------------------------------
+	// Prefetching
+	//-------------------------------------------------------------------------
+	
+	/**
+	 * Prefetches the images associated with this program.
+	 * @param waitForThumbImage true if we should wait for the thumbnail image to load
+	 * @param waitForCentralImage true if we should wait for the central image to load
+	 */
+	public void prefetchImages(boolean waitForThumbImage, boolean waitForCentralImage) {
+		Iterator i = this.getStations();
+		while(i.hasNext()){
+			((StationMedia)i.next()).prefetchImages(waitForThumbImage, waitForCentralImage);
+		}
+	}
+	
+	//-------------------------------------------------------------------------
+	// END Prefetching
+	//-------------------------------------------------------------------------
+	
+}
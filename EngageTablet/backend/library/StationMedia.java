@@ -1,127 +1,181 @@
-package backend.library;
-
-import java.io.File;
-import java.util.Iterator;
-import java.util.TreeMap;
-
-/**
- * This class is designed to contain all of the media files for a particular 
- * station.
- * 
- * @author Carl Angiolillo
- *
- */
-public class StationMedia extends LibraryObject{
-	
-	
-	//-------------------------------------------------------------------------
-	// Private Methods
-	//-------------------------------------------------------------------------
-
-	/*
-	 * The list of all categories within this particular station.
-	 */
-	private TreeMap<String, CategoryMedia> categories = new TreeMap<String, CategoryMedia>();
-	
-	//-------------------------------------------------------------------------
-	// Private Methods
-	//-------------------------------------------------------------------------
-
-	
-	//-------------------------------------------------------------------------
-	// Getters and Setters
-	//-------------------------------------------------------------------------
-	
-	/**
-	 * Returns an Iterator of the CategoryMedia in this station.
-	 * 
-	 * @return An Iterator containing all of the CategoryMedia objects in
-	 * 			this station.
-	 * @see CategoryMedia
-	 */
-	public Iterator getCategories(){
-		return categories.values().iterator();
-	}
-	
-	/**
-	 * Given a name, returns a category with that name, or null if none is found.
-	 * 
-	 * @param name the name of the category to seek for.
-	 * @return A CategoryMedia with this name, or null if none is found.
-	 */
-	public CategoryMedia getCategory(String name){
-		return (CategoryMedia)categories.get(name);
-	}
-	
-	/**
-	 * Returns true if this StationMedia contains no CategoryMedia files.
-	 * 
-	 * @return true if this station contains no categories
-	 */
-	public boolean isEmpty(){
-		return categories.size()==0;
-	}
-
-	
-	//-------------------------------------------------------------------------
-	// END Getters and Setters
-	//-------------------------------------------------------------------------
-	
-	
-	//-------------------------------------------------------------------------
-	// Constructor
-	//-------------------------------------------------------------------------
-	
-	/**
-	 * Creates a StationMedia from a directory containing several categories
-	 * and a reference to the educational program in which this station resides.
-	 * 
-	 * @param stationDirectory contains all of the images for this station
-	 * @param parent the program in which this station resides
-	 */
-	public StationMedia(File stationDirectory, ProgramMedia parent){
-		super(stationDirectory, parent);
-		log("Loading...");
-		
-		// Loop through the contents of the station directory.
-		File[] directoryContents = getFile().listFiles();
-		for (int i=0; i<directoryContents.length; i++) {
-			
-			// For every file in the station directory, if it is a folder then add it
-			// to the list of categories in this station. 
-			if(MediaLibrary.isStandardDir(directoryContents[i])){
-				CategoryMedia categoryToAdd = new CategoryMedia(directoryContents[i],this);
-				
-				// If the category is not empty, add it to the list.
-				if(!categoryToAdd.isEmpty()) categories.put(categoryToAdd.getName(),categoryToAdd);
-			}
-		}
-		log("Done!");
-	}
-	
-	//-------------------------------------------------------------------------
-	// END Constructor
-	//-------------------------------------------------------------------------
-
-	
-	//-------------------------------------------------------------------------
-	// Prefetching
-	//-------------------------------------------------------------------------
-	
-	/**
-	 * Prefetches the images associated with this station.
-	 * @param waitForThumbImage true if we should wait for the thumbnail image to load
-	 * @param waitForCentralImage true if we should wait for the central image to load
-	 */
-	public void prefetchImages(boolean waitForThumbImage, boolean waitForCentralImage) {
-		Iterator i = this.getCategories();
-		while(i.hasNext()){
-			((CategoryMedia)i.next()).prefetchImages(waitForThumbImage, waitForCentralImage);
-		}
-	}
-	
-	//-------------------------------------------------------------------------
-	// END Prefetching
-	//-------------------------------------------------------------------------
-	
-}
+package backend.library;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.TreeMap;
+
+/**
+ * This class is designed to contain all of the media files for a particular 
+ * station.
+ * 
+ * @author Carl Angiolillo
+ *
+ */
+public class StationMedia extends LibraryObject{
+	
+	
+	//-------------------------------------------------------------------------
+	// Private Methods
+	//-------------------------------------------------------------------------
+
+	/*
+	 * The list of all categories within this particular station.
+	 */
+	private TreeMap<String, CategoryMedia> categories = new TreeMap<String, CategoryMedia>();
+	
+	//-------------------------------------------------------------------------
+	// Private Methods
+	//-------------------------------------------------------------------------
+
+	
+	//-------------------------------------------------------------------------
+	// Getters and Setters
+	//-------------------------------------------------------------------------
+	
+	/**
+	 * Returns an Iterator of the CategoryMedia in this station. The station may change
+	 * while the library is being watched, so this iterates over a copy.
+	 * 
+	 * @return An Iterator containing all of the CategoryMedia objects in
+	 * 			this station.
+	 * @see CategoryMedia
+	 */
+	public synchronized Iterator getCategories(){
+		return new ArrayList<CategoryMedia>(categories.values()).iterator();
+	}
+	
+	/**
+	 * Given a name, returns a category with that name, or null if none is found.
+	 * 
+	 * @param name the name of the category to seek for.
+	 * @return A CategoryMedia with this name, or null if none is found.
+	 */
+	public synchronized CategoryMedia getCategory(String name){
+		return (CategoryMedia)categories.get(name);
+	}
+	
+	/**
+	 * Returns true if this StationMedia contains no CategoryMedia files.
+	 * 
+	 * @return true if this station contains no categories
+	 */
+	public synchronized boolean isEmpty(){
+		return categories.size()==0;
+	}
+
+	
+	//-------------------------------------------------------------------------
+	// END Getters and Setters
+	//-------------------------------------------------------------------------
+	
+	
+	//-------------------------------------------------------------------------
+	// Constructor
+	//-------------------------------------------------------------------------
+	
+	/**
+	 * Creates a StationMedia from a directory containing several categories
+	 * and a reference to the educational program in which this station resides.
+	 * 
+	 * @param stationDirectory contains all of the images for this station
+	 * @param parent the program in which this station resides
+	 */
+	public StationMedia(File stationDirectory, ProgramMedia parent){
+		super(stationDirectory, parent);
+		log("Loading...");
+		
+		// Every folder in the station directory is a category in this station.
+		ArrayList<String> directories = listDirectory().directories;
+		for (int i=0; i<directories.size(); i++) {
+			CategoryMedia categoryToAdd = new CategoryMedia(new File(getFile(), directories.get(i)),this);
+				
+			// If the category is not empty, add it to the list.
+			if(!categoryToAdd.isEmpty()) categories.put(categoryToAdd.getName(),categoryToAdd);
+		}
+		log("Done!");
+	}
+	
+	//-------------------------------------------------------------------------
+	// END Constructor
+	//-------------------------------------------------------------------------
+
+	
+	//-------------------------------------------------------------------------
+	// Refreshing
+	//-------------------------------------------------------------------------
+	
+	/*
+	 * Lists the station directory again and brings our categories up to date. As when
+	 * the library is loaded, only categories with something in them are kept: a new 
+	 * category is added once it has a file, and one that has become empty is removed
+	 * along with those whose folders are gone. The listener (which may be null) is 
+	 * told about each change, and about each file that went with a removed category.
+	 */
+	void refresh(LibraryListener listener){
+		ArrayList<String> directories = DirectoryIndex.scan(getFile()).directories;
+		ArrayList<CategoryMedia> added = new ArrayList<CategoryMedia>();
+		ArrayList<CategoryMedia> removed = new ArrayList<CategoryMedia>();
+		
+		synchronized(this) {
+			for (int i=0; i<directories.size(); i++) {
+				if(categories.containsKey(directories.get(i))) continue;
+				CategoryMedia categoryToAdd = new CategoryMedia(new File(getFile(), directories.get(i)),this);
+				if(!categoryToAdd.isEmpty()) {
+					categories.put(categoryToAdd.getName(),categoryToAdd);
+					added.add(categoryToAdd);
+				}
+			}
+			
+			Iterator<CategoryMedia> i = categories.values().iterator();
+			while(i.hasNext()) {
+				CategoryMedia category = i.next();
+				if(!directories.contains(category.getName()) || category.isEmpty()) {
+					i.remove();
+					removed.add(category);
+				}
+			}
+		}
+		
+		// The files of a removed category can no longer be found by their paths.
+		MediaLibrary library = getMediaLibrary();
+		for (int i=0; i<removed.size() && library != null; i++) {
+			Iterator files = removed.get(i).getMediaFiles();
+			while(files.hasNext()) library.removeFromIndex((MediaFile)files.next());
+		}
+		
+		if(listener == null) return;
+		for (int i=0; i<removed.size(); i++) {
+			Iterator files = removed.get(i).getMediaFiles();
+			while(files.hasNext()) listener.mediaFileRemoved((MediaFile)files.next());
+			listener.categoryRemoved(removed.get(i));
+		}
+		for (int i=0; i<added.size(); i++) listener.categoryAdded(added.get(i));
+	}
+	
+	//-------------------------------------------------------------------------
+	// END Refreshing
+	//-------------------------------------------------------------------------
+	
+	
+	//-------------------------------------------------------------------------
+	// Prefetching
+	//-------------------------------------------------------------------------
+	
+	/**
+	 * Prefetches the images associated with this station.
+	 * @param waitForThumbImage true if we should wait for the thumbnail image to load
+	 * @param waitForCentralImage true if we should wait for the central image to load
+	 */
+	public void prefetchImages(boolean waitForThumbImage, boolean waitForCentralImage) {
+		Iterator i = this.getCategories();
+		while(i.hasNext()){
+			((CategoryMedia)i.next()).prefetchImages(waitForThumbImage, waitForCentralImage);
+		}
+	}
+	
+	//-------------------------------------------------------------------------
+	// END Prefetching
+	//-------------------------------------------------------------------------
+	
+}
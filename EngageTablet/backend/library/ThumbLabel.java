@@ -7,7 +7,11 @@ import java.awt.Font;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
 import java.awt.Image;
+import java.awt.GraphicsConfiguration;
 import java.awt.Point;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.awt.image.ImageObserver;
 import javax.swing.ImageIcon;
 import javax.swing.JLabel;
 
@@ -26,6 +30,24 @@ public class ThumbLabel extends JLabel {
 	//-------------------------------------------------------------------------
 
 	protected static Image deleteButtonImage = (new ImageIcon("ui/queue/imageDelete.png")).getImage();
+	
+	/*
+	 * The most bytes of finished thumbnails that are kept, on top of the central images
+	 * allowed by image_cache_size. A tile is 158 by 88 pixels, about 55 KB, so this
+	 * is about 300 tiles: enough for a page of the library, the libraries kept for the
+	 * stations around it, and the queues.
+	 */
+	private static final long MAX_TILE_BYTES = 16*1024*1024;
+	
+	// What the captions are drawn with.
+	private static final Font NAME_FONT = new Font("Arial",Font.PLAIN,12);
+	private static final Font NOW_SHOWING_FONT = new Font("Arial",Font.BOLD,14);
+	private static final AlphaComposite NAME_BACKGROUND = AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 0.8f);
+	private static final AlphaComposite NAME_TEXT = AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 0.9f);
+	private static final AlphaComposite NOW_SHOWING_TEXT = AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 0.7f);
+	
+	// The finished thumbnails, shared by every ThumbLabel.
+	private static final ThumbTileCache tiles = new ThumbTileCache(MAX_TILE_BYTES);
 
 	//-------------------------------------------------------------------------
 	// END Constants
@@ -79,6 +101,37 @@ public class ThumbLabel extends JLabel {
     public boolean getSelected() {
     	return selected;
     }
+    
+    /**
+     * Returns the MediaFile this ThumbLabel is based on.
+     * 
+     * @return the MediaFile this ThumbLabel shows, or null if it only shows an image.
+     */
+    public MediaFile getMediaFile() {
+    	return mFile;
+    }
+    
+    /**
+     * Shows a different MediaFile in this ThumbLabel, so that a label can be reused
+     * rather than a new one made for every image.
+     * 
+     * @param media the MediaFile to show.
+     */
+    public void setMediaFile(MediaFile media) {
+    	mFile = media;
+    	this.setIcon(new ImageIcon(media.getThumbImage()));
+    	this.repaint();
+    }
+    
+    /**
+     * Shows the thumbnail of the MediaFile again, for instance because the original
+     * has changed on disk.
+     */
+    public void refreshThumb() {
+    	if(mFile == null) return;
+    	this.setIcon(new ImageIcon(mFile.getThumbImage()));
+    	this.repaint();
+    }
 
     //-------------------------------------------------------------------------
 	// Getters and Setters
@@ -135,7 +188,9 @@ public class ThumbLabel extends JLabel {
 	//-------------------------------------------------------------------------
 	
 	/**
-	 * Painting method for the thumbnail image.
+	 * Painting method for the thumbnail image. The artboard, thumbnail, delete button
+	 * and caption are drawn once into a tile that is kept (see ThumbTileCache), and
+	 * from then on painting the label just copies the tile.
 	 */
     public void paintComponent(Graphics g){
     	
@@ -143,50 +198,90 @@ public class ThumbLabel extends JLabel {
     	Image image = ((ImageIcon)this.getIcon()).getImage();
     	
     	if(mFile != null) {
+    		Image tile = getTile(image, (Graphics2D)g);
+    		if(tile != null) g.drawImage(tile, Constants.BLACK_ARTBOARD_AREA.x, Constants.BLACK_ARTBOARD_AREA.y, null);
     		
-    		// Draw the black artboard background.
-    		Graphics2D g2d = (Graphics2D)g;
-    		g2d.setColor(Color.BLACK);
-    		g2d.fill(Constants.BLACK_ARTBOARD_AREA);
-    		
-    		// Calculate the location of the image and draw it.
-    		Dimension imageSize = new Dimension(image.getWidth(this),image.getHeight(this));
-    		Point centerOffset = Constants.getCenterOffset(Constants.BLACK_ARTBOARD_AREA, imageSize);
-    		g.drawImage(image,centerOffset.x,centerOffset.y,this);
-    		
-    		
-    		if(drawDeleteButton) 
-    			g.drawImage(deleteButtonImage, Constants.DELETE_BUTTON_AREA.x,Constants.DELETE_BUTTON_AREA.y,this);
-    		
-    		if(!selected) {
-    			// Draw the background for the text
-    			g2d.setColor(Color.DARK_GRAY);
-    			g2d.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 0.8f));
-    			g2d.fill(Constants.THUMB_TEXT_AREA);
-
-    			// Draw the text itself
-    			g2d.setColor(Color.white);
-    			g2d.setFont(new Font("Arial",Font.PLAIN,12));
-    			g2d.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 0.9f));
-    			g2d.drawString(mFile.getDisplayName(), Constants.THUMB_TEXT_AREA.x+4, Constants.THUMB_TEXT_AREA.y+15);
-    		}
-    		else {
-    			//Draw the background for the text
-    			g2d.setColor(Constants.SELECTION_COLOR);
-    			//g2d.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 1.0f));
-    			g2d.fill(Constants.THUMB_TEXT_AREA);
-
-    			// Draw the text itself
-    			g2d.setColor(Color.white);
-    			g2d.setFont(new Font("Arial",Font.BOLD,14));
-    			g2d.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 0.7f));
-    			g2d.drawString("Now Showing", Constants.THUMB_TEXT_AREA.x+30, Constants.THUMB_TEXT_AREA.y+15);
-    		}
+    		// The thumbnail is still loading, so draw it as it is; we are repainted when it is done.
+    		else paintThumb((Graphics2D)g.create(), image, this);
     	}
     	
     	// If there is no associated media file, just draw the image.
     	else g.drawImage(image,0,0,this);
     }
+    
+    /*
+     * Returns the finished thumbnail for the way this label is drawn right now, drawing
+     * it if there is none yet. Returns null if the thumbnail has not finished loading.
+     */
+    private Image getTile(Image image, Graphics2D g) {
+    	int variant = ThumbTileCache.variant(selected, drawDeleteButton);
+    	Image tile = tiles.get(mFile, image, variant);
+    	if(tile != null) return tile;
+    	
+    	if(image.getWidth(null) < 0 || image.getHeight(null) < 0) return null;
+    	
+    	// An image that matches the screen can be kept in video memory and copied quickly.
+    	int width = Constants.BLACK_ARTBOARD_AREA.width;
+    	int height = Constants.BLACK_ARTBOARD_AREA.height;
+    	GraphicsConfiguration gc = this.getGraphicsConfiguration();
+    	BufferedImage newTile = (gc == null) ? new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB)
+    										 : gc.createCompatibleImage(width, height, Transparency.OPAQUE);
+    	
+    	// Draw it just as it would be drawn on the label, with the same text antialiasing.
+    	Graphics2D tileGraphics = newTile.createGraphics();
+    	tileGraphics.setRenderingHints(g.getRenderingHints());
+    	tileGraphics.translate(-Constants.BLACK_ARTBOARD_AREA.x, -Constants.BLACK_ARTBOARD_AREA.y);
+    	paintThumb(tileGraphics, image, null);
+    	
+    	tiles.put(mFile, image, variant, newTile);
+    	return newTile;
+    }
+    
+    /*
+     * Draws the artboard, thumbnail, delete button and caption of this label, in the
+     * label's coordinates, and disposes of the Graphics when done.
+     */
+    private void paintThumb(Graphics2D g2d, Image image, ImageObserver observer) {
+    	
+		// Draw the black artboard background.
+		g2d.setColor(Color.BLACK);
+		g2d.fill(Constants.BLACK_ARTBOARD_AREA);
+		
+		// Calculate the location of the image and draw it.
+		Dimension imageSize = new Dimension(image.getWidth(observer),image.getHeight(observer));
+		Point centerOffset = Constants.getCenterOffset(Constants.BLACK_ARTBOARD_AREA, imageSize);
+		g2d.drawImage(image,centerOffset.x,centerOffset.y,observer);
+		
+		
+		if(drawDeleteButton) 
+			g2d.drawImage(deleteButtonImage, Constants.DELETE_BUTTON_AREA.x,Constants.DELETE_BUTTON_AREA.y,observer);
+		
+		if(!selected) {
+			// Draw the background for the text
+			g2d.setColor(Color.DARK_GRAY);
+			g2d.setComposite(NAME_BACKGROUND);
+			g2d.fill(Constants.THUMB_TEXT_AREA);
+
+			// Draw the text itself
+			g2d.setColor(Color.white);
+			g2d.setFont(NAME_FONT);
+			g2d.setComposite(NAME_TEXT);
+			g2d.drawString(mFile.getDisplayName(), Constants.THUMB_TEXT_AREA.x+4, Constants.THUMB_TEXT_AREA.y+15);
+		}
+		else {
+			//Draw the background for the text
+			g2d.setColor(Constants.SELECTION_COLOR);
+			g2d.fill(Constants.THUMB_TEXT_AREA);
+
+			// Draw the text itself
+			g2d.setColor(Color.white);
+			g2d.setFont(NOW_SHOWING_FONT);
+			g2d.setComposite(NOW_SHOWING_TEXT);
+			g2d.drawString("Now Showing", Constants.THUMB_TEXT_AREA.x+30, Constants.THUMB_TEXT_AREA.y+15);
+		}
+		
+		g2d.dispose();
+    }
 
 	//-------------------------------------------------------------------------
 	// END Painting Method
@@ -0,0 +1,168 @@
+package backend.library;
+
+import java.awt.Image;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The ThumbTileCache holds the finished thumbnails ("tiles") that ThumbLabels paint: the
+ * black artboard, the thumbnail, the delete button and the caption, drawn once into an
+ * image of their own so that painting a label during a scroll or a drag is a single
+ * drawImage.
+ *
+ * A MediaFile can have a tile for each way a ThumbLabel draws it (selected or not, with
+ * a delete button or not). The tiles are thrown away when the thumbnail they were drawn
+ * from is replaced, and once the tiles take up more than a fixed number of bytes, those
+ * of the MediaFile that has gone unpainted the longest are dropped. This budget is on
+ * top of the ImageMemoryCache's, which only holds central images.
+ */
+class ThumbTileCache {
+
+	//-------------------------------------------------------------------------
+	// Constants
+	//-------------------------------------------------------------------------
+
+	/**
+	 * The number of ways a tile can be drawn; see variant.
+	 */
+	static final int VARIANTS = 4;
+
+	//-------------------------------------------------------------------------
+	// END Constants
+	//-------------------------------------------------------------------------
+
+
+	//-------------------------------------------------------------------------
+	// Private Fields
+	//-------------------------------------------------------------------------
+
+	// The tiles, kept in order from least to most recently used.
+	private LinkedHashMap<MediaFile, Entry> tiles = new LinkedHashMap<MediaFile, Entry>(64, 0.75f, true);
+
+	private long budget;	// The most bytes of tiles we may hold.
+	private long size;		// The bytes of tiles we currently hold.
+
+	//-------------------------------------------------------------------------
+	// END Private Fields
+	//-------------------------------------------------------------------------
+
+
+	//-------------------------------------------------------------------------
+	// Constructor
+	//-------------------------------------------------------------------------
+
+	/**
+	 * Creates an empty cache.
+	 *
+	 * @param budget The most bytes of tiles this cache may hold.
+	 */
+	ThumbTileCache(long budget) {
+		this.budget = budget;
+	}
+
+	//-------------------------------------------------------------------------
+	// END Constructor
+	//-------------------------------------------------------------------------
+
+
+	//-------------------------------------------------------------------------
+	// Cache Methods
+	//-------------------------------------------------------------------------
+
+	/**
+	 * Returns the number of a way of drawing a tile, for get and put.
+	 *
+	 * @param selected true if the tile shows "Now Showing" rather than the file's name.
+	 * @param deleteButton true if the tile has a delete button.
+	 * @return A number from 0 to VARIANTS-1.
+	 */
+	static int variant(boolean selected, boolean deleteButton) {
+		return (selected ? 1 : 0) + (deleteButton ? 2 : 0);
+	}
+
+	/**
+	 * Returns a tile of a MediaFile, and marks it as recently used.
+	 *
+	 * @param file The MediaFile whose tile we want.
+	 * @param thumb The thumbnail the tile should have been drawn from.
+	 * @param variant The way the tile is drawn.
+	 * @return The tile, or null if there is none drawn from that thumbnail.
+	 */
+	synchronized Image get(MediaFile file, Image thumb, int variant) {
+		Entry entry = tiles.get(file);
+		if(entry == null || entry.thumb != thumb) return null;
+		return entry.tiles[variant];
+	}
+
+	/**
+	 * Adds a tile of a MediaFile. If its other tiles were drawn from a different
+	 * thumbnail, they are dropped. The tiles of the least recently used MediaFiles
+	 * are then dropped until we are within budget, except for this MediaFile's.
+	 *
+	 * @param file The MediaFile the tile belongs to.
+	 * @param thumb The thumbnail the tile was drawn from.
+	 * @param variant The way the tile is drawn.
+	 * @param tile The tile.
+	 */
+	synchronized void put(MediaFile file, Image thumb, int variant, Image tile) {
+		Entry entry = tiles.get(file);
+		if(entry == null || entry.thumb != thumb) {
+			if(entry != null) size -= entry.bytes;
+			entry = new Entry(thumb);
+			tiles.put(file, entry);
+		}
+		if(entry.tiles[variant] != null) {
+			entry.bytes -= getBytes(entry.tiles[variant]);
+			size -= getBytes(entry.tiles[variant]);
+		}
+		entry.tiles[variant] = tile;
+		entry.bytes += getBytes(tile);
+		size += getBytes(tile);
+
+		// The eldest entries come first, so drop from the front until we fit.
+		Iterator<Map.Entry<MediaFile, Entry>> i = tiles.entrySet().iterator();
+		while(size > budget && tiles.size() > 1) {
+			Map.Entry<MediaFile, Entry> eldest = i.next();
+			if(eldest.getKey() == file) continue;
+
+			size -= eldest.getValue().bytes;
+			i.remove();
+		}
+	}
+
+	//-------------------------------------------------------------------------
+	// END Cache Methods
+	//-------------------------------------------------------------------------
+
+
+	//-------------------------------------------------------------------------
+	// Private Methods and Classes
+	//-------------------------------------------------------------------------
+
+	/*
+	 * Estimates how much memory a tile takes up, assuming four bytes per pixel.
+	 */
+	private static long getBytes(Image tile) {
+		return 4L*Math.max(tile.getWidth(null), 0)*Math.max(tile.getHeight(null), 0);
+	}
+
+	/*
+	 * The tiles of one MediaFile, along with the thumbnail they were drawn from and
+	 * how many bytes they take up between them.
+	 */
+	private static class Entry {
+		Image thumb;
+		Image[] tiles = new Image[VARIANTS];
+		long bytes;
+
+		Entry(Image thumb) {
+			this.thumb = thumb;
+		}
+	}
+
+	//-------------------------------------------------------------------------
+	// END Private Methods and Classes
+	//-------------------------------------------------------------------------
+
+}
@@ -1,422 +1,559 @@
-package backend.queue;
-
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
-import java.io.File;
-import java.io.FileReader;
-import java.io.FileWriter;
-import java.io.IOException;
-import java.util.Iterator;
-import java.util.Vector;
-
-import main.Logger;
-import backend.library.MediaLibrary;
-import backend.library.ProgramMedia;
-import backend.library.StationMedia;
-
-/**
- * This class contains all the ProgramQueues associated with an instructor. 
- * A ProgramQueue should exists for every program that exists, unless the
- * file heirarchy has been changed since the last login.
- * 
- * @author Kayre Hylton
- *
- */
-public class InstructorQueue {
-
-	
-	//-------------------------------------------------------------------------
-	// Private Fields
-	//-------------------------------------------------------------------------
-	
-	/**
-	 * A Vector of ProgramQueues
-	 */
-	private Vector<ProgramQueue> programs;
-	
-	/**
-	 * The path for the directory that holds instructor files
-	 */
-	private String path;
-
-	/**
-	 * The name of the instructor
-	 */
-	private String instructorName;
-
-	/**
-	 * The MediaLibrary
-	 */
-	private MediaLibrary library;
-	/**
-	 * The QueueLibrary that manages this InstructorQueue
-	 */
-	private QueueLibrary qLibrary;
-	
-	
-	//-------------------------------------------------------------------------
-	// Getters and Setters
-	//-------------------------------------------------------------------------
-	
-	/**
-	 * Returns the programs associated with this instructor
-	 * @return a Vector of ProgramQueues
-	 */
-	public Vector<ProgramQueue> getPrograms(){
-		return programs;
-	}
-
-	/**
-	 * Sets the progranms associated with this instructor
-	 * @param programs a Vector of ProgramQueues
-	 */
-	public void setPrograms(Vector<ProgramQueue> programs){
-		this.programs = programs;
-	}
-	
-	/**
-	 * Returns the name of the instructor
-	 * @return the name of instructor
-	 */
-	public String getInstructorName() {
-		return this.instructorName;
-	}
-
-	/**
-	 * Sets the name of the instructor
-	 * @param instructorName the name of the instructor
-	 */
-	public void setInstructorName(String instructorName){
-		this.instructorName = instructorName;
-	}
-	
-	/**
-	 * Sets the path for the directory that holds instructor files
-	 * @param path the path to the folder which holds instructor XML files
-	 */
-	public void setPath(String path){
-		this.path = path;
-	}
-	
-	/**
-	 * Gets the path for the directory that holds instructor files
-	 * @return the path to the folder which holds instructor XML files
-	 */
-	public String getPath(){
-		return path;
-	}
-	
-	/**
-	 * Returns the MediaLibrary
-	 * @return the MediaLibrary
-	 */
-	public MediaLibrary getMediaLibrary(){
-		return library;
-	}
-	
-	/**
-	 * Sets the MediaLibrary
-	 * @param library teh MediaLibrary
-	 */
-	public void setMediaLibrary(MediaLibrary library){
-		this.library = library;
-	}
-
-	/**
-	 * Gets the QueueLibrary that manages this
-	 * @return the QueueLibrary that manages this
-	 */
-	public QueueLibrary getQLibrary() {
-		return qLibrary;
-	}
-
-	/**
-	 * Sets the QueueLibrary that manages this
-	 * @param library the QueueLibrary that manages this
-	 */
-	public void setQLibrary(QueueLibrary library) {
-		qLibrary = library;
-	}
-	
-	//-------------------------------------------------------------------------
-	// Constructor
-	//-------------------------------------------------------------------------
-
-
-
-	/**
-	 * Creates an InstructorQueue from a path, MediaLibrary, QueueLibrary and instructor name.
-	 * 
-	 * @param path the path to the directory containing instructor files
-	 * @param library the MediaLibrary
-	 * @param qLibrary the QueueLibrary that manages this
-	 * @param instructorName the name of the instructor
-	 */
-	public InstructorQueue(String path, MediaLibrary library, 
-			QueueLibrary qLibrary, String instructorName){
-		this.setInstructorName(instructorName);
-		this.programs = new Vector<ProgramQueue>();
-		this.setPath(path);
-		this.setMediaLibrary(library);
-		this.setQLibrary(qLibrary);
-		if(profileExists()){//if the instructor exists, create from their xml file
-			loadFromXML();
-		}
-		else{//if instructor does not exist...
-			if(profileExists("default")){//...but a default does, create from default
-				loadFromXML("default");
-			}
-		}
-	}
-	
-	
-
-
-	/**
-	 * Creates an InstructorQueue from a path, MediaLibrary, QueueLibrary, instructor name
-	 * and boolean which determines whether or not the InstructorQueue's subqueues will have
-	 * content in them.
-	 * 
-	 * @param path the path to the directory containing instructor files
-	 * @param library the MediaLibrary
-	 * @param qLibrary the QueueLibrary that manages this
-	 * @param instructorName the name of the instructor
-	 * @param hasContent if false, content-less programs of stations will be added.
-	 * if true, content will be loaded from an XML file, as per usual
-	 */
-	protected InstructorQueue(String path, MediaLibrary library, 
-			QueueLibrary qLibrary, String instructorName, boolean hasContent) {
-		this.setInstructorName(instructorName);
-		this.programs = new Vector<ProgramQueue>();
-		this.setPath(path);
-		this.setMediaLibrary(library);
-		this.setQLibrary(qLibrary);
-		if(hasContent){
-			if(profileExists()){
-				loadFromXML();
-			}
-			else{
-				loadFromXML("default");
-			}
-		}
-		else{
-			addEmptyStructure();
-		}
-	}
-	
-	//-------------------------------------------------------------------------
-	// ProgramQueue methods
-	//-------------------------------------------------------------------------
-	
-
-
-	/**
-	 * Returns a specific ProgramQueue
-	 * @param program a String of the name of the program you want
-	 * @return the ProgramQueue for the program pecified
-	 */
-	public ProgramQueue getProgramQueue(String program){
-		for(int i=0; i<programs.size(); i++){
-			if(((ProgramQueue)programs.get(i)).getProgramName().equals(program)){
-				return (ProgramQueue)programs.get(i);
-			}
-		}
-		return null;
-	}
-
-	/**
-	 * Adds a program to the collection of programs
-	 * @param program the ProgramQueue to add to programs
-	 */
-	public void addProgramQueue(ProgramQueue program) {
-		
-		programs.add(program);
-	}
-
-	/**
-	 * Removes a specific program from the collection of programs
-	 * @param programName the ProgramQueue to remove from programs
-	 */
-	public void removeProgramQueue(String programName) {
-		for(int i=0; i<programs.size(); i++){
-			if(((ProgramQueue)programs.get(i)).getProgramName().equals(programName)){
-				programs.remove(i);
-				Logger.log(Logger.INFO, "InstructorQueue: Removed program " + programName + 
-						" from instructor " + instructorName);
-			}
-		}
-	}
-	
-	//-------------------------------------------------------------------------
-	// XML Methods
-	//-------------------------------------------------------------------------
-	
-		
-	/**
-	 * Determines whether a file is an XML file or not
-	 * @param file the file to check
-	 * @return true if the file ends with ".xml", false otherwise
-	 */
-	private boolean isXMLFile(File file) {
-		if(file.getName().endsWith(".xml")){
-			return true;
-		}
-		return false;
-	}
-	
-	/**
-	 * Populates the collection of ProgramQueues from those laid out in the XML file
-	 * associated with this InstructorQueue
-	 */
-	private void loadFromXML(){
-		loadFromXML(this.instructorName);
-	}
-	
-	/**
-	 * Populates the collection of ProgramQueues from those laid out in a specified 
-	 * XML file
-	 * @param fileName a String of the name of the instructor whose file this will read from
-	 */
-	private void loadFromXML(String fileName){
-		try {
-			File dir = new File(path);
-			if(dir == null){
-				Logger.log(Logger.ERROR, "InstructorQueue: Cannot load instructor " + fileName + " from " 
-						+path + ". It is not a valid path");
-			}
-			else if(!dir.isDirectory()){
-				Logger.log(Logger.ERROR, "InstructorQueue: Cannot load instructor " + fileName + " from "
-						+path + ". It is not a directory");
-			}
-			else{
-				FileReader fReader = new FileReader(path + File.separator + fileName + ".xml");
-				BufferedReader bReader = new BufferedReader(fReader);
-				String line = bReader.readLine();
-				
-				while(line != null){
-					if(line.equals("<program>")){
-						Vector<String> program = new Vector<String>();
-						line = bReader.readLine();
-						while(!line.equals("</program>")){//add the lines between program tags to a vector
-							program.add(line);
-							line = bReader.readLine();
-						}
-						//create program from vector
-						ProgramQueue aProgram = new ProgramQueue(path, library, qLibrary, program); 
-						addProgramQueue(aProgram);
-					}
-					line = bReader.readLine();
-				}
-				Logger.log(Logger.IMPORTANT, "InstructorQueue: Programs loaded for instructor " + fileName);
-				bReader.close();
-			}
-		} catch (Exception e) {
-			Logger.log(Logger.ERROR, "InstructorQueue: Error reading from file " + fileName + ".xml");
-			Logger.log(Logger.ERROR, "InstructorQueue: " + e.getMessage());
-		}
-	}
-	
-	/**
-	 * Saves the state of the InstructorQueue to a specified XML file
-	 * @param fileName a String of the name of the instructor to name the file after
-	 */
-	public void toXML(String fileName){
-		String output = "";
-		output += "<" + fileName + ">\n";
-		
-		for(int i=0; i<programs.size(); i++){
-			output += ((ProgramQueue)programs.get(i)).toXML();
-		}
-		
-		output += "</" + fileName + ">";
-		
-		try {
-			BufferedWriter bWriter = new BufferedWriter(new FileWriter(path +
-					File.separator + fileName + ".xml"));
-			bWriter.write(output);
-						
-			bWriter.close();
-			
-		} catch (IOException e) {
-			Logger.log(Logger.ERROR, "InstructorQueue: Error writing XML file for " + fileName);
-		}
-		
-	}
-	
-	/**
-	 * Saves the state of the InstructorQueue to an XML file named after this instructor
-	 */
-	public void toXML() {
-		toXML(this.instructorName);
-		
-	}
-	
-	//-------------------------------------------------------------------------
-	// Other Methods
-	//-------------------------------------------------------------------------
-	
-
-	/**
-	 * Checks if a file exists for the instructor represented by this InstructorQueue
-	 * @return true if there is an XML file for this instructor, false otherwise
-	 */
-	private boolean profileExists() {
-		
-		return profileExists(this.instructorName);
-	}
-	
-	/**
-	 * Checks is a file exists for a particular instructor
-	 * @param name a String of the name of an instructor
-	 * @return true if there is an XML file for this instructor, false otherwise
-	 */
-	private boolean profileExists(String name){
-		File instructorDirectory = new File(path);
-		if(instructorDirectory != null){
-			if(instructorDirectory.isDirectory()){
-				File[] instructorProfiles = instructorDirectory.listFiles();
-				for(int i=0; i<instructorProfiles.length; i++){
-					if(isXMLFile(instructorProfiles[i])){
-						
-						if(instructorProfiles[i].getName().equals(name + ".xml")){
-							return true;
-						}
-					}
-				}
-			}
-			else{
-				Logger.log(Logger.ERROR, "InstructorQueue: Cannot read files from " + path + 
-						". It is not a directory");
-			}
-		}
-		else{
-			Logger.log(Logger.ERROR, "InstructorQueue: Cannot read files from " + path + 
-					". It is not a valid path");
-		}
-		return false;
-	}
-	
-	/**
-	 * Adds content-less programs of stations to this instructor
-	 */
-	public void addEmptyStructure(){
-		this.setPrograms(new Vector<ProgramQueue>());
-		Iterator programs = library.getPrograms();
-		while(programs.hasNext()){
-			ProgramMedia pMedia = (ProgramMedia)programs.next(); 
-			
-			Iterator stations = pMedia.getStations();
-			Vector<StationQueue> stationsVector = new Vector<StationQueue>();
-			while(stations.hasNext()){
-				stationsVector.add(new StationQueue(
-						path, library, qLibrary, ((StationMedia)stations.next()).getName()));
-			}
-			ProgramQueue pQueue = new ProgramQueue(path, library, qLibrary, pMedia.getName());
-			pQueue.setStations(stationsVector);
-			this.addProgramQueue(pQueue);
-		}
-	}
-
-
-	
-}
+package backend.queue;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.Vector;
+
+import javax.xml.stream.XMLStreamException;
+
+import main.Logger;
+import backend.library.MediaLibrary;
+import backend.library.ProgramMedia;
+
+/**
+ * This class contains all the ProgramQueues associated with an instructor. 
+ * A ProgramQueue should exists for every program that exists, unless the
+ * file heirarchy has been changed since the last login.
+ * 
+ * @author Kayre Hylton
+ *
+ */
+public class InstructorQueue {
+
+	
+	//-------------------------------------------------------------------------
+	// Private Fields
+	//-------------------------------------------------------------------------
+	
+	/**
+	 * A Vector of ProgramQueues. Once the instructor has been read it is never changed
+	 * in place: adding or removing a program makes a new Vector, so the QueueSaver can 
+	 * write the old one from its own thread.
+	 */
+	private Vector<ProgramQueue> programs;
+	/**
+	 * Finds the ProgramQueues by name
+	 */
+	private NameIndex<ProgramQueue> programsByName = new NameIndex<ProgramQueue>() {
+		String nameOf(ProgramQueue program) {
+			return program.getProgramName();
+		}
+	};
+	
+	/**
+	 * The path for the directory that holds instructor files
+	 */
+	private String path;
+
+	/**
+	 * The name of the instructor
+	 */
+	private String instructorName;
+
+	/**
+	 * The MediaLibrary
+	 */
+	private MediaLibrary library;
+	/**
+	 * The QueueLibrary that manages this InstructorQueue
+	 */
+	private QueueLibrary qLibrary;
+	/**
+	 * True if this instructor has been changed since it was last saved
+	 */
+	private volatile boolean dirty = false;
+	/**
+	 * The changes made to this instructor since their file was last written
+	 */
+	private QueueJournal journal;
+	
+	
+	//-------------------------------------------------------------------------
+	// Getters and Setters
+	//-------------------------------------------------------------------------
+	
+	/**
+	 * Returns the programs associated with this instructor
+	 * @return a Vector of ProgramQueues
+	 */
+	public Vector<ProgramQueue> getPrograms(){
+		return programs;
+	}
+
+	/**
+	 * Sets the progranms associated with this instructor. Once set, programs should only
+	 * be added or removed through this InstructorQueue, so that they can be found by name,
+	 * and the Vector should not be changed.
+	 * @param programs a Vector of ProgramQueues
+	 */
+	public void setPrograms(Vector<ProgramQueue> programs){
+		this.programs = programs;
+		programsByName.rebuild(programs);
+	}
+	
+	/**
+	 * Returns the name of the instructor
+	 * @return the name of instructor
+	 */
+	public String getInstructorName() {
+		return this.instructorName;
+	}
+
+	/**
+	 * Sets the name of the instructor
+	 * @param instructorName the name of the instructor
+	 */
+	public void setInstructorName(String instructorName){
+		this.instructorName = instructorName;
+	}
+	
+	/**
+	 * Sets the path for the directory that holds instructor files
+	 * @param path the path to the folder which holds instructor XML files
+	 */
+	public void setPath(String path){
+		this.path = path;
+	}
+	
+	/**
+	 * Gets the path for the directory that holds instructor files
+	 * @return the path to the folder which holds instructor XML files
+	 */
+	public String getPath(){
+		return path;
+	}
+	
+	/**
+	 * Returns the MediaLibrary
+	 * @return the MediaLibrary
+	 */
+	public MediaLibrary getMediaLibrary(){
+		return library;
+	}
+	
+	/**
+	 * Sets the MediaLibrary
+	 * @param library teh MediaLibrary
+	 */
+	public void setMediaLibrary(MediaLibrary library){
+		this.library = library;
+	}
+
+	/**
+	 * Gets the QueueLibrary that manages this
+	 * @return the QueueLibrary that manages this
+	 */
+	public QueueLibrary getQLibrary() {
+		return qLibrary;
+	}
+
+	/**
+	 * Sets the QueueLibrary that manages this
+	 * @param library the QueueLibrary that manages this
+	 */
+	public void setQLibrary(QueueLibrary library) {
+		qLibrary = library;
+	}
+	
+	/**
+	 * Records that this instructor has changed and needs to be saved
+	 */
+	public void markDirty(){
+		dirty = true;
+	}
+	
+	/**
+	 * Returns whether this instructor has changed since it was last saved
+	 * @return true if this instructor needs to be saved, false otherwise
+	 */
+	public boolean isDirty(){
+		return dirty;
+	}
+	
+	/**
+	 * Returns the journal of changes made to this instructor since their file was 
+	 * last written
+	 * @return the QueueJournal for this instructor
+	 */
+	QueueJournal getJournal(){
+		if(journal == null){
+			journal = new QueueJournal(new File(path, instructorName + ".journal"));
+		}
+		return journal;
+	}
+	
+	//-------------------------------------------------------------------------
+	// Constructor
+	//-------------------------------------------------------------------------
+
+
+
+	/**
+	 * Creates an InstructorQueue from a path, MediaLibrary, QueueLibrary and instructor name.
+	 * 
+	 * @param path the path to the directory containing instructor files
+	 * @param library the MediaLibrary
+	 * @param qLibrary the QueueLibrary that manages this
+	 * @param instructorName the name of the instructor
+	 */
+	public InstructorQueue(String path, MediaLibrary library, 
+			QueueLibrary qLibrary, String instructorName){
+		this.setInstructorName(instructorName);
+		this.programs = new Vector<ProgramQueue>();
+		this.setPath(path);
+		this.setMediaLibrary(library);
+		this.setQLibrary(qLibrary);
+		if(profileExists()){//if the instructor exists, create from their xml file
+			loadFromXML();
+		}
+		else{//if instructor does not exist...
+			if(profileExists("default")){//...but a default does, create from default
+				loadFromXML("default");
+			}
+		}
+	}
+	
+	
+
+
+	/**
+	 * Creates an InstructorQueue from a path, MediaLibrary, QueueLibrary, instructor name
+	 * and boolean which determines whether or not the InstructorQueue's subqueues will have
+	 * content in them.
+	 * 
+	 * @param path the path to the directory containing instructor files
+	 * @param library the MediaLibrary
+	 * @param qLibrary the QueueLibrary that manages this
+	 * @param instructorName the name of the instructor
+	 * @param hasContent if false, content-less programs of stations will be added.
+	 * if true, content will be loaded from an XML file, as per usual
+	 */
+	protected InstructorQueue(String path, MediaLibrary library, 
+			QueueLibrary qLibrary, String instructorName, boolean hasContent) {
+		this.setInstructorName(instructorName);
+		this.programs = new Vector<ProgramQueue>();
+		this.setPath(path);
+		this.setMediaLibrary(library);
+		this.setQLibrary(qLibrary);
+		if(hasContent){
+			if(profileExists()){
+				loadFromXML();
+			}
+			else{
+				loadFromXML("default");
+			}
+		}
+		else{
+			addEmptyStructure();
+		}
+	}
+	
+	/**
+	 * Creates an InstructorQueue whose programs have already been read, such as from
+	 * a QueueSnapshot.
+	 * 
+	 * @param path the path to the directory containing instructor files
+	 * @param library the MediaLibrary
+	 * @param qLibrary the QueueLibrary that manages this
+	 * @param instructorName the name of the instructor
+	 * @param programs the ProgramQueues of the instructor
+	 */
+	InstructorQueue(String path, MediaLibrary library, 
+			QueueLibrary qLibrary, String instructorName, Vector<ProgramQueue> programs) {
+		this.setInstructorName(instructorName);
+		this.setPrograms(programs);
+		this.setPath(path);
+		this.setMediaLibrary(library);
+		this.setQLibrary(qLibrary);
+	}
+	
+	//-------------------------------------------------------------------------
+	// ProgramQueue methods
+	//-------------------------------------------------------------------------
+	
+
+
+	/**
+	 * Returns a specific ProgramQueue
+	 * @param program a String of the name of the program you want
+	 * @return the ProgramQueue for the program pecified
+	 */
+	public ProgramQueue getProgramQueue(String program){
+		return programsByName.get(program, programs);
+	}
+
+	/**
+	 * Adds a program to the collection of programs
+	 * @param program the ProgramQueue to add to programs
+	 */
+	public void addProgramQueue(ProgramQueue program) {
+		
+		Vector<ProgramQueue> changed = new Vector<ProgramQueue>(programs);
+		changed.add(program);
+		programs = changed;
+		programsByName.add(program);
+	}
+
+	/**
+	 * Removes a specific program from the collection of programs
+	 * @param programName the ProgramQueue to remove from programs
+	 */
+	public void removeProgramQueue(String programName) {
+		ProgramQueue program = getProgramQueue(programName);
+		while(program != null){
+			Vector<ProgramQueue> changed = new Vector<ProgramQueue>(programs);
+			changed.remove(program);
+			programs = changed;
+			programsByName.remove(program, programs);
+			Logger.log(Logger.INFO, "InstructorQueue: Removed program " + programName + 
+					" from instructor " + instructorName);
+			program = getProgramQueue(programName);
+		}
+	}
+	
+	//-------------------------------------------------------------------------
+	// XML Methods
+	//-------------------------------------------------------------------------
+	
+		
+	/**
+	 * Determines whether a file is an XML file or not
+	 * @param file the file to check
+	 * @return true if the file ends with ".xml", false otherwise
+	 */
+	private boolean isXMLFile(File file) {
+		if(file.getName().endsWith(".xml")){
+			return true;
+		}
+		return false;
+	}
+	
+	/**
+	 * Populates the collection of ProgramQueues from those laid out in the XML file
+	 * associated with this InstructorQueue
+	 */
+	private void loadFromXML(){
+		loadFromXML(this.instructorName);
+	}
+	
+	/**
+	 * Populates the collection of ProgramQueues from those laid out in a specified 
+	 * XML file
+	 * @param fileName a String of the name of the instructor whose file this will read from
+	 */
+	private void loadFromXML(String fileName){
+		try {
+			File dir = new File(path);
+			if(dir == null){
+				Logger.log(Logger.ERROR, "InstructorQueue: Cannot load instructor " + fileName + " from " 
+						+path + ". It is not a valid path");
+			}
+			else if(!dir.isDirectory()){
+				Logger.log(Logger.ERROR, "InstructorQueue: Cannot load instructor " + fileName + " from "
+						+path + ". It is not a directory");
+			}
+			else{
+				InstructorReader reader = new InstructorReader(path, library, qLibrary);
+				programs.addAll(reader.read(new File(path, fileName + ".xml")));
+				programsByName.rebuild(programs);
+				Logger.log(Logger.IMPORTANT, "InstructorQueue: Programs loaded for instructor " + fileName);
+			}
+		} catch (XMLStreamException e) {
+			Logger.log(Logger.ERROR, "InstructorQueue: Error reading from file " + fileName + ".xml");
+			Logger.log(Logger.ERROR, "InstructorQueue: " + InstructorReader.describe(e));
+		} catch (Exception e) {
+			Logger.log(Logger.ERROR, "InstructorQueue: Error reading from file " + fileName + ".xml");
+			Logger.log(Logger.ERROR, "InstructorQueue: " + e.getMessage());
+		}
+	}
+	
+	/**
+	 * Saves the state of the InstructorQueue to a specified XML file. The XML is 
+	 * written straight to a temporary file, which then replaces the old file in one 
+	 * step, so a crash part way through never leaves a half-written profile behind.
+	 * @param fileName a String of the name of the instructor to name the file after
+	 */
+	public void toXML(String fileName){
+		writeFile(fileName);
+	}
+	
+	/**
+	 * Saves the state of the InstructorQueue to an XML file named after this instructor.
+	 * Any change made while this is being written marks the instructor dirty again.
+	 * The changes in the journal are then dropped, apart from any made while the file 
+	 * was being written. If the file cannot be written, the instructor is left dirty
+	 * so that it is tried again.
+	 * @return true if the file was written, false otherwise
+	 */
+	public boolean toXML() {
+		long recorded = getJournal().length();
+		dirty = false;
+		if(!writeFile(this.instructorName)){
+			markDirty();
+			return false;
+		}
+		getJournal().compact(recorded);
+		return true;
+	}
+	
+	/**
+	 * Records an edit in this instructor's journal, if it was made to one of this 
+	 * instructor's queues. The edit is told which station it was made in.
+	 * @param edit the edit that has just been made
+	 * @return true if the edit was recorded, false if it was not made to this instructor
+	 */
+	boolean record(QueueEdit edit){
+		for(int p=0; p<programs.size(); p++){
+			ProgramQueue program = (ProgramQueue)programs.get(p);
+			Vector stations = program.getStations();
+			for(int s=0; s<stations.size(); s++){
+				StationQueue station = (StationQueue)stations.get(s);
+				String programName = program.getProgramName();
+				String stationName = station.getStationName();
+				
+				if(edit.kind == QueueEdit.GROUPS){
+					if(edit.station != station) continue;
+					getJournal().recordGroups(programName, stationName, station.getGroups());
+					return true;
+				}
+				
+				int group = station.getGroups().indexOf(edit.group);
+				if(group < 0) continue;
+				edit.station = station;
+				if(edit.kind == QueueEdit.FILES){
+					getJournal().recordFiles(programName, stationName, group, edit.group.getMediaFiles());
+				}
+				else{
+					getJournal().recordName(programName, stationName, group, edit.group.getGroupName());
+				}
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * Writes the XML file
+	 * @param fileName a String of the name of the instructor to name the file after
+	 * @return true if the file was written, false otherwise
+	 */
+	private boolean writeFile(String fileName){
+		File file = new File(path, fileName + ".xml");
+		File temp = new File(path, fileName + ".xml.tmp");
+		
+		FileOutputStream fOut = null;
+		try {
+			fOut = new FileOutputStream(temp);
+			BufferedWriter bWriter = new BufferedWriter(new OutputStreamWriter(fOut, "UTF-8"));
+			
+			// The root is not named after the instructor, since not every name is a valid tag.
+			bWriter.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+			bWriter.write("<instructor>\n");
+			Vector<ProgramQueue> programs = this.programs;
+			for(int i=0; i<programs.size(); i++){
+				((ProgramQueue)programs.get(i)).writeXML(bWriter);
+			}
+			bWriter.write("</instructor>");
+			
+			// Make sure it is really on disk before it replaces the old file.
+			bWriter.flush();
+			fOut.getFD().sync();
+			bWriter.close();
+			fOut = null;
+			
+			try {
+				Files.move(temp.toPath(), file.toPath(), 
+						StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+			return true;
+			
+		} catch (IOException e) {
+			Logger.log(Logger.ERROR, "InstructorQueue: Error writing XML file for " + fileName);
+			if(fOut != null){
+				try { fOut.close(); } catch (IOException e2) {}
+			}
+			temp.delete();
+			return false;
+		}
+		
+	}
+	
+	//-------------------------------------------------------------------------
+	// Other Methods
+	//-------------------------------------------------------------------------
+	
+
+	/**
+	 * Checks if a file exists for the instructor represented by this InstructorQueue
+	 * @return true if there is an XML file for this instructor, false otherwise
+	 */
+	private boolean profileExists() {
+		
+		return profileExists(this.instructorName);
+	}
+	
+	/**
+	 * Checks is a file exists for a particular instructor
+	 * @param name a String of the name of an instructor
+	 * @return true if there is an XML file for this instructor, false otherwise
+	 */
+	private boolean profileExists(String name){
+		File instructorDirectory = new File(path);
+		if(instructorDirectory != null){
+			if(instructorDirectory.isDirectory()){
+				File[] instructorProfiles = instructorDirectory.listFiles();
+				for(int i=0; i<instructorProfiles.length; i++){
+					if(isXMLFile(instructorProfiles[i])){
+						
+						if(instructorProfiles[i].getName().equals(name + ".xml")){
+							return true;
+						}
+					}
+				}
+			}
+			else{
+				Logger.log(Logger.ERROR, "InstructorQueue: Cannot read files from " + path + 
+						". It is not a directory");
+			}
+		}
+		else{
+			Logger.log(Logger.ERROR, "InstructorQueue: Cannot read files from " + path + 
+					". It is not a valid path");
+		}
+		return false;
+	}
+	
+	/**
+	 * Adds content-less programs of stations to this instructor
+	 */
+	public void addEmptyStructure(){
+		this.setPrograms(new Vector<ProgramQueue>());
+		Iterator programs = library.getPrograms();
+		while(programs.hasNext()){
+			ProgramMedia pMedia = (ProgramMedia)programs.next(); 
+			
+			// Only the station names are needed, so the program does not have to be loaded.
+			Iterator stations = pMedia.getStationNames();
+			Vector<StationQueue> stationsVector = new Vector<StationQueue>();
+			while(stations.hasNext()){
+				stationsVector.add(new StationQueue(
+						path, library, qLibrary, (String)stations.next()));
+			}
+			ProgramQueue pQueue = new ProgramQueue(path, library, qLibrary, pMedia.getName());
+			pQueue.setStations(stationsVector);
+			this.addProgramQueue(pQueue);
+		}
+	}
+
+
+	
+}
@@ -0,0 +1,247 @@
+package backend.queue;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.Vector;
+
+import javax.xml.stream.Location;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import backend.library.MediaLibrary;
+
+/**
+ * The InstructorReader reads an instructor's profile in a single pass, building the
+ * ProgramQueues, StationQueues and GroupQueues as their elements go by. It does not
+ * care how the file is laid out: elements may be indented, split across lines or
+ * carry attributes, and elements it does not know about are skipped. A name may be
+ * given either as a name element or as a name attribute.
+ *
+ * Profiles saved before the XML declaration was added used the instructor's name as
+ * the root element, which is not a valid tag for names with spaces, and did not
+ * escape anything. These are recognized by their first line and read as if they had
+ * been written properly.
+ *
+ * If the file is not well formed, the XMLStreamException says where the problem is.
+ */
+class InstructorReader {
+
+	//-------------------------------------------------------------------------
+	// Private Fields
+	//-------------------------------------------------------------------------
+
+	// Shared by every read; factories are thread safe once they are configured.
+	static private final XMLInputFactory factory = XMLInputFactory.newInstance();
+	static {
+		// Profiles never need a DTD, and we do not want to go fetching one.
+		factory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+		factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+		factory.setProperty(XMLInputFactory.IS_COALESCING, Boolean.TRUE);
+	}
+
+	private String path;			// The folder that holds instructor files.
+	private MediaLibrary library;	// Where the media paths are looked up.
+	private QueueLibrary qLibrary;	// The QueueLibrary that manages the queues.
+
+	private XMLStreamReader xml;	// The profile being read.
+
+	//-------------------------------------------------------------------------
+	// END Private Fields
+	//-------------------------------------------------------------------------
+
+
+	//-------------------------------------------------------------------------
+	// Constructor
+	//-------------------------------------------------------------------------
+
+	/**
+	 * Creates a reader for the profiles in a folder.
+	 *
+	 * @param path The path to the folder which holds instructor XML files.
+	 * @param library The MediaLibrary the media paths refer to.
+	 * @param qLibrary The QueueLibrary that manages the queues that are read.
+	 */
+	InstructorReader(String path, MediaLibrary library, QueueLibrary qLibrary) {
+		this.path = path;
+		this.library = library;
+		this.qLibrary = qLibrary;
+	}
+
+	//-------------------------------------------------------------------------
+	// END Constructor
+	//-------------------------------------------------------------------------
+
+
+	//-------------------------------------------------------------------------
+	// Reading
+	//-------------------------------------------------------------------------
+
+	/**
+	 * Reads the programs in a profile.
+	 *
+	 * @param file The profile to read.
+	 * @return The ProgramQueues in the profile, in the order they were saved.
+	 * @throws IOException If the file cannot be read.
+	 * @throws XMLStreamException If the file is not a valid profile; its message gives the line and column.
+	 */
+	Vector<ProgramQueue> read(File file) throws IOException, XMLStreamException {
+		Reader in = open(file);
+		try {
+			xml = factory.createXMLStreamReader(in);
+			try {
+				return readInstructor();
+			} finally {
+				xml.close();
+				xml = null;
+			}
+		} finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * Describes where the reader is in the file, for error messages.
+	 *
+	 * @param e An exception thrown by read.
+	 * @return A message that includes the line and column, if they are known.
+	 */
+	static String describe(XMLStreamException e) {
+		Location location = e.getLocation();
+		String message = e.getMessage();
+
+		// The message usually starts with the location already; keep only the explanation.
+		int start = (message == null) ? -1 : message.indexOf("Message: ");
+		if(start >= 0) message = message.substring(start + 9);
+		if(location == null) return message;
+		return "line " + location.getLineNumber() + ", column " + location.getColumnNumber() + ": " + message;
+	}
+
+	//-------------------------------------------------------------------------
+	// END Reading
+	//-------------------------------------------------------------------------
+
+
+	//-------------------------------------------------------------------------
+	// Private Methods
+	//-------------------------------------------------------------------------
+
+	/*
+	 * Opens a profile. Old profiles are rewritten on the way in so the parser can read
+	 * them; they are small, and are saved in the current layout the next time anyway.
+	 * The root of an old profile was named after its instructor, so only a root that is
+	 * exactly <instructor> is taken to be the current layout (an instructor can be 
+	 * called "instructor2").
+	 */
+	private Reader open(File file) throws IOException {
+		BufferedReader in = new BufferedReader(new InputStreamReader(new FileInputStream(file), "UTF-8"));
+		in.mark(1 << 16);
+		String first = in.readLine();
+		if(first == null || first.trim().startsWith("<?xml") || first.trim().equals("<instructor>")) {
+			in.reset();
+			return in;
+		}
+
+		// The root was named after the instructor. Swap it for <instructor>, keeping the
+		// line numbers the same, and escape the ampersands nothing used to escape.
+		StringBuilder body = new StringBuilder("<instructor>\n");
+		try {
+			char[] buffer = new char[8192];
+			for(int read = in.read(buffer); read >= 0; read = in.read(buffer)) body.append(buffer, 0, read);
+		} finally {
+			in.close();
+		}
+		int end = body.lastIndexOf("</");
+		if(end > 0) body.setLength(end);
+		body.append("</instructor>");
+
+		return new StringReader(body.toString().replace("&", "&amp;"));
+	}
+
+	/*
+	 * Reads the root element and the programs inside it.
+	 */
+	private Vector<ProgramQueue> readInstructor() throws XMLStreamException {
+		Vector<ProgramQueue> programs = new Vector<ProgramQueue>();
+		xml.nextTag();
+		while(xml.nextTag() == XMLStreamConstants.START_ELEMENT) {
+			if(xml.getLocalName().equals("program")) programs.add(readProgram());
+			else skip();
+		}
+		return programs;
+	}
+
+	/*
+	 * Reads a program element, which the reader is at the start of.
+	 */
+	private ProgramQueue readProgram() throws XMLStreamException {
+		ProgramQueue program = new ProgramQueue(path, library, qLibrary, xml.getAttributeValue(null, "name"));
+		while(xml.nextTag() == XMLStreamConstants.START_ELEMENT) {
+			String tag = xml.getLocalName();
+			if(tag.equals("name")) program.setProgramName(xml.getElementText().trim());
+			else if(tag.equals("station")) program.addStationQueue(readStation());
+			else skip();
+		}
+		if(program.getProgramName() == null) throw new XMLStreamException("A program has no name", xml.getLocation());
+		return program;
+	}
+
+	/*
+	 * Reads a station element, which the reader is at the start of.
+	 */
+	private StationQueue readStation() throws XMLStreamException {
+		StationQueue station = new StationQueue(path, library, qLibrary, xml.getAttributeValue(null, "name"));
+		while(xml.nextTag() == XMLStreamConstants.START_ELEMENT) {
+			String tag = xml.getLocalName();
+			if(tag.equals("name")) station.setStationName(xml.getElementText().trim());
+			else if(tag.equals("group")) station.addInitialGroupQueue(readGroup());
+			else skip();
+		}
+		if(station.getStationName() == null) throw new XMLStreamException("A station has no name", xml.getLocation());
+		return station;
+	}
+
+	/*
+	 * Reads a group element, which the reader is at the start of. The media paths are
+	 * gathered up first so the library can find them all at once; paths that no longer
+	 * exist in the library are left out. (The group is only made at the end, since
+	 * renaming a group saves the queues.)
+	 */
+	private GroupQueue readGroup() throws XMLStreamException {
+		String name = xml.getAttributeValue(null, "name");
+		Vector<String> mediaPaths = new Vector<String>();
+		while(xml.nextTag() == XMLStreamConstants.START_ELEMENT) {
+			String tag = xml.getLocalName();
+			if(tag.equals("name")) name = xml.getElementText().trim();
+			else if(tag.equals("mediaFile")) mediaPaths.add(xml.getElementText().trim());
+			else skip();
+		}
+		if(name == null) throw new XMLStreamException("A group has no name", xml.getLocation());
+
+		GroupQueue group = new GroupQueue(path, library, qLibrary, name);
+		group.getMediaFiles().addAll(library.getMediaFiles(mediaPaths));
+		return group;
+	}
+
+	/*
+	 * Skips over an element we do not know about, which the reader is at the start of.
+	 */
+	private void skip() throws XMLStreamException {
+		for(int depth = 1; depth > 0; ) {
+			int event = xml.next();
+			if(event == XMLStreamConstants.START_ELEMENT) depth++;
+			else if(event == XMLStreamConstants.END_ELEMENT) depth--;
+		}
+	}
+
+	//-------------------------------------------------------------------------
+	// END Private Methods
+	//-------------------------------------------------------------------------
+
+}
@@ -0,0 +1,86 @@
+package backend.queue;
+
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * A NameIndex finds the queues in a Vector by name without going through the whole
+ * Vector. The Vector is still what holds the queues in order (for the tabs and drop
+ * downs, and for the positional methods); the index only has to be told whenever a
+ * queue is added to it or removed from it.
+ *
+ * If there are several queues with the same name the index finds the first one added,
+ * as a search through the Vector would have. A queue that is renamed after it has been
+ * added is noticed the next time its old name is asked for, and the index is rebuilt;
+ * but the index cannot know about the new name until then, so where queues can be
+ * renamed (groups) a name that is not found has to be looked for in the Vector.
+ */
+abstract class NameIndex<T> {
+
+	// The queues, by name.
+	private HashMap<String, T> byName = new HashMap<String, T>();
+
+	/**
+	 * Returns the name a queue is found by.
+	 *
+	 * @param queue A queue in the index.
+	 * @return The name of the queue.
+	 */
+	abstract String nameOf(T queue);
+
+	/**
+	 * Finds a queue by name.
+	 *
+	 * @param name The name of the queue.
+	 * @param queues The queues that are indexed, in order.
+	 * @return The queue, or null if the index does not have one by that name.
+	 */
+	T get(String name, List<T> queues) {
+		T queue = byName.get(name);
+		if(queue == null || name.equals(nameOf(queue))) return queue;
+
+		// It has been renamed since it was added.
+		rebuild(queues);
+		return byName.get(name);
+	}
+
+	/**
+	 * Adds a queue to the index.
+	 *
+	 * @param queue The queue that has been added.
+	 */
+	void add(T queue) {
+		String name = nameOf(queue);
+		if(name != null && !byName.containsKey(name)) byName.put(name, queue);
+	}
+
+	/**
+	 * Removes a queue from the index. If another queue of the same name is still in
+	 * the Vector, the index is rebuilt so that it can be found.
+	 *
+	 * @param queue The queue that has been removed.
+	 * @param queues The queues that are left, in order.
+	 */
+	void remove(T queue, List<T> queues) {
+		String name = nameOf(queue);
+		if(name == null || byName.get(name) != queue) return;
+		byName.remove(name);
+		for(int i=0; i<queues.size(); i++) {
+			if(name.equals(nameOf(queues.get(i)))) {
+				byName.put(name, queues.get(i));
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Indexes a whole new Vector of queues.
+	 *
+	 * @param queues The queues to index, in order.
+	 */
+	void rebuild(List<T> queues) {
+		byName.clear();
+		for(int i=0; i<queues.size(); i++) add(queues.get(i));
+	}
+
+}
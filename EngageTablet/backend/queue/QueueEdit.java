@@ -0,0 +1,134 @@
+package backend.queue;
+
+import java.util.Vector;
+
+import backend.library.MediaFile;
+
+/**
+ * A QueueEdit is one change an instructor has made to their queues: the images in a
+ * group, the groups in a station, or the name of a group. It remembers what was there
+ * before and after, so it can be undone (by applying its inverse) and redone.
+ *
+ * The Vectors an edit holds are never changed once it has them; GroupQueues and
+ * StationQueues make a new Vector for every change.
+ */
+class QueueEdit {
+
+	//-------------------------------------------------------------------------
+	// Constants
+	//-------------------------------------------------------------------------
+
+	static final int FILES = 0;		// The MediaFiles in a group changed.
+	static final int GROUPS = 1;	// Groups were added to, removed from or moved in a station.
+	static final int NAME = 2;		// A group was renamed.
+
+	//-------------------------------------------------------------------------
+	// END Constants
+	//-------------------------------------------------------------------------
+
+
+	//-------------------------------------------------------------------------
+	// Fields
+	//-------------------------------------------------------------------------
+
+	final int kind;				// One of the constants above.
+	final GroupQueue group;		// The group that changed, for FILES and NAME.
+	final Object before;		// The files, groups or name before the change.
+	final Object after;			// The files, groups or name after the change.
+
+	// The station that changed, or that holds the group that changed. For FILES and NAME
+	// this is only known once the edit has been found in the instructor (see InstructorQueue.record).
+	StationQueue station;
+
+	//-------------------------------------------------------------------------
+	// END Fields
+	//-------------------------------------------------------------------------
+
+
+	//-------------------------------------------------------------------------
+	// Constructors
+	//-------------------------------------------------------------------------
+
+	/*
+	 * Creates an edit of any kind; use the methods below.
+	 */
+	private QueueEdit(int kind, GroupQueue group, StationQueue station, Object before, Object after) {
+		this.kind = kind;
+		this.group = group;
+		this.station = station;
+		this.before = before;
+		this.after = after;
+	}
+
+	/**
+	 * Describes a change to the MediaFiles in a group.
+	 *
+	 * @param group The group that changed.
+	 * @param before Its MediaFiles before the change.
+	 * @param after Its MediaFiles after the change.
+	 * @return The edit.
+	 */
+	static QueueEdit files(GroupQueue group, Vector<MediaFile> before, Vector<MediaFile> after) {
+		return new QueueEdit(FILES, group, null, before, after);
+	}
+
+	/**
+	 * Describes a change to the groups in a station.
+	 *
+	 * @param station The station that changed.
+	 * @param before Its groups before the change.
+	 * @param after Its groups after the change.
+	 * @return The edit.
+	 */
+	static QueueEdit groups(StationQueue station, Vector<GroupQueue> before, Vector<GroupQueue> after) {
+		return new QueueEdit(GROUPS, null, station, before, after);
+	}
+
+	/**
+	 * Describes a group being renamed.
+	 *
+	 * @param group The group that was renamed.
+	 * @param before Its old name.
+	 * @param after Its new name.
+	 * @return The edit.
+	 */
+	static QueueEdit rename(GroupQueue group, String before, String after) {
+		return new QueueEdit(NAME, group, null, before, after);
+	}
+
+	//-------------------------------------------------------------------------
+	// END Constructors
+	//-------------------------------------------------------------------------
+
+
+	//-------------------------------------------------------------------------
+	// Undo and Redo
+	//-------------------------------------------------------------------------
+
+	/**
+	 * Returns the edit that puts things back the way they were before this one.
+	 *
+	 * @return The inverse of this edit.
+	 */
+	QueueEdit inverse() {
+		return new QueueEdit(kind, group, station, after, before);
+	}
+
+	/**
+	 * Makes this change (again). It goes through the queues' usual methods, so it is
+	 * recorded and saved like any other change.
+	 */
+	@SuppressWarnings("unchecked")
+	void apply() {
+		switch(kind) {
+			case FILES:  group.setMediaFiles((Vector<MediaFile>)after); break;
+			case GROUPS: station.restoreGroups((Vector<GroupQueue>)after); break;
+			case NAME:   group.setGroupName((String)after); break;
+		}
+	}
+
+	//-------------------------------------------------------------------------
+	// END Undo and Redo
+	//-------------------------------------------------------------------------
+
+}
@@ -0,0 +1,427 @@
+package backend.queue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Vector;
+
+import main.Logger;
+import backend.library.MediaFile;
+import backend.library.MediaLibrary;
+
+/**
+ * A QueueJournal keeps the changes made to an instructor since their profile was last
+ * written. Each change is appended to the journal as one line and synced straight away,
+ * which is far cheaper than writing the whole profile, so a crash loses at most the
+ * change that was being made. When the profile is written the changes it holds are
+ * dropped from the journal (see compact); if the application stops before then, the
+ * changes are replayed the next time the instructor is loaded.
+ *
+ * Each line says what a group or station holds after the change, rather than what was
+ * done to it, so replaying a change that is already in the profile does no harm:
+ *
+ *   files	program	station	group number	path	path	...
+ *   name	program	station	group number	new name
+ *   groups	program	station	name	number of paths	path	...	name	...
+ *
+ * Fields are separated by tabs; tabs, line ends and backslashes within them are escaped.
+ */
+class QueueJournal {
+
+	//-------------------------------------------------------------------------
+	// Private Fields
+	//-------------------------------------------------------------------------
+
+	private File file;				// The journal.
+	private FileOutputStream out;	// Open for appending, or null until something is.
+
+	//-------------------------------------------------------------------------
+	// END Private Fields
+	//-------------------------------------------------------------------------
+
+
+	//-------------------------------------------------------------------------
+	// Constructor
+	//-------------------------------------------------------------------------
+
+	/**
+	 * Creates a journal kept in a file. Nothing is written until a change is recorded.
+	 *
+	 * @param file The file to keep the journal in.
+	 */
+	QueueJournal(File file) {
+		this.file = file;
+	}
+
+	//-------------------------------------------------------------------------
+	// END Constructor
+	//-------------------------------------------------------------------------
+
+
+	//-------------------------------------------------------------------------
+	// Recording
+	//-------------------------------------------------------------------------
+
+	/**
+	 * Records the MediaFiles a group now holds.
+	 *
+	 * @param program The name of the program the group is in.
+	 * @param station The name of the station the group is in.
+	 * @param group The position of the group in the station.
+	 * @param files The group's MediaFiles.
+	 */
+	void recordFiles(String program, String station, int group, Vector files) {
+		StringBuilder line = start("files", program, station);
+		field(line, Integer.toString(group));
+		paths(line, files);
+		append(line);
+	}
+
+	/**
+	 * Records a group's new name.
+	 *
+	 * @param program The name of the program the group is in.
+	 * @param station The name of the station the group is in.
+	 * @param group The position of the group in the station.
+	 * @param name The group's new name.
+	 */
+	void recordName(String program, String station, int group, String name) {
+		StringBuilder line = start("name", program, station);
+		field(line, Integer.toString(group));
+		field(line, name);
+		append(line);
+	}
+
+	/**
+	 * Records the groups a station now holds, along with their MediaFiles.
+	 *
+	 * @param program The name of the program the station is in.
+	 * @param station The name of the station.
+	 * @param groups The station's GroupQueues.
+	 */
+	void recordGroups(String program, String station, Vector groups) {
+		StringBuilder line = start("groups", program, station);
+		for(int i=0; i<groups.size(); i++) {
+			GroupQueue group = (GroupQueue)groups.get(i);
+			Vector files = group.getMediaFiles();
+			field(line, group.getGroupName());
+			field(line, Integer.toString(count(files)));
+			paths(line, files);
+		}
+		append(line);
+	}
+
+	/**
+	 * Returns how much has been recorded so far. Pass this to compact once the profile
+	 * has been written.
+	 *
+	 * @return The length of the journal, in bytes.
+	 */
+	synchronized long length() {
+		return file.length();
+	}
+
+	/**
+	 * Drops the changes that have been written to the profile. Changes recorded after
+	 * the profile started to be written are kept, since they may not be in it.
+	 *
+	 * @param written What length returned before the profile started to be written.
+	 */
+	synchronized void compact(long written) {
+		close();
+		long length = file.length();
+		if(length <= written) {
+			file.delete();
+			return;
+		}
+
+		File temp = new File(file.getPath() + ".tmp");
+		try {
+			byte[] rest = new byte[(int)(length - written)];
+			RandomAccessFile in = new RandomAccessFile(file, "r");
+			try {
+				in.seek(written);
+				in.readFully(rest);
+			} finally {
+				in.close();
+			}
+
+			FileOutputStream tempOut = new FileOutputStream(temp);
+			try {
+				tempOut.write(rest);
+				tempOut.getFD().sync();
+			} finally {
+				tempOut.close();
+			}
+			try {
+				Files.move(temp.toPath(), file.toPath(),
+						StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+		} catch (IOException e) {
+			// Keeping the whole journal does no harm; it is only replayed over the profile.
+			Logger.log(Logger.ERROR, "QueueJournal: Unable to compact " + file.getName() + ": " + e.getMessage());
+			temp.delete();
+		}
+	}
+
+	/**
+	 * Deletes the journal, such as when its instructor is removed.
+	 */
+	synchronized void delete() {
+		close();
+		file.delete();
+	}
+
+	//-------------------------------------------------------------------------
+	// END Recording
+	//-------------------------------------------------------------------------
+
+
+	//-------------------------------------------------------------------------
+	// Replaying
+	//-------------------------------------------------------------------------
+
+	/**
+	 * Applies the changes in the journal to an instructor that has just been read from
+	 * their profile. A program or station the instructor does not have yet is copied
+	 * from the default instructor first, as it would have been when it was first used.
+	 * Changes that no longer fit the instructor are logged and skipped.
+	 *
+	 * @param instructor The instructor the journal belongs to.
+	 * @param defaultInstructor The default instructor, or null if this is the default.
+	 * @return The number of changes applied.
+	 */
+	synchronized int replay(InstructorQueue instructor, InstructorQueue defaultInstructor) {
+		if(!file.isFile()) return 0;
+
+		String text;
+		try {
+			byte[] bytes = Files.readAllBytes(file.toPath());
+
+			// A crash part way through a change leaves a line without an end. It is left
+			// out, and cut off so that the next change starts on a line of its own.
+			int end = bytes.length;
+			while(end > 0 && bytes[end-1] != '\n') end--;
+			if(end < bytes.length) {
+				RandomAccessFile cut = new RandomAccessFile(file, "rw");
+				try {
+					cut.setLength(end);
+				} finally {
+					cut.close();
+				}
+			}
+			text = new String(bytes, 0, end, "UTF-8");
+		} catch (IOException e) {
+			Logger.log(Logger.ERROR, "QueueJournal: Unable to read " + file.getName() + ": " + e.getMessage());
+			return 0;
+		}
+
+		int applied = 0;
+		for(int start = 0, end = text.indexOf('\n'); end >= 0; start = end+1, end = text.indexOf('\n', start)) {
+			String line = text.substring(start, end);
+			boolean done;
+			try {
+				done = apply(split(line), instructor, defaultInstructor);
+			} catch (NumberFormatException e) {
+				done = false;
+			}
+			if(done) applied++;
+			else Logger.log(Logger.ERROR, "QueueJournal: Skipped a change in " + file.getName() + ": " + line);
+		}
+		return applied;
+	}
+
+	//-------------------------------------------------------------------------
+	// END Replaying
+	//-------------------------------------------------------------------------
+
+
+	//-------------------------------------------------------------------------
+	// Private Methods
+	//-------------------------------------------------------------------------
+
+	/*
+	 * Writes a line to the end of the journal and makes sure it is on disk. Only the
+	 * data has to be forced, not the rest of the file's details.
+	 */
+	private synchronized void append(StringBuilder line) {
+		line.append('\n');
+		try {
+			if(out == null) out = new FileOutputStream(file, true);
+			out.write(line.toString().getBytes("UTF-8"));
+			out.getChannel().force(false);
+		} catch (IOException e) {
+			// The change is still saved with the rest of the profile.
+			Logger.log(Logger.ERROR, "QueueJournal: Unable to record a change in " + file.getName() + ": " + e.getMessage());
+			close();
+		}
+	}
+
+	/*
+	 * Closes the journal if it is open.
+	 */
+	private void close() {
+		if(out == null) return;
+		try {
+			out.close();
+		} catch (IOException e) {}
+		out = null;
+	}
+
+	/*
+	 * Starts a line with the kind of change and where it was made.
+	 */
+	private StringBuilder start(String kind, String program, String station) {
+		StringBuilder line = new StringBuilder(kind);
+		field(line, program);
+		field(line, station);
+		return line;
+	}
+
+	/*
+	 * Returns how many paths the given MediaFiles add to a line (see paths).
+	 */
+	private static int count(Vector files) {
+		int count = 0;
+		for(int i=0; i<files.size(); i++) {
+			if(files.get(i) != null) count++;
+		}
+		return count;
+	}
+
+	/*
+	 * Adds the paths of some MediaFiles to a line. Empty places are left out.
+	 */
+	private void paths(StringBuilder line, Vector files) {
+		for(int i=0; i<files.size(); i++) {
+			if(files.get(i) != null) field(line, ((MediaFile)files.get(i)).getPath());
+		}
+	}
+
+	/*
+	 * Adds a field to a line, escaping anything that would end the field or the line.
+	 */
+	private void field(StringBuilder line, String text) {
+		line.append('\t');
+		for(int i=0; i<text.length(); i++) {
+			char c = text.charAt(i);
+			switch(c) {
+				case '\\': line.append("\\\\"); break;
+				case '\t': line.append("\\t");  break;
+				case '\n': line.append("\\n");  break;
+				case '\r': line.append("\\r");  break;
+				default:   line.append(c);
+			}
+		}
+	}
+
+	/*
+	 * Splits a line into its fields, undoing the escaping done by field.
+	 */
+	private String[] split(String line) {
+		Vector<String> fields = new Vector<String>();
+		StringBuilder text = new StringBuilder();
+		for(int i=0; i<line.length(); i++) {
+			char c = line.charAt(i);
+			if(c == '\t') {
+				fields.add(text.toString());
+				text.setLength(0);
+			}
+			else if(c == '\\' && i+1 < line.length()) {
+				char next = line.charAt(++i);
+				text.append(next == 't' ? '\t' : next == 'n' ? '\n' : next == 'r' ? '\r' : next);
+			}
+			else text.append(c);
+		}
+		fields.add(text.toString());
+		return fields.toArray(new String[fields.size()]);
+	}
+
+	/*
+	 * Applies one change to an instructor. The station's groups are replaced rather
+	 * than changed through their usual methods, so that nothing is recorded or saved
+	 * while the instructor is loading.
+	 */
+	private boolean apply(String[] fields, InstructorQueue instructor, InstructorQueue defaultInstructor) {
+		if(fields.length < 3) return false;
+		StationQueue station = findStation(fields[1], fields[2], instructor, defaultInstructor);
+		if(station == null) return false;
+
+		Vector<GroupQueue> groups = new Vector<GroupQueue>();
+		if(fields[0].equals("groups")) {
+			for(int i=3; i+1<fields.length; ) {
+				int count = Integer.parseInt(fields[i+1]);
+				if(count < 0 || i+2+count > fields.length) return false;
+				groups.add(newGroup(station, fields[i], fields, i+2, count));
+				i += 2 + count;
+			}
+		}
+		else {
+			if(fields.length < 4) return false;
+			groups.addAll(station.getGroups());
+			int index = Integer.parseInt(fields[3]);
+			if(index < 0 || index >= groups.size()) return false;
+			GroupQueue old = (GroupQueue)groups.get(index);
+
+			if(fields[0].equals("files")) {
+				groups.set(index, newGroup(station, old.getGroupName(), fields, 4, fields.length-4));
+			}
+			else if(fields[0].equals("name") && fields.length == 5) {
+				GroupQueue renamed = new GroupQueue(station.getPath(), station.getMediaLibrary(), station.getQLibrary(), fields[4]);
+				renamed.getMediaFiles().addAll(old.getMediaFiles());
+				groups.set(index, renamed);
+			}
+			else return false;
+		}
+		station.setGroups(groups);
+		return true;
+	}
+
+	/*
+	 * Makes a group holding the MediaFiles for some of the fields of a line.
+	 */
+	private GroupQueue newGroup(StationQueue station, String name, String[] fields, int first, int count) {
+		MediaLibrary library = station.getMediaLibrary();
+		GroupQueue group = new GroupQueue(station.getPath(), library, station.getQLibrary(), name);
+		Vector<String> paths = new Vector<String>(count);
+		for(int i=first; i<first+count; i++) paths.add(fields[i]);
+		group.getMediaFiles().addAll(library.getMediaFiles(paths));
+		return group;
+	}
+
+	/*
+	 * Finds a station of an instructor, copying it (or its whole program) from the
+	 * default instructor if the instructor does not have it.
+	 */
+	private StationQueue findStation(String programName, String stationName,
+			InstructorQueue instructor, InstructorQueue defaultInstructor) {
+		ProgramQueue program = instructor.getProgramQueue(programName);
+		if(program == null) {
+			ProgramQueue defaultProgram = (defaultInstructor == null) ? null : defaultInstructor.getProgramQueue(programName);
+			if(defaultProgram == null) return null;
+			program = defaultProgram.copy();
+			instructor.addProgramQueue(program);
+		}
+
+		StationQueue station = program.getStationQueue(stationName);
+		if(station == null) {
+			ProgramQueue defaultProgram = (defaultInstructor == null) ? null : defaultInstructor.getProgramQueue(programName);
+			StationQueue defaultStation = (defaultProgram == null) ? null : defaultProgram.getStationQueue(stationName);
+			if(defaultStation == null) return null;
+			station = defaultStation.copy();
+			program.addStationQueue(station);
+		}
+		return station;
+	}
+
+	//-------------------------------------------------------------------------
+	// END Private Methods
+	//-------------------------------------------------------------------------
+
+}
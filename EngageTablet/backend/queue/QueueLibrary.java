@@ -1,425 +1,760 @@
-package backend.queue;
-
-import java.io.File;
-import java.util.Iterator;
-import java.util.Vector;
-
-import backend.library.MediaLibrary;
-import backend.library.ProgramMedia;
-import backend.library.StationMedia;
-import main.Logger;
-
-/**
- * This class manages all of the queues associated with an instructor.
- * The QueueLibrary holds a Vector of InstructorQueues.
- * 
- * @author Kayre Hylton
- *
- */
-public class QueueLibrary {
-
-	//-------------------------------------------------------------------------
-	// Private Fields
-	//-------------------------------------------------------------------------
-	
-	/**
-	 * A Vector of InstructorQueues
-	 */
-	private Vector<InstructorQueue> instructors;
-	/**
-	 * The MediaLibrary
-	 */
-	private MediaLibrary library;
-	/**
-	 * The path for the directory that holds instructor files
-	 */
-	private String path;
-	/**
-	 * The current instructor
-	 */
-	private InstructorQueue currentInstructor;
-	
-	//-------------------------------------------------------------------------
-	// Getters and Setters
-	//-------------------------------------------------------------------------
-	
-	/**
-	 * Returns all the instructors that have been created
-	 * 
-	 * @return A Vector of InstructorQueues
-	 */
-	public Vector getInstructors(){
-		return instructors;
-	}
-	
-	/**
-	 * Sets the collection of instructors
-	 * @param instructors a Vector of InstructorQueues
-	 */
-	public void setInstructors(Vector<InstructorQueue> instructors){
-		this.instructors = instructors;
-	}
-
-	/**
-	 * Returns the MediaLibrary
-	 * 
-	 * @return the MediaLibrary
-	 */
-	public MediaLibrary getMediaLibrary(){
-		return library;
-	}
-	
-	/**
-	 * Sets the MediaLibrary
-	 * 
-	 * @param library the MediaLibrary
-	 */
-	public void setMediaLibrary(MediaLibrary library){
-		this.library = library;
-	}
-	
-	/**
-	 * Sets the path that holds all the instructor files
-	 * 
-	 * @param path the path to the folder which holds instructor XML files
-	 */
-	public void setPath(String path){
-		this.path = path;
-	}
-	
-	/**
-	 * Returns the path that holds all the instructor files
-	 * 
-	 * @return the path to the folder which holds instructor XML files
-	 */
-	public String getPath(){
-		return path;
-	}
-	
-	/**
-	 * Returns the current instructor
-	 * 
-	 * @return the InstructorQueue for the current instructor
-	 */
-	public InstructorQueue getCurrentInstructor(){
-		return currentInstructor;
-	}
-	
-	/**
-	 * Sets the current instructor
-	 * @param currentInstructor the InstructorQueue for the current instructor
-	 */
-	public void setCurrrentInstructor(InstructorQueue currentInstructor){
-		this.currentInstructor = currentInstructor;
-	}
-		
-	
-	//-------------------------------------------------------------------------
-	// Constructor
-	//-------------------------------------------------------------------------
-	
-	/**
-	 * Creates a new QueueLibrary from a path and a MediaLibrary. It creates instructors
-	 * from any existing instructor files, and ensures there is a default instructor
-	 * 
-	 * @param path the path where instructor files are located
-	 * @param library the MediaLibrary
-	 */
-	public QueueLibrary(String path, MediaLibrary library){
-		this.instructors = new Vector<InstructorQueue>();
-		setMediaLibrary(library);
-		setPath(path);
-		loadFromXML();
-		updateDefaultInstructor();
-	}
-
-	
-	//-------------------------------------------------------------------------
-	// InstructorQueue methods
-	//-------------------------------------------------------------------------
-	
-	/**
-	 * Gets a particular instructor
-	 * 
-	 * @param instructor a String of an instructor's name
-	 * @return the InstructorQueue for a particular instructor
-	 */
-	public InstructorQueue getInstructorQueue(String instructor){
-		for(int i=0; i<instructors.size(); i++){
-			if(((InstructorQueue)instructors.get(i)).getInstructorName().equals(instructor)){
-				return (InstructorQueue)instructors.get(i);
-			}
-		}
-		return null;
-	}
-	
-	/**
-	 * Returns an array of the names of all the instructors
-	 * @return an Array of Strings of instructor names
-	 */
-	public String[] getInstructorNames(){
-		String[] names = new String[instructors.size()];
-		int nameIndex = 0;
-		for(int i=0; i<instructors.size(); i++){
-			String name = ((InstructorQueue)instructors.get(i)).getInstructorName();
-			//skip default when adding names
-			if(!name.equals("default")){
-				names[nameIndex] = name;
-				nameIndex++;
-			}
-		}
-		//add default to the end
-		if(nameIndex < names.length){
-		names[nameIndex] = "edit default";
-		}
-		return names;
-	}
-	
-	/**
-	 * Adds a particular instructor to the collection of InstructorQueues
-	 * @param instructor the InstructorQueue to add to instructors
-	 */
-	public void addInstructorQueue(InstructorQueue instructor) {
-		this.instructors.add(instructor);
-		
-	}
-
-	/**
-	 * Removes a particular instructor from the collection of InstructorQueues
-	 * @param instructorName the name of the InstructorQueue to remove from instructors
-	 */
-	public void removeInstructorQueue(String instructorName) {
-		for(int i=0; i<instructors.size(); i++){
-			if(((InstructorQueue)instructors.get(i)).getInstructorName().equals(instructorName)){
-				instructors.remove(i);
-				File toDelete = new File(path + File.separator + instructorName + ".xml");
-				if(toDelete != null){
-					toDelete.delete();
-				}
-				Logger.log(Logger.INFO, "QueueLibrary: Removed instructor " + instructorName);
-			}
-		}
-	}
-	
-	/**
-	 * Removes particular instructors from the collection of InstructorQueues
-	 * @param instructorNames a Array of Strings of names of instructors to remove
-	 */
-	public void removeInstructors(Vector instructorNames){
-		for(int i=0; i<instructorNames.size(); i++){
-			removeInstructorQueue((String)instructorNames.get(i));
-		}
-		
-	}
-	
-	//-------------------------------------------------------------------------
-	// StationQueue Methods
-	//-------------------------------------------------------------------------
-	
-
-	/**
-	 * Returns all of the StationQueues associated with a particular instructor and program
-	 * @param instructor the logged-in instructor
-	 * @param program the selected program
-	 * @return a Vector of the StationQueues associated with the specified 
-	 * instructor-program combination
-	 */
-	public Vector getStationQueues(String instructor, String program){
-		InstructorQueue iQueue = this.getInstructorQueue(instructor);
-		InstructorQueue defaultInstructor = this.getInstructorQueue("default");
-		boolean isChanged = false;
-		if(iQueue == null){//if no instructor exists, create one from the default
-			isChanged = true;
-			Logger.log(Logger.INFO, "QueueLibrary: Instructor " + instructor + " does not exist");
-			this.addInstructorQueue(new InstructorQueue(path, library, this, instructor));
-			Logger.log(Logger.IMPORTANT, "QueueLibrary: Instructor " + instructor + 
-			" created from default instructor");
-			iQueue = this.getInstructorQueue(instructor);
-		}
-		
-		if(library.getProgram(program) != null){//program does exist
-			this.setCurrrentInstructor(iQueue);
-			ProgramQueue pQueue = iQueue.getProgramQueue(program);
-			ProgramQueue defaultPQueue = defaultInstructor.getProgramQueue(program);
-			if(pQueue != null){//program exists in this instructor's profile
-				Vector savedStations = pQueue.getStations();
-				Vector currentStations = defaultPQueue.getStations();
-				//make sure all the stations are in the saved profile
-				for(int i = 0; i<currentStations.size(); i++){
-					String stationName = ((StationQueue)currentStations.get(i)).getStationName();
-					if(pQueue.getStationQueue(stationName) == null){
-						pQueue.addStationQueue(((StationQueue)currentStations.get(i)).copy());
-						Logger.log(Logger.INFO, "QueueLibrary: Adding Station" + stationName +
-								" from the default to instructor " + iQueue.getInstructorName());
-						isChanged = true;
-					}
-				}
-				
-				//remove stations which no longer exist
-				for(int i = 0; i<savedStations.size(); i++){
-					String stationName = ((StationQueue)savedStations.get(i)).getStationName();
-					if(defaultPQueue.getStationQueue(stationName) == null){
-						pQueue.removeStationQueue(stationName);
-						Logger.log(Logger.INFO, "QueueLibrary: Removing Station" +	stationName +
-								" from instructor " + iQueue.getInstructorName() + " as it no longer exists");
-						isChanged = true;
-					}
-				}
-				
-				if(isChanged){
-					this.saveQueues();
-				}
-				
-				return pQueue.getStations();
-			}
-			else{//program does not exist for this instructor
-				Logger.log(Logger.INFO, "QueueLibrary: Program " + program + 
-						" does not exist for instructor" + instructor);
-				iQueue.addProgramQueue(defaultPQueue.copy());
-				this.saveQueues();
-				return iQueue.getProgramQueue(program).getStations();
-			}
-		}
-		else{//program does not exist
-			Logger.log(Logger.ERROR, "QueueLibrary: Program " + program + " does not exist");
-			return null;
-		}
-		
-	}
-	
-	
-	
-	//-------------------------------------------------------------------------
-	// XML Methods
-	//-------------------------------------------------------------------------
-	
-	
-	/**
-	 * Goes through the files in the instructor directory and creates InstructorQueues 
-	 * from the XML and adds them to instructors
-	 */
-	private void loadFromXML() {
-		File instructorDirectory = new File(path);
-		if(instructorDirectory != null){
-			if(instructorDirectory.isDirectory()){
-				File[] instructorProfiles = instructorDirectory.listFiles();
-				for(int i=0; i<instructorProfiles.length; i++){
-					if(isXMLFile(instructorProfiles[i])){
-						String name = instructorProfiles[i].getName();
-						name = name.substring(0, name.length()-4);
-						addInstructorQueue(new InstructorQueue(path, library, this, name));
-						
-					}
-				}
-			}
-			else{
-				Logger.log(Logger.ERROR, "QueueLibrary: Cannot load instructors from " + path + 
-						". It is not a directory.");
-			}
-		}
-		else{
-			Logger.log(Logger.ERROR, "QueueLibrary: Cannot load instructors from " + path + 
-					". It is not a valid path.");
-		}
-	}
-
-	/**
-	 * Determines whether a file is an XML file or not
-	 * @param file the file to check
-	 * @return true if the file ends with ".xml", false otherwise
-	 */
-	private boolean isXMLFile(File file) {
-		if(file.getName().endsWith(".xml")){
-			return true;
-		}
-		return false;
-	}
-	
-	/**
-	 * Saves the queues for the current instructor to an XML file
-	 */
-	public void saveQueues(){
-		getCurrentInstructor().toXML();
-		Logger.log(Logger.INFO, "QueueLibrary: Saving changes made to instructor " + getCurrentInstructor().getInstructorName());
-	}
-	
-	
-	//-------------------------------------------------------------------------
-	// Other Methods
-	//-------------------------------------------------------------------------
-	
-	
-	/**
-	 * Makes sure that the "default.xml" file is up to date. If none exists, one is created.
-	 * If one exists, it ensures that it contains all of the programs and stations
-	 */
-	private void updateDefaultInstructor(){
-		InstructorQueue defaultInstructor = getInstructorQueue("default");
-		if(defaultInstructor == null){//no default exists - create a blank one
-			defaultInstructor = new InstructorQueue(path, library, this, "default", false);
-			addInstructorQueue(defaultInstructor);
-			defaultInstructor.toXML();
-		}
-		else{//default exists
-			Iterator libPrograms = library.getPrograms();
-			//Vector<ProgramQueue> defaultPrograms = defaultInstructor.getPrograms();
-			while(libPrograms.hasNext()){
-				ProgramMedia pm = (ProgramMedia)libPrograms.next();
-				String programName = pm.getName();
-				
-				//if a program exists and is not in the default, add it
-				if(defaultInstructor.getProgramQueue(programName) == null){
-					defaultInstructor.addProgramQueue(new ProgramQueue(path, library, this, programName));
-					Logger.log(Logger.INFO, "QueueLibrary: Added program" + programName + " to default instructor");
-				}
-				
-				Iterator libStations = pm.getStations();
-				while(libStations.hasNext()){
-					StationMedia sm = (StationMedia)libStations.next();
-					String stationName = sm.getName();
-					
-					//if a station exists and is not in the default, add it
-					if(defaultInstructor.getProgramQueue(programName)
-							.getStationQueue(stationName) == null){
-						defaultInstructor.getProgramQueue(programName)
-						.addStationQueue(new StationQueue(path, library, this, stationName));
-						Logger.log(Logger.INFO, "QueueLibrary: Added station " + stationName + " in program " 
-								+ programName + " to default instructor");
-					}
-				}
-
-			}
-			
-//			for(int i = 0; i<defaultPrograms.size(); i++){
-//				
-//				//if a program is in the default but no longer exists, remove it
-//				String programName = ((ProgramQueue)defaultPrograms.get(i)).getProgramName();
-//				if(library.getProgram(programName) == null){
-//					defaultInstructor.removeProgramQueue(programName);
-//					i--;
-//					Logger.log(Logger.INFO, "QueueLibrary: Program " + programName + 
-//							" no longer exists. Removing from default");
-//				}
-//				else{//program still exists... check its stations
-//					Vector defaultStations = ((ProgramQueue)defaultPrograms.get(i)).getStations();
-//					for(int j = 0; j<defaultStations.size(); j++){
-//						
-//						//if a station is in the default but no longer exists, remove it
-//						String stationName = ((StationQueue)defaultStations.get(j)).getStationName();
-//						if(((ProgramMedia)library.getProgram(programName))
-//								.getStation(stationName) == null){
-//							defaultInstructor.getProgramQueue(programName)
-//							.removeStationQueue(stationName);
-//							j--;
-//							Logger.log(Logger.INFO, "QueueLibrary: Station " + stationName + " in program " 
-//									+ programName + " no longer exists. Removing from default");
-//						}
-//					}
-//				}
-//			}
-		}
-		defaultInstructor.toXML();
-	}
-	
-
-}
+package backend.queue;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Vector;
+
+import backend.library.MediaLibrary;
+import backend.library.ProgramMedia;
+import main.Logger;
+
+/**
+ * This class manages all of the queues associated with an instructor.
+ * The QueueLibrary holds a Vector of InstructorQueues.
+ * 
+ * @author Kayre Hylton
+ *
+ */
+public class QueueLibrary {
+
+	//-------------------------------------------------------------------------
+	// Private Fields
+	//-------------------------------------------------------------------------
+	
+	/**
+	 * A Vector of the InstructorQueues that have been loaded
+	 */
+	private Vector<InstructorQueue> instructors;
+	/**
+	 * Finds the loaded InstructorQueues by name
+	 */
+	private NameIndex<InstructorQueue> instructorsByName = new NameIndex<InstructorQueue>() {
+		String nameOf(InstructorQueue instructor) {
+			return instructor.getInstructorName();
+		}
+	};
+	/**
+	 * The names of all the instructors, whether they have been loaded or not, in the
+	 * order they were found
+	 */
+	private LinkedHashSet<String> instructorNames;
+	/**
+	 * When each loaded instructor was last asked for
+	 */
+	private HashMap<String, Long> lastUsed = new HashMap<String, Long>();
+	/**
+	 * The MediaLibrary
+	 */
+	private MediaLibrary library;
+	/**
+	 * The path for the directory that holds instructor files
+	 */
+	private String path;
+	/**
+	 * The current instructor
+	 */
+	private InstructorQueue currentInstructor;
+	/**
+	 * Writes changed instructors to disk in the background
+	 */
+	private QueueSaver saver = new QueueSaver(this);
+	/**
+	 * A binary copy of the instructors for faster loading, or null if there is none
+	 */
+	private QueueSnapshot snapshot;
+	/**
+	 * True if an instructor has been read or saved since the snapshot was last saved
+	 */
+	private volatile boolean snapshotStale = false;
+	/**
+	 * The edits the current instructor can undo, oldest first
+	 */
+	private Vector<QueueEdit> undoEdits = new Vector<QueueEdit>();
+	/**
+	 * The edits the current instructor has undone and can redo, most recently undone last
+	 */
+	private Vector<QueueEdit> redoEdits = new Vector<QueueEdit>();
+	/**
+	 * True while an edit is being undone or redone
+	 */
+	private boolean undoing = false;
+	/**
+	 * Told when what can be undone or redone changes, or null if no one is listening
+	 */
+	private UndoListener undoListener;
+	
+	//-------------------------------------------------------------------------
+	// Constants
+	//-------------------------------------------------------------------------
+	
+	/**
+	 * How long (in milliseconds) a loaded instructor may go unused before it is let go
+	 */
+	static public final long IDLE_TIME = 15*60*1000;
+	
+	/**
+	 * How many edits the current instructor can undo
+	 */
+	static public final int UNDO_LIMIT = 50;
+	
+	//-------------------------------------------------------------------------
+	// Getters and Setters
+	//-------------------------------------------------------------------------
+	
+	/**
+	 * Returns the instructors that are currently loaded. Instructors are only loaded
+	 * when they are asked for (see getInstructorQueue), so this may not be all of them.
+	 * 
+	 * @return A Vector of InstructorQueues
+	 */
+	public Vector getInstructors(){
+		return instructors;
+	}
+	
+	/**
+	 * Sets the collection of instructors
+	 * @param instructors a Vector of InstructorQueues
+	 */
+	public void setInstructors(Vector<InstructorQueue> instructors){
+		this.instructors = instructors;
+		instructorsByName.rebuild(instructors);
+		for(int i=0; i<instructors.size(); i++){
+			instructorNames.add(((InstructorQueue)instructors.get(i)).getInstructorName());
+		}
+	}
+
+	/**
+	 * Returns the MediaLibrary
+	 * 
+	 * @return the MediaLibrary
+	 */
+	public MediaLibrary getMediaLibrary(){
+		return library;
+	}
+	
+	/**
+	 * Sets the MediaLibrary
+	 * 
+	 * @param library the MediaLibrary
+	 */
+	public void setMediaLibrary(MediaLibrary library){
+		this.library = library;
+	}
+	
+	/**
+	 * Sets the path that holds all the instructor files
+	 * 
+	 * @param path the path to the folder which holds instructor XML files
+	 */
+	public void setPath(String path){
+		this.path = path;
+	}
+	
+	/**
+	 * Returns the path that holds all the instructor files
+	 * 
+	 * @return the path to the folder which holds instructor XML files
+	 */
+	public String getPath(){
+		return path;
+	}
+	
+	/**
+	 * Returns the current instructor
+	 * 
+	 * @return the InstructorQueue for the current instructor
+	 */
+	public InstructorQueue getCurrentInstructor(){
+		return currentInstructor;
+	}
+	
+	/**
+	 * Sets the current instructor
+	 * @param currentInstructor the InstructorQueue for the current instructor
+	 */
+	public void setCurrrentInstructor(InstructorQueue currentInstructor){
+		if(currentInstructor != this.currentInstructor){
+			undoEdits.clear();
+			redoEdits.clear();
+			undoChanged();
+		}
+		this.currentInstructor = currentInstructor;
+	}
+	
+	/**
+	 * Sets who is told when what the current instructor can undo or redo changes
+	 * @param listener the UndoListener, or null for none
+	 */
+	public void setUndoListener(UndoListener listener){
+		this.undoListener = listener;
+		undoChanged();
+	}
+		
+	
+	//-------------------------------------------------------------------------
+	// Constructor
+	//-------------------------------------------------------------------------
+	
+	/**
+	 * Creates a new QueueLibrary from a path and a MediaLibrary. It finds the names of
+	 * the instructors from the existing instructor files, and ensures there is a default
+	 * instructor. Each instructor's file is only read when the instructor is first used.
+	 * 
+	 * @param path the path where instructor files are located
+	 * @param library the MediaLibrary
+	 */
+	public QueueLibrary(String path, MediaLibrary library){
+		this(path, library, null);
+	}
+	
+	/**
+	 * Creates a new QueueLibrary from a path and a MediaLibrary, reading instructors
+	 * from a snapshot where their files have not changed since it was saved. The 
+	 * snapshot is saved again in the background whenever instructors are saved, or 
+	 * have had to be read from their files.
+	 * 
+	 * @param path the path where instructor files are located
+	 * @param library the MediaLibrary
+	 * @param snapshot the QueueSnapshot to use, or null to read every instructor file
+	 */
+	public QueueLibrary(String path, MediaLibrary library, QueueSnapshot snapshot){
+		this.instructors = new Vector<InstructorQueue>();
+		this.instructorNames = new LinkedHashSet<String>();
+		this.snapshot = snapshot;
+		setMediaLibrary(library);
+		setPath(path);
+		if(snapshot != null) snapshot.load();
+		findInstructors();
+		updateDefaultInstructor();
+	}
+
+	
+	//-------------------------------------------------------------------------
+	// InstructorQueue methods
+	//-------------------------------------------------------------------------
+	
+	/**
+	 * Gets a particular instructor, reading their file if they have not been loaded
+	 * yet (or have been let go since they were last used)
+	 * 
+	 * @param instructor a String of an instructor's name
+	 * @return the InstructorQueue for a particular instructor
+	 */
+	public InstructorQueue getInstructorQueue(String instructor){
+		InstructorQueue iQueue = getLoadedInstructor(instructor);
+		if(iQueue == null && instructorNames.contains(instructor)){
+			releaseIdleInstructors();
+			iQueue = loadInstructor(instructor);
+			instructors.add(iQueue);
+			instructorsByName.add(iQueue);
+		}
+		if(iQueue != null){
+			lastUsed.put(instructor, Long.valueOf(System.currentTimeMillis()));
+		}
+		return iQueue;
+	}
+	
+	/**
+	 * Returns an array of the names of all the instructors
+	 * @return an Array of Strings of instructor names
+	 */
+	public String[] getInstructorNames(){
+		String[] names = new String[instructorNames.size()];
+		int nameIndex = 0;
+		Iterator<String> i = instructorNames.iterator();
+		while(i.hasNext()){
+			String name = i.next();
+			//skip default when adding names
+			if(!name.equals("default")){
+				names[nameIndex] = name;
+				nameIndex++;
+			}
+		}
+		//add default to the end
+		if(nameIndex < names.length){
+		names[nameIndex] = "edit default";
+		}
+		return names;
+	}
+	
+	/**
+	 * Adds a particular instructor to the collection of InstructorQueues
+	 * @param instructor the InstructorQueue to add to instructors
+	 */
+	public void addInstructorQueue(InstructorQueue instructor) {
+		this.instructors.add(instructor);
+		instructorsByName.add(instructor);
+		instructorNames.add(instructor.getInstructorName());
+		lastUsed.put(instructor.getInstructorName(), Long.valueOf(System.currentTimeMillis()));
+	}
+
+	/**
+	 * Removes a particular instructor from the collection of InstructorQueues
+	 * @param instructorName the name of the InstructorQueue to remove from instructors
+	 */
+	public void removeInstructorQueue(String instructorName) {
+		if(instructorNames.remove(instructorName)){
+			InstructorQueue iQueue = getLoadedInstructor(instructorName);
+			if(iQueue != null){
+				instructors.remove(iQueue);
+				instructorsByName.remove(iQueue, instructors);
+				iQueue.getJournal().delete();
+			}
+			else{
+				new File(path, instructorName + ".journal").delete();
+			}
+			lastUsed.remove(instructorName);
+			File toDelete = new File(path + File.separator + instructorName + ".xml");
+			if(toDelete != null){
+				toDelete.delete();
+			}
+			Logger.log(Logger.INFO, "QueueLibrary: Removed instructor " + instructorName);
+		}
+	}
+	
+	/**
+	 * Removes particular instructors from the collection of InstructorQueues
+	 * @param instructorNames a Array of Strings of names of instructors to remove
+	 */
+	public void removeInstructors(Vector instructorNames){
+		for(int i=0; i<instructorNames.size(); i++){
+			removeInstructorQueue((String)instructorNames.get(i));
+		}
+		
+	}
+	
+	//-------------------------------------------------------------------------
+	// StationQueue Methods
+	//-------------------------------------------------------------------------
+	
+
+	/**
+	 * Returns all of the StationQueues associated with a particular instructor and program
+	 * @param instructor the logged-in instructor
+	 * @param program the selected program
+	 * @return a Vector of the StationQueues associated with the specified 
+	 * instructor-program combination
+	 */
+	public Vector getStationQueues(String instructor, String program){
+		InstructorQueue iQueue = this.getInstructorQueue(instructor);
+		InstructorQueue defaultInstructor = this.getInstructorQueue("default");
+		boolean isChanged = false;
+		if(iQueue == null){//if no instructor exists, create one from the default
+			isChanged = true;
+			Logger.log(Logger.INFO, "QueueLibrary: Instructor " + instructor + " does not exist");
+			// Start with no programs; each one is copied from the default when it is first used, below.
+			this.addInstructorQueue(new InstructorQueue(path, library, this, instructor, new Vector<ProgramQueue>()));
+			Logger.log(Logger.IMPORTANT, "QueueLibrary: Instructor " + instructor + 
+			" created from default instructor");
+			iQueue = this.getInstructorQueue(instructor);
+		}
+		
+		if(library.getProgram(program) != null){//program does exist
+			this.setCurrrentInstructor(iQueue);
+			ProgramQueue pQueue = iQueue.getProgramQueue(program);
+			ProgramQueue defaultPQueue = defaultInstructor.getProgramQueue(program);
+			if(pQueue != null){//program exists in this instructor's profile
+				Vector savedStations = pQueue.getStations();
+				Vector currentStations = defaultPQueue.getStations();
+				//make sure all the stations are in the saved profile
+				for(int i = 0; i<currentStations.size(); i++){
+					String stationName = ((StationQueue)currentStations.get(i)).getStationName();
+					if(pQueue.getStationQueue(stationName) == null){
+						pQueue.addStationQueue(((StationQueue)currentStations.get(i)).copy());
+						Logger.log(Logger.INFO, "QueueLibrary: Adding Station" + stationName +
+								" from the default to instructor " + iQueue.getInstructorName());
+						isChanged = true;
+					}
+				}
+				
+				//remove stations which no longer exist (backwards, so removing one skips nothing)
+				for(int i = savedStations.size()-1; i>=0; i--){
+					String stationName = ((StationQueue)savedStations.get(i)).getStationName();
+					if(defaultPQueue.getStationQueue(stationName) == null){
+						pQueue.removeStationQueue(stationName);
+						Logger.log(Logger.INFO, "QueueLibrary: Removing Station" +	stationName +
+								" from instructor " + iQueue.getInstructorName() + " as it no longer exists");
+						isChanged = true;
+					}
+				}
+				
+				if(isChanged){
+					this.saveQueues();
+				}
+				
+				return pQueue.getStations();
+			}
+			else{//program does not exist for this instructor
+				Logger.log(Logger.INFO, "QueueLibrary: Program " + program + 
+						" does not exist for instructor" + instructor);
+				iQueue.addProgramQueue(defaultPQueue.copy());
+				this.saveQueues();
+				return iQueue.getProgramQueue(program).getStations();
+			}
+		}
+		else{//program does not exist
+			Logger.log(Logger.ERROR, "QueueLibrary: Program " + program + " does not exist");
+			return null;
+		}
+		
+	}
+	
+	
+	
+	//-------------------------------------------------------------------------
+	// XML Methods
+	//-------------------------------------------------------------------------
+	
+	
+	/**
+	 * Goes through the files in the instructor directory and adds the name of each
+	 * instructor to instructorNames. Nothing is read from the files until the 
+	 * instructor is asked for. An instructor who has a journal but no XML file was
+	 * created and changed, but never saved, so they are included as well.
+	 */
+	private void findInstructors() {
+		File instructorDirectory = new File(path);
+		if(instructorDirectory != null){
+			if(instructorDirectory.isDirectory()){
+				File[] instructorProfiles = instructorDirectory.listFiles();
+				for(int i=0; i<instructorProfiles.length; i++){
+					String name = instructorProfiles[i].getName();
+					if(isXMLFile(instructorProfiles[i])){
+						instructorNames.add(name.substring(0, name.length()-4));
+					}
+					else if(name.endsWith(".journal")){
+						instructorNames.add(name.substring(0, name.length()-8));
+					}
+				}
+				Logger.log(Logger.IMPORTANT, "QueueLibrary: Found " + instructorNames.size() + " instructors");
+			}
+			else{
+				Logger.log(Logger.ERROR, "QueueLibrary: Cannot load instructors from " + path + 
+						". It is not a directory.");
+			}
+		}
+		else{
+			Logger.log(Logger.ERROR, "QueueLibrary: Cannot load instructors from " + path + 
+					". It is not a valid path.");
+		}
+	}
+	
+	/**
+	 * Reads an instructor, from the snapshot if their file has not changed since it
+	 * was saved, or from their XML file otherwise. Any changes left in their journal
+	 * (because the application stopped before they were saved) are then made again.
+	 * @param name the name of the instructor
+	 * @return the InstructorQueue for the instructor
+	 */
+	private InstructorQueue loadInstructor(String name){
+		InstructorQueue iQueue;
+		Vector<ProgramQueue> programs = (snapshot == null) ? null 
+				: snapshot.read(new File(path, name + ".xml"), path, library, this);
+		if(programs != null){
+			Logger.log(Logger.INFO, "QueueLibrary: Loaded instructor " + name + " from the snapshot");
+			iQueue = new InstructorQueue(path, library, this, name, programs);
+		}
+		else{
+			iQueue = new InstructorQueue(path, library, this, name);
+			if(snapshot != null){
+				// Add them to the snapshot once things are quiet, so next time is quicker.
+				snapshotStale = true;
+				saver.schedule();
+			}
+		}
+		
+		InstructorQueue defaultInstructor = name.equals("default") ? null : getLoadedInstructor("default");
+		int recovered = iQueue.getJournal().replay(iQueue, defaultInstructor);
+		if(recovered > 0){
+			iQueue.markDirty();
+			saver.schedule();
+			Logger.log(Logger.IMPORTANT, "QueueLibrary: Recovered " + recovered + 
+					" unsaved changes to instructor " + name);
+		}
+		return iQueue;
+	}
+	
+	/**
+	 * Returns an instructor if they are loaded
+	 * @param instructor a String of an instructor's name
+	 * @return the InstructorQueue for the instructor, or null if they are not loaded
+	 */
+	private InstructorQueue getLoadedInstructor(String instructor){
+		return instructorsByName.get(instructor, instructors);
+	}
+	
+	/**
+	 * Lets go of the instructors that have not been used for IDLE_TIME, so they 
+	 * do not take up memory. The current instructor, the default instructor and 
+	 * instructors with unsaved changes are kept. Anyone let go is read again 
+	 * the next time they are asked for.
+	 */
+	private void releaseIdleInstructors(){
+		long now = System.currentTimeMillis();
+		for(int i=instructors.size()-1; i>=0; i--){
+			InstructorQueue iQueue = (InstructorQueue)instructors.get(i);
+			String name = iQueue.getInstructorName();
+			Long used = lastUsed.get(name);
+			if(iQueue == currentInstructor || name.equals("default") || iQueue.isDirty()) continue;
+			if(used != null && now - used.longValue() < IDLE_TIME) continue;
+			
+			instructors.remove(i);
+			instructorsByName.remove(iQueue, instructors);
+			lastUsed.remove(name);
+			Logger.log(Logger.INFO, "QueueLibrary: Let go of instructor " + name + " as they have not been used");
+		}
+	}
+
+	/**
+	 * Determines whether a file is an XML file or not
+	 * @param file the file to check
+	 * @return true if the file ends with ".xml", false otherwise
+	 */
+	private boolean isXMLFile(File file) {
+		if(file.getName().endsWith(".xml")){
+			return true;
+		}
+		return false;
+	}
+	
+	/**
+	 * Saves the queues for the current instructor to an XML file. The file is written
+	 * in the background once the instructor has stopped making changes for a moment,
+	 * so a burst of edits (such as dragging an image along a group) is written once.
+	 */
+	public void saveQueues(){
+		InstructorQueue current = getCurrentInstructor();
+		if(current == null) return;
+		current.markDirty();
+		saver.schedule();
+		Logger.log(Logger.DEBUG, "QueueLibrary: Changes made to instructor " + current.getInstructorName() + " will be saved");
+	}
+	
+	/**
+	 * Records an edit that has just been made to a queue. If it was made to the current
+	 * instructor it is written to their journal, and can be undone; either way the
+	 * current instructor is saved once they have stopped making changes.
+	 * @param edit the edit that has been made
+	 */
+	void edited(QueueEdit edit){
+		edited(edit, true);
+	}
+	
+	/**
+	 * Records an edit that has just been made to a queue, like edited(QueueEdit). An 
+	 * edit the instructor did not make (such as a file being deleted from the library 
+	 * on disk) is saved but cannot be undone, and the edits to the same group that 
+	 * could have been undone or redone are forgotten, since they would bring back 
+	 * what it took away.
+	 * @param edit the edit that has been made
+	 * @param undoable false if the edit cannot be undone
+	 */
+	void edited(QueueEdit edit, boolean undoable){
+		InstructorQueue current = getCurrentInstructor();
+		if(current == null) return;
+		
+		if(current.record(edit) && !undoing){
+			if(undoable){
+				undoEdits.add(edit);
+				if(undoEdits.size() > UNDO_LIMIT) undoEdits.remove(0);
+				redoEdits.clear();
+			}
+			else{
+				forgetEdits(undoEdits, edit.group);
+				forgetEdits(redoEdits, edit.group);
+			}
+			undoChanged();
+		}
+		saveQueues();
+	}
+	
+	/**
+	 * Returns whether the current instructor has an edit they can undo
+	 * @return true if undo would change something
+	 */
+	public boolean canUndo(){
+		return !undoEdits.isEmpty();
+	}
+	
+	/**
+	 * Returns whether the current instructor has undone an edit they can redo
+	 * @return true if redo would change something
+	 */
+	public boolean canRedo(){
+		return !redoEdits.isEmpty();
+	}
+	
+	/**
+	 * Undoes the current instructor's last edit
+	 * @return the StationQueue that has changed, or null if there was nothing to undo
+	 */
+	public StationQueue undo(){
+		if(undoEdits.isEmpty()) return null;
+		QueueEdit edit = undoEdits.remove(undoEdits.size()-1);
+		undoing = true;
+		try{
+			edit.inverse().apply();
+		}
+		finally{
+			undoing = false;
+		}
+		redoEdits.add(edit);
+		undoChanged();
+		Logger.log(Logger.INFO, "QueueLibrary: Undid a change to station " + edit.station.getStationName());
+		return edit.station;
+	}
+	
+	/**
+	 * Redoes the edit the current instructor last undid
+	 * @return the StationQueue that has changed, or null if there was nothing to redo
+	 */
+	public StationQueue redo(){
+		if(redoEdits.isEmpty()) return null;
+		QueueEdit edit = redoEdits.remove(redoEdits.size()-1);
+		undoing = true;
+		try{
+			edit.apply();
+		}
+		finally{
+			undoing = false;
+		}
+		undoEdits.add(edit);
+		undoChanged();
+		Logger.log(Logger.INFO, "QueueLibrary: Redid a change to station " + edit.station.getStationName());
+		return edit.station;
+	}
+	
+	/**
+	 * Writes every instructor that has changes waiting to be saved, and returns once 
+	 * they are on disk. Called when an instructor logs out, so what they could undo 
+	 * is forgotten.
+	 */
+	public void flush(){
+		undoEdits.clear();
+		redoEdits.clear();
+		undoChanged();
+		saver.flush();
+		releaseIdleInstructors();
+	}
+	
+	/**
+	 * Saves the snapshot of the instructors, if there is one and it is out of date.
+	 * Called (in the background) once changed instructors have been written to their 
+	 * files.
+	 * @param saved true if any instructors have just been written
+	 */
+	void saveSnapshot(boolean saved){
+		if(snapshot == null || !(saved || snapshotStale)) return;
+		snapshotStale = false;
+		snapshot.save(new Vector(instructors), path);
+	}
+	
+	
+	//-------------------------------------------------------------------------
+	// Other Methods
+	//-------------------------------------------------------------------------
+	
+	/**
+	 * Drops the edits to the MediaFiles of a group from a list of edits that can be 
+	 * undone or redone
+	 * @param edits the edits to look through
+	 * @param group the group whose edits should be dropped
+	 */
+	private static void forgetEdits(Vector<QueueEdit> edits, GroupQueue group){
+		Iterator<QueueEdit> i = edits.iterator();
+		while(i.hasNext()){
+			QueueEdit edit = i.next();
+			if(edit.kind == QueueEdit.FILES && edit.group == group) i.remove();
+		}
+	}
+	
+	/**
+	 * Tells the UndoListener, if there is one, what can be undone and redone now
+	 */
+	private void undoChanged(){
+		if(undoListener != null) undoListener.undoChanged(canUndo(), canRedo());
+	}
+	
+	
+	/**
+	 * Makes sure that the "default.xml" file is up to date. If none exists, one is created.
+	 * If one exists, it ensures that it contains all of the programs and stations, and
+	 * only writes it again if something had to be added
+	 */
+	private void updateDefaultInstructor(){
+		boolean changed = false;
+		InstructorQueue defaultInstructor = getInstructorQueue("default");
+		if(defaultInstructor == null){//no default exists - create a blank one
+			defaultInstructor = new InstructorQueue(path, library, this, "default", false);
+			addInstructorQueue(defaultInstructor);
+			defaultInstructor.toXML();
+		}
+		else{//default exists
+			Iterator libPrograms = library.getPrograms();
+			//Vector<ProgramQueue> defaultPrograms = defaultInstructor.getPrograms();
+			while(libPrograms.hasNext()){
+				ProgramMedia pm = (ProgramMedia)libPrograms.next();
+				String programName = pm.getName();
+				
+				//if a program exists and is not in the default, add it
+				if(defaultInstructor.getProgramQueue(programName) == null){
+					defaultInstructor.addProgramQueue(new ProgramQueue(path, library, this, programName));
+					changed = true;
+					Logger.log(Logger.INFO, "QueueLibrary: Added program" + programName + " to default instructor");
+				}
+				
+				// Only the station names are needed, so the program does not have to be loaded.
+				Iterator libStations = pm.getStationNames();
+				while(libStations.hasNext()){
+					String stationName = (String)libStations.next();
+					
+					//if a station exists and is not in the default, add it
+					if(defaultInstructor.getProgramQueue(programName)
+							.getStationQueue(stationName) == null){
+						defaultInstructor.getProgramQueue(programName)
+						.addStationQueue(new StationQueue(path, library, this, stationName));
+						changed = true;
+						Logger.log(Logger.INFO, "QueueLibrary: Added station " + stationName + " in program " 
+								+ programName + " to default instructor");
+					}
+				}
+
+			}
+			
+//			for(int i = 0; i<defaultPrograms.size(); i++){
+//				
+//				//if a program is in the default but no longer exists, remove it
+//				String programName = ((ProgramQueue)defaultPrograms.get(i)).getProgramName();
+//				if(library.getProgram(programName) == null){
+//					defaultInstructor.removeProgramQueue(programName);
+//					i--;
+//					Logger.log(Logger.INFO, "QueueLibrary: Program " + programName + 
+//							" no longer exists. Removing from default");
+//				}
+//				else{//program still exists... check its stations
+//					Vector defaultStations = ((ProgramQueue)defaultPrograms.get(i)).getStations();
+//					for(int j = 0; j<defaultStations.size(); j++){
+//						
+//						//if a station is in the default but no longer exists, remove it
+//						String stationName = ((StationQueue)defaultStations.get(j)).getStationName();
+//						if(((ProgramMedia)library.getProgram(programName))
+//								.getStation(stationName) == null){
+//							defaultInstructor.getProgramQueue(programName)
+//							.removeStationQueue(stationName);
+//							j--;
+//							Logger.log(Logger.INFO, "QueueLibrary: Station " + stationName + " in program " 
+//									+ programName + " no longer exists. Removing from default");
+//						}
+//					}
+//				}
+//			}
+			if(changed){
+				defaultInstructor.toXML();
+			}
+		}
+	}
+	
+
+}
@@ -0,0 +1,167 @@
+package backend.queue;
+
+import java.util.Vector;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import main.Logger;
+
+/**
+ * The QueueSaver writes instructor profiles to disk behind the instructor's back.
+ * Rather than rewriting a whole profile on every change (which happens on the event
+ * thread, in the middle of a drag), a change only marks its instructor dirty and asks
+ * for a save. The save happens on a background thread once no further changes have
+ * been asked for in a short while, and then only dirty instructors are written.
+ *
+ * Anything still waiting is written when the instructor logs out (see flush), and
+ * when the application exits.
+ */
+public class QueueSaver {
+
+	//-------------------------------------------------------------------------
+	// Constants
+	//-------------------------------------------------------------------------
+
+	/**
+	 * How long (in milliseconds) to wait after the last change before saving.
+	 */
+	static public final long QUIET_TIME = 2000;
+
+	//-------------------------------------------------------------------------
+	// END Constants
+	//-------------------------------------------------------------------------
+
+
+	//-------------------------------------------------------------------------
+	// Private Fields
+	//-------------------------------------------------------------------------
+
+	// The QueueLibrary whose instructors we save.
+	private QueueLibrary qLibrary;
+
+	// A single thread that does the writing.
+	private ScheduledExecutorService writer;
+
+	// The save that is waiting for the changes to stop, or null if there is none.
+	private ScheduledFuture<?> pendingSave;
+
+	// Held while instructors are being written, so two saves never overlap.
+	private final Object writeLock = new Object();
+
+	//-------------------------------------------------------------------------
+	// END Private Fields
+	//-------------------------------------------------------------------------
+
+
+	//-------------------------------------------------------------------------
+	// Constructor
+	//-------------------------------------------------------------------------
+
+	/**
+	 * Creates a QueueSaver for the instructors of a QueueLibrary. Anything still
+	 * unsaved when the application exits is written on the way out.
+	 *
+	 * @param qLibrary The QueueLibrary whose instructors are saved.
+	 */
+	public QueueSaver(QueueLibrary qLibrary) {
+		this.qLibrary = qLibrary;
+		writer = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+			public Thread newThread(Runnable r) {
+				Thread thread = new Thread(r, "QueueSaver");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+
+		Runtime.getRuntime().addShutdownHook(new Thread("QueueSaver-Exit") {
+			public void run() {
+				saveDirtyInstructors();
+			}
+		});
+	}
+
+	//-------------------------------------------------------------------------
+	// END Constructor
+	//-------------------------------------------------------------------------
+
+
+	//-------------------------------------------------------------------------
+	// Saving
+	//-------------------------------------------------------------------------
+
+	/**
+	 * Asks for the dirty instructors to be saved once there have been no further
+	 * requests for QUIET_TIME. Returns immediately.
+	 */
+	public synchronized void schedule() {
+		if(pendingSave != null) pendingSave.cancel(false);
+		pendingSave = writer.schedule(new Runnable() {
+			public void run() {
+				saveDirtyInstructors();
+			}
+		}, QUIET_TIME, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Saves the dirty instructors right away, and returns once they have been written.
+	 */
+	public void flush() {
+		synchronized(this) {
+			if(pendingSave != null) pendingSave.cancel(false);
+			pendingSave = null;
+		}
+		saveDirtyInstructors();
+	}
+
+	//-------------------------------------------------------------------------
+	// END Saving
+	//-------------------------------------------------------------------------
+
+
+	//-------------------------------------------------------------------------
+	// Private Methods
+	//-------------------------------------------------------------------------
+
+	/*
+	 * Writes every instructor that has changed since it was last saved. An instructor
+	 * may be changed on the event thread while it is being written; if that trips up
+	 * the writing, it is left dirty and tried again after the next quiet period.
+	 */
+	private void saveDirtyInstructors() {
+		synchronized(writeLock) {
+			boolean saved = false;
+			Vector instructors = new Vector(qLibrary.getInstructors());
+			for(int i=0; i<instructors.size(); i++) {
+				InstructorQueue instructor = (InstructorQueue)instructors.get(i);
+				if(!instructor.isDirty()) continue;
+
+				try {
+					if(instructor.toXML()) {
+						saved = true;
+						Logger.log(Logger.INFO, "QueueSaver: Saved changes made to instructor " + instructor.getInstructorName());
+					}
+					else {
+						// It is still dirty; try again after the next quiet period.
+						schedule();
+						Logger.log(Logger.ERROR, "QueueSaver: Unable to save instructor " + instructor.getInstructorName() + ", will try again");
+					}
+				} catch (RuntimeException e) {
+					instructor.markDirty();
+					schedule();
+					Logger.log(Logger.ERROR, "QueueSaver: Unable to save instructor " + instructor.getInstructorName() + ": " + e);
+				}
+			}
+
+			// Keep the snapshot in step with the files, so the next start up can use it.
+			qLibrary.saveSnapshot(saved);
+		}
+	}
+
+	//-------------------------------------------------------------------------
+	// END Private Methods
+	//-------------------------------------------------------------------------
+
+}
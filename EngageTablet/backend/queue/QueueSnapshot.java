@@ -0,0 +1,517 @@
+package backend.queue;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Vector;
+
+import main.Logger;
+import backend.library.MediaFile;
+import backend.library.MediaLibrary;
+
+/**
+ * The QueueSnapshot keeps a compact binary copy of every instructor's queues, so that
+ * the next start up does not have to parse every instructor's XML file. The XML files
+ * are still what is saved and what counts; the snapshot is only ever a faster way of
+ * reading them, and it is safe to delete.
+ *
+ * Every name and media path is kept once in a table of strings, and the programs,
+ * stations and groups refer to them by number, so a media path that is in a hundred
+ * groups is only stored (and looked up in the library) once. Numbers are written as
+ * varints (seven bits to a byte), which keeps most of them to a single byte.
+ *
+ * The snapshot remembers the size and modification date of each instructor's XML file
+ * as it was when the snapshot was written. An instructor whose file has changed since
+ * (or who is not in the snapshot at all) is read from the XML instead, and is the only
+ * kind of instructor written afresh when the snapshot is saved again.
+ *
+ * The snapshot is read into memory in one go rather than mapped, so that the file is
+ * not held open and can be replaced on every system.
+ */
+public class QueueSnapshot {
+
+	//-------------------------------------------------------------------------
+	// Constants
+	//-------------------------------------------------------------------------
+
+	// Starts every snapshot file.
+	static private final int MAGIC = 0x456e5153;
+
+	// Changed whenever the layout of the snapshot changes, so old files are ignored.
+	static private final int VERSION = 1;
+
+	static private final Charset UTF8 = Charset.forName("UTF-8");
+
+	//-------------------------------------------------------------------------
+	// END Constants
+	//-------------------------------------------------------------------------
+
+
+	//-------------------------------------------------------------------------
+	// Private Fields
+	//-------------------------------------------------------------------------
+
+	private File snapshotFile;		// Where the snapshot is kept between runs.
+
+	// The snapshot that was loaded, or null once we are done with it.
+	private ByteBuffer buffer;
+
+	// Where each string in the table starts in the buffer. Strings are only decoded when used.
+	private int[] stringOffsets;
+	private String[] strings;
+
+	// The MediaFile for each string that has been used as a media path.
+	private MediaFile[] mediaFiles;
+	private boolean[] resolved;
+
+	// The instructors in the snapshot that was loaded, by name.
+	private HashMap<String, Record> records = new HashMap<String, Record>();
+
+	//-------------------------------------------------------------------------
+	// END Private Fields
+	//-------------------------------------------------------------------------
+
+
+	//-------------------------------------------------------------------------
+	// Constructor
+	//-------------------------------------------------------------------------
+
+	/**
+	 * Creates a snapshot that is read from and saved to the given file.
+	 *
+	 * @param snapshotFile The file the snapshot is kept in.
+	 */
+	public QueueSnapshot(File snapshotFile) {
+		this.snapshotFile = snapshotFile;
+	}
+
+	//-------------------------------------------------------------------------
+	// END Constructor
+	//-------------------------------------------------------------------------
+
+
+	//-------------------------------------------------------------------------
+	// Snapshot Methods
+	//-------------------------------------------------------------------------
+
+	/**
+	 * Reads the snapshot saved by the last run into memory, along with its table of
+	 * contents. If there is no snapshot, or it cannot be read, every instructor will be
+	 * read from XML.
+	 */
+	synchronized void load() {
+		release();
+		if(!snapshotFile.isFile()) return;
+
+		FileInputStream in = null;
+		try {
+			in = new FileInputStream(snapshotFile);
+			FileChannel channel = in.getChannel();
+			buffer = ByteBuffer.allocate((int)channel.size());
+			while(buffer.hasRemaining() && channel.read(buffer) >= 0);
+			buffer.flip();
+			if(buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+				release();
+				return;
+			}
+
+			int count = readVarint();
+			stringOffsets = new int[count];
+			strings = new String[count];
+			mediaFiles = new MediaFile[count];
+			resolved = new boolean[count];
+			for(int s=0; s<count; s++) {
+				stringOffsets[s] = buffer.position();
+				int length = readVarint();
+				buffer.position(buffer.position() + length);
+			}
+
+			int instructors = readVarint();
+			for(int i=0; i<instructors; i++) {
+				String name = readString();
+				Record record = new Record(buffer.getLong(), buffer.getLong());
+				int length = readVarint();
+				record.offset = buffer.position();
+				buffer.position(record.offset + length);
+				records.put(name, record);
+			}
+		} catch (IOException e) {
+			Logger.log(Logger.ERROR, "QueueSnapshot: Unable to read \""+snapshotFile.getPath()+"\", instructors will be read from XML.");
+			release();
+		} catch (RuntimeException e) {
+			// A truncated or damaged file runs off the end of the buffer somewhere.
+			Logger.log(Logger.ERROR, "QueueSnapshot: \""+snapshotFile.getPath()+"\" is damaged, instructors will be read from XML.");
+			release();
+		} finally {
+			close(in);
+		}
+	}
+
+	/**
+	 * Reads an instructor's programs from the snapshot, provided their XML file has not
+	 * changed since the snapshot was saved.
+	 *
+	 * @param profile The instructor's XML file.
+	 * @param path The path to the folder which holds instructor XML files.
+	 * @param library The MediaLibrary the media paths refer to.
+	 * @param qLibrary The QueueLibrary that manages the queues that are read.
+	 * @return The instructor's ProgramQueues, or null if they must be read from the XML.
+	 */
+	synchronized Vector<ProgramQueue> read(File profile, String path, MediaLibrary library, QueueLibrary qLibrary) {
+		String name = profile.getName();
+		Record record = records.get(name.substring(0, name.length()-4));
+		if(buffer == null || record == null) return null;
+		if(record.length != profile.length() || record.modified != profile.lastModified()) return null;
+
+		try {
+			buffer.position(record.offset);
+			Vector<ProgramQueue> programs = new Vector<ProgramQueue>();
+			for(int p=readVarint(); p>0; p--) {
+				ProgramQueue program = new ProgramQueue(path, library, qLibrary, readStringNumber());
+				for(int s=readVarint(); s>0; s--) {
+					StationQueue station = new StationQueue(path, library, qLibrary, readStringNumber());
+					for(int g=readVarint(); g>0; g--) {
+						GroupQueue group = new GroupQueue(path, library, qLibrary, readStringNumber());
+						Vector<MediaFile> files = group.getMediaFiles();
+						for(int f=readVarint(); f>0; f--) {
+							// Paths that no longer exist in the library are left out.
+							MediaFile file = getMediaFile(readVarint(), library);
+							if(file != null) files.add(file);
+						}
+						station.addInitialGroupQueue(group);
+					}
+					program.addStationQueue(station);
+				}
+				programs.add(program);
+			}
+			return programs;
+		} catch (RuntimeException e) {
+			Logger.log(Logger.ERROR, "QueueSnapshot: Unable to read instructor "+name+" from the snapshot: "+e);
+			return null;
+		}
+	}
+
+	/**
+	 * Saves a snapshot of the instructors whose XML files are up to date. Only the
+	 * loaded instructors whose files are newer than the snapshot that was loaded (or
+	 * who are not in it) are written from their queues; everyone else is copied over
+	 * from the snapshot that was loaded, as long as their files have not changed.
+	 * Instructors with unsaved changes are not written, so they are only in the new 
+	 * snapshot as their files still have them. The new snapshot is then loaded in 
+	 * place of the old one.
+	 *
+	 * @param instructors The InstructorQueues that are loaded.
+	 * @param path The path to the folder which holds instructor XML files.
+	 */
+	synchronized void save(Vector instructors, String path) {
+		long startTime = System.currentTimeMillis();
+		HashMap<String, Integer> table = new HashMap<String, Integer>();
+		ArrayList<String> tableStrings = new ArrayList<String>();
+
+		// Write each instructor on its own first, filling in the table of strings as we go.
+		ArrayList<String> names = new ArrayList<String>();
+		ArrayList<File> profiles = new ArrayList<File>();
+		ArrayList<byte[]> bodies = new ArrayList<byte[]>();
+		for(int i=0; i<instructors.size(); i++) {
+			InstructorQueue instructor = (InstructorQueue)instructors.get(i);
+			File profile = new File(path, instructor.getInstructorName() + ".xml");
+			if(instructor.isDirty() || !profile.isFile()) continue;
+
+			// The old snapshot is still right about them; they are copied from it below.
+			Record old = (buffer == null) ? null : records.get(instructor.getInstructorName());
+			if(old != null && old.length == profile.length() && old.modified == profile.lastModified()) continue;
+
+			try {
+				ByteArrayOutputStream body = new ByteArrayOutputStream();
+				writeInstructor(instructor, body, table, tableStrings);
+
+				// It was changed while we were writing it.
+				if(instructor.isDirty()) continue;
+
+				names.add(instructor.getInstructorName());
+				profiles.add(profile);
+				bodies.add(body.toByteArray());
+			} catch (Exception e) {
+				// It was changed under us on the event thread; it is read from XML next time.
+				Logger.log(Logger.INFO, "QueueSnapshot: Left instructor " + instructor.getInstructorName() + " out of the snapshot");
+			}
+		}
+
+		int fresh = names.size();
+
+		// Everyone else comes from the old snapshot, if it is still right about them.
+		Iterator<Map.Entry<String, Record>> others = records.entrySet().iterator();
+		while(buffer != null && others.hasNext()) {
+			Map.Entry<String, Record> old = others.next();
+			File profile = new File(path, old.getKey() + ".xml");
+			if(names.contains(old.getKey())) continue;
+			if(old.getValue().length != profile.length() || old.getValue().modified != profile.lastModified()) continue;
+
+			try {
+				ByteArrayOutputStream body = new ByteArrayOutputStream();
+				copyInstructor(old.getValue(), body, table, tableStrings);
+				names.add(old.getKey());
+				profiles.add(profile);
+				bodies.add(body.toByteArray());
+			} catch (Exception e) {
+				Logger.log(Logger.ERROR, "QueueSnapshot: Unable to copy instructor " + old.getKey() + " from the old snapshot: " + e);
+			}
+		}
+
+		File parent = snapshotFile.getAbsoluteFile().getParentFile();
+		if(parent != null && !parent.isDirectory() && !parent.mkdirs()) return;
+
+		// Write to a temporary file first so a crash never leaves a truncated snapshot behind.
+		File temp = new File(snapshotFile.getPath()+".tmp");
+		DataOutputStream out = null;
+		try {
+			out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)));
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+
+			writeVarint(out, tableStrings.size());
+			for(int s=0; s<tableStrings.size(); s++) {
+				byte[] bytes = tableStrings.get(s).getBytes(UTF8);
+				writeVarint(out, bytes.length);
+				out.write(bytes);
+			}
+
+			writeVarint(out, names.size());
+			for(int i=0; i<names.size(); i++) {
+				byte[] name = names.get(i).getBytes(UTF8);
+				writeVarint(out, name.length);
+				out.write(name);
+				out.writeLong(profiles.get(i).length());
+				out.writeLong(profiles.get(i).lastModified());
+				writeVarint(out, bodies.get(i).length);
+				out.write(bodies.get(i));
+			}
+			out.close();
+			out = null;
+
+			try {
+				Files.move(temp.toPath(), snapshotFile.toPath(), 
+						StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(temp.toPath(), snapshotFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+			Logger.log(Logger.INFO, "QueueSnapshot: Saved "+names.size()+" instructors ("+fresh+" of them afresh) and "
+					+tableStrings.size()+" strings in "+(System.currentTimeMillis()-startTime)+" ms.");
+		} catch (IOException e) {
+			Logger.log(Logger.ERROR, "QueueSnapshot: Unable to save \""+snapshotFile.getPath()+"\": "+e.getMessage());
+		} finally {
+			close(out);
+		}
+		temp.delete();
+
+		// Instructors that are not loaded yet are read from whichever snapshot is there now.
+		load();
+	}
+
+	//-------------------------------------------------------------------------
+	// END Snapshot Methods
+	//-------------------------------------------------------------------------
+
+
+	//-------------------------------------------------------------------------
+	// Private Methods and Classes
+	//-------------------------------------------------------------------------
+
+	/*
+	 * Writes the programs of an instructor, with every name and path replaced by its
+	 * number in the table of strings.
+	 */
+	private static void writeInstructor(InstructorQueue instructor, OutputStream out,
+			HashMap<String, Integer> table, ArrayList<String> tableStrings) throws IOException {
+		Vector programs = instructor.getPrograms();
+		writeVarint(out, programs.size());
+		for(int p=0; p<programs.size(); p++) {
+			ProgramQueue program = (ProgramQueue)programs.get(p);
+			writeVarint(out, intern(program.getProgramName(), table, tableStrings));
+
+			Vector stations = program.getStations();
+			writeVarint(out, stations.size());
+			for(int s=0; s<stations.size(); s++) {
+				StationQueue station = (StationQueue)stations.get(s);
+				writeVarint(out, intern(station.getStationName(), table, tableStrings));
+
+				Vector groups = station.getGroups();
+				writeVarint(out, groups.size());
+				for(int g=0; g<groups.size(); g++) {
+					GroupQueue group = (GroupQueue)groups.get(g);
+					writeVarint(out, intern(group.getGroupName(), table, tableStrings));
+
+					Vector files = group.getMediaFiles();
+					writeVarint(out, files.size());
+					for(int f=0; f<files.size(); f++)
+						writeVarint(out, intern(((MediaFile)files.get(f)).getPath(), table, tableStrings));
+				}
+			}
+		}
+	}
+
+	/*
+	 * Lets go of the snapshot that was loaded.
+	 */
+	private void release() {
+		buffer = null;
+		stringOffsets = null;
+		strings = null;
+		mediaFiles = null;
+		resolved = null;
+		records.clear();
+	}
+
+	/*
+	 * Copies the programs of an instructor from the snapshot that was loaded, giving
+	 * each name and path its number in the new table of strings.
+	 */
+	private void copyInstructor(Record record, OutputStream out,
+			HashMap<String, Integer> table, ArrayList<String> tableStrings) throws IOException {
+		buffer.position(record.offset);
+		int programs = readVarint();
+		writeVarint(out, programs);
+		for(int p=0; p<programs; p++) {
+			writeVarint(out, intern(readStringNumber(), table, tableStrings));
+
+			int stations = readVarint();
+			writeVarint(out, stations);
+			for(int s=0; s<stations; s++) {
+				writeVarint(out, intern(readStringNumber(), table, tableStrings));
+
+				int groups = readVarint();
+				writeVarint(out, groups);
+				for(int g=0; g<groups; g++) {
+					writeVarint(out, intern(readStringNumber(), table, tableStrings));
+
+					int files = readVarint();
+					writeVarint(out, files);
+					for(int f=0; f<files; f++) writeVarint(out, intern(readStringNumber(), table, tableStrings));
+				}
+			}
+		}
+	}
+
+	/*
+	 * Returns the number of a string in the table, adding it if it is not there yet.
+	 */
+	private static int intern(String string, HashMap<String, Integer> table, ArrayList<String> tableStrings) {
+		Integer number = table.get(string);
+		if(number == null) {
+			number = Integer.valueOf(tableStrings.size());
+			table.put(string, number);
+			tableStrings.add(string);
+		}
+		return number.intValue();
+	}
+
+	/*
+	 * Returns the MediaFile for a media path in the table, looking it up the first time.
+	 */
+	private MediaFile getMediaFile(int number, MediaLibrary library) {
+		if(!resolved[number]) {
+			mediaFiles[number] = library.getMediaFile(getString(number));
+			resolved[number] = true;
+		}
+		return mediaFiles[number];
+	}
+
+	/*
+	 * Returns a string from the table, decoding it the first time.
+	 */
+	private String getString(int number) {
+		if(strings[number] == null) {
+			int position = buffer.position();
+			buffer.position(stringOffsets[number]);
+			strings[number] = readString();
+			buffer.position(position);
+		}
+		return strings[number];
+	}
+
+	/*
+	 * Reads a string by its number in the table.
+	 */
+	private String readStringNumber() {
+		return getString(readVarint());
+	}
+
+	/*
+	 * Reads a string written as its length followed by its UTF-8 bytes.
+	 */
+	private String readString() {
+		byte[] bytes = new byte[readVarint()];
+		buffer.get(bytes);
+		return new String(bytes, UTF8);
+	}
+
+	/*
+	 * Reads a number written by writeVarint.
+	 */
+	private int readVarint() {
+		int value = 0;
+		for(int shift=0; shift<32; shift+=7) {
+			byte b = buffer.get();
+			value |= (b & 0x7f) << shift;
+			if(b >= 0) return value;
+		}
+		throw new BufferUnderflowException();
+	}
+
+	/*
+	 * Writes a number seven bits at a time, lowest first, with the top bit of each
+	 * byte set if there is more to come.
+	 */
+	private static void writeVarint(OutputStream out, int value) throws IOException {
+		while((value & ~0x7f) != 0) {
+			out.write((value & 0x7f) | 0x80);
+			value >>>= 7;
+		}
+		out.write(value);
+	}
+
+	/*
+	 * Closes a stream, ignoring any errors.
+	 */
+	private static void close(Closeable stream) {
+		if(stream == null) return;
+		try { stream.close(); } catch (IOException e) {}
+	}
+
+	/*
+	 * An instructor in the snapshot: what their XML file was like when it was written,
+	 * and where their programs start.
+	 */
+	private static class Record {
+		long length;
+		long modified;
+		int offset;
+
+		Record(long length, long modified) {
+			this.length = length;
+			this.modified = modified;
+		}
+	}
+
+	//-------------------------------------------------------------------------
+	// END Private Methods and Classes
+	//-------------------------------------------------------------------------
+
+}
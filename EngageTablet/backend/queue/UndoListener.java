@@ -0,0 +1,20 @@
+package backend.queue;
+
+/**
+ * An UndoListener is told whenever what the current instructor can undo or redo may
+ * have changed, so that the controls for undoing and redoing can be enabled or not.
+ * It is called on the thread that made the change, which is the event dispatch thread
+ * for everything the instructor does.
+ */
+public interface UndoListener {
+
+	/**
+	 * Called when an edit has been made, undone or redone, or when what could be
+	 * undone has been forgotten.
+	 *
+	 * @param canUndo true if there is an edit the current instructor can undo.
+	 * @param canRedo true if there is an edit the current instructor can redo.
+	 */
+	public void undoChanged(boolean canUndo, boolean canRedo);
+
+}
@@ -0,0 +1,39 @@
+package backend.queue;
+
+/**
+ * Converts the names and paths kept in an instructor's XML file to the text that is
+ * actually written, so that a group called "Birds & Bees" or "<new>" is read back
+ * exactly as it was saved (the InstructorReader's XML parser turns the entities back
+ * into characters).
+ */
+class XMLText {
+
+	/**
+	 * Replaces the characters that have a meaning in XML with their entities.
+	 *
+	 * @param text The text to write.
+	 * @return The text, safe to put between two tags.
+	 */
+	static String escape(String text) {
+		StringBuilder escaped = null;
+		for(int i=0; i<text.length(); i++) {
+			String entity;
+			switch(text.charAt(i)) {
+				case '&':  entity = "&amp;";  break;
+				case '<':  entity = "&lt;";   break;
+				case '>':  entity = "&gt;";   break;
+				case '"':  entity = "&quot;"; break;
+				case '\'': entity = "&apos;"; break;
+				default:   entity = null;
+			}
+
+			// Most text has nothing to escape, so only make a copy once we find something.
+			if(entity != null && escaped == null) escaped = new StringBuilder(text.substring(0, i));
+			if(escaped == null) continue;
+			if(entity != null) escaped.append(entity);
+			else escaped.append(text.charAt(i));
+		}
+		return (escaped == null) ? text : escaped.toString();
+	}
+
+}
@@ -0,0 +1,131 @@
+package benchmark;
+
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
+import java.io.File;
+
+import javax.imageio.ImageIO;
+import javax.swing.ImageIcon;
+
+import main.Constants;
+import backend.library.ImageDecoder;
+
+/**
+ * The RenderBenchmark measures how long it takes to draw one image at the central and
+ * thumbnail sizes, in each of the forms the image pipeline has produced: a Toolkit
+ * image scaled with getScaledInstance, an image as ImageIO reads it back from the
+ * DiskImageCache, and the same image after ImageDecoder.toCompatible. It draws onto
+ * a VolatileImage when there is a screen (as Swing's back buffer is), and onto a plain
+ * image when there is not.
+ *
+ * It is not part of the application; it lives apart from it so that it is never
+ * shipped along with it.
+ *
+ * Usage: java benchmark.RenderBenchmark &lt;image file&gt; [draws]
+ */
+public class RenderBenchmark {
+
+	// How many times each image is drawn, unless told otherwise.
+	private static final int DEFAULT_DRAWS = 1000;
+
+	/**
+	 * Runs the benchmark and prints the average cost of a draw for each form.
+	 *
+	 * @param args The image file to draw, and optionally the number of draws.
+	 */
+	public static void main(String[] args) throws Exception {
+		if(args.length < 1) {
+			System.out.println("Usage: java benchmark.RenderBenchmark <image file> [draws]");
+			return;
+		}
+		File file = new File(args[0]);
+		int draws = (args.length > 1) ? Integer.parseInt(args[1]) : DEFAULT_DRAWS;
+
+		GraphicsConfiguration screen = null;
+		if(!GraphicsEnvironment.isHeadless())
+			screen = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration();
+		System.out.println("Drawing "+file.getName()+" "+draws+" times onto "+((screen == null) ? "a BufferedImage (no screen)" : "a VolatileImage"));
+
+		benchmark("Central", file, Constants.CENTER_SIZE, screen, draws);
+		benchmark("Thumbnail", file, Constants.THUMB_SIZE, screen, draws);
+	}
+
+	/*
+	 * Makes each form of one rendition of the image and times drawing it.
+	 */
+	private static void benchmark(String name, File file, Dimension box, GraphicsConfiguration screen, int draws) throws Exception {
+		BufferedImage decoded = ImageDecoder.decode(file, box);
+		if(decoded == null) {
+			System.out.println("ImageIO cannot decode "+file);
+			return;
+		}
+
+		// What the Toolkit path in MediaFile produces (ImageIcon waits for it to load).
+		Image original = new ImageIcon(file.getAbsolutePath()).getImage();
+		Image toolkit = new ImageIcon(original.getScaledInstance(decoded.getWidth(), decoded.getHeight(), Image.SCALE_FAST)).getImage();
+
+		// What the DiskImageCache reads back.
+		File temp = File.createTempFile("RenderBenchmark", ".jpg");
+		ImageIO.write(decoded, "jpg", temp);
+		BufferedImage cached = ImageIO.read(temp);
+		temp.delete();
+
+		Image compatible = ImageDecoder.toCompatible(cached);
+
+		System.out.println(name+" ("+decoded.getWidth()+"x"+decoded.getHeight()+"):");
+		System.out.println("  Toolkit scaled:   "+time(toolkit, screen, draws)+" us");
+		System.out.println("  Disk cache (" + describe(cached) + "): "+time(cached, screen, draws)+" us");
+		System.out.println("  Compatible (" + describe(compatible) + "): "+time(compatible, screen, draws)+" us");
+	}
+
+	/*
+	 * Returns the average time, in microseconds, of drawing an image onto a target the
+	 * size of the stage. The first draws are not counted, so that Java2D has had the
+	 * chance to move the image into video memory. A pixel of the target is read back
+	 * before the clock is stopped, since an accelerated pipeline may not have finished
+	 * drawing until something asks for the result.
+	 */
+	private static String time(Image image, GraphicsConfiguration screen, int draws) {
+		int width = Constants.CENTER_SIZE.width;
+		int height = Constants.CENTER_SIZE.height;
+		VolatileImage volatileTarget = (screen == null) ? null : screen.createCompatibleVolatileImage(width, height);
+		BufferedImage bufferedTarget = (screen == null) ? new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB) : null;
+
+		long start = 0;
+		for(int i = -draws/10; i < draws; i++) {
+			if(i == 0) start = System.nanoTime();
+			if(volatileTarget != null && volatileTarget.validate(screen) == VolatileImage.IMAGE_INCOMPATIBLE)
+				volatileTarget = screen.createCompatibleVolatileImage(width, height);
+
+			Graphics2D g = (volatileTarget != null) ? volatileTarget.createGraphics() : bufferedTarget.createGraphics();
+			g.drawImage(image, 0, 0, null);
+			g.dispose();
+		}
+		if(volatileTarget != null) volatileTarget.getSnapshot().getRGB(0, 0);
+		else bufferedTarget.getRGB(0, 0);
+		long elapsed = System.nanoTime() - start;
+
+		return String.valueOf(Math.round(elapsed / 1000.0 / draws * 10) / 10.0);
+	}
+
+	/*
+	 * Returns a short description of the pixel format of an image.
+	 */
+	private static String describe(Image image) {
+		if(!(image instanceof BufferedImage)) return image.getClass().getSimpleName();
+		switch(((BufferedImage)image).getType()) {
+			case BufferedImage.TYPE_INT_RGB:		return "int RGB";
+			case BufferedImage.TYPE_INT_ARGB:		return "int ARGB";
+			case BufferedImage.TYPE_INT_ARGB_PRE:	return "int ARGB pre";
+			case BufferedImage.TYPE_3BYTE_BGR:		return "3 byte BGR";
+			case BufferedImage.TYPE_CUSTOM:			return "custom";
+			default:								return "type "+((BufferedImage)image).getType();
+		}
+	}
+
+}
@@ -42,6 +42,7 @@ public class Constants {
 	static private final int NAVBAR_HEIGHT = 40; 
 	static private final int LOGOUT_BUTTON_WIDTH = 125;
 	static private final int STATION_DROP_DOWN_WIDTH = 300;
+	static private final int UNDO_BUTTON_WIDTH = 80;
 	static private final int LIBRARY_TOGGLE_BUTTON_WIDTH = 225;
 	
 	static private final int QUEUE_HEIGHT = 207;
@@ -76,6 +77,25 @@ public class Constants {
 	 */
 	static public final boolean PRELOAD_ENTIRE_PROGRAM = true;
 	
+	/**
+	 * The number of images after the one selected in a queue whose central images
+	 * are loaded in the background, so that stepping forward never waits on them.
+	 */
+	static public final int LOOKAHEAD_NEXT = 3;
+	
+	/**
+	 * The number of images before the one selected in a queue whose central images
+	 * are loaded in the background, so that stepping backward never waits on them.
+	 */
+	static public final int LOOKAHEAD_PREVIOUS = 1;
+	
+	/**
+	 * The number of station media libraries that are kept once built, including the
+	 * one being shown and the ones next to it in the station drop down (which are built
+	 * ahead of time). Switching to a station whose library is kept is instant.
+	 */
+	static public final int LIBRARY_VIEWS_KEPT = 5;
+	
 	//-------------------------------------------------------------------------
 	// END Modifiable Size Constants
 	//-------------------------------------------------------------------------
@@ -173,12 +193,28 @@ public class Constants {
 											(STATION_DROP_DOWN_WIDTH), 
 											NAVBAR_HEIGHT);
 
+	/**
+	 * The area used by the undo button, just after the station drop down.
+	 */
+	static public final Rectangle UNDO_BUTTON_AREA = new Rectangle(LOGOUT_BUTTON_WIDTH+STATION_DROP_DOWN_WIDTH,
+											0,
+											UNDO_BUTTON_WIDTH,
+											NAVBAR_HEIGHT);
+
+	/**
+	 * The area used by the redo button, just after the undo button.
+	 */
+	static public final Rectangle REDO_BUTTON_AREA = new Rectangle(LOGOUT_BUTTON_WIDTH+STATION_DROP_DOWN_WIDTH+UNDO_BUTTON_WIDTH,
+											0,
+											UNDO_BUTTON_WIDTH,
+											NAVBAR_HEIGHT);
+
 	/** 
-	 * The area between the station drop down and the library toggle where we draw a pretty picture.
+	 * The area between the redo button and the library toggle where we draw a pretty picture.
 	 */
-	static public final Rectangle NAVBAR_HEADER_AREA = new Rectangle(LOGOUT_BUTTON_WIDTH+STATION_DROP_DOWN_WIDTH,
+	static public final Rectangle NAVBAR_HEADER_AREA = new Rectangle(LOGOUT_BUTTON_WIDTH+STATION_DROP_DOWN_WIDTH+2*UNDO_BUTTON_WIDTH,
 											0,
-											(SCREEN_WIDTH - (LOGOUT_BUTTON_WIDTH+STATION_DROP_DOWN_WIDTH+LIBRARY_TOGGLE_BUTTON_WIDTH)),
+											(SCREEN_WIDTH - (LOGOUT_BUTTON_WIDTH+STATION_DROP_DOWN_WIDTH+2*UNDO_BUTTON_WIDTH+LIBRARY_TOGGLE_BUTTON_WIDTH)),
 											NAVBAR_HEIGHT);
 
 	/**
@@ -1,447 +1,711 @@
-package main;
-
-import java.awt.Container;
-import java.awt.Cursor;
-import java.awt.Image;
-import java.awt.Point;
-import java.awt.Toolkit;
-import java.awt.event.WindowEvent;
-import java.awt.event.WindowListener;
-import java.util.Iterator;
-import java.util.Timer;
-import java.util.TimerTask;
+package main;
+
+import java.awt.Container;
+import java.awt.Cursor;
+import java.awt.Image;
+import java.awt.Point;
+import java.awt.Toolkit;
+import java.awt.event.ActionEvent;
+import java.awt.event.InputEvent;
+import java.awt.event.KeyEvent;
+import java.awt.event.WindowEvent;
+import java.awt.event.WindowListener;
+import java.io.File;
+import java.util.Iterator;
+import java.util.Timer;
+import java.util.TimerTask;
+
+import javax.swing.AbstractAction;
+import javax.swing.InputMap;
+import javax.swing.JComponent;
+import javax.swing.JFrame;
+import javax.swing.JTabbedPane;
+import javax.swing.KeyStroke;
+import javax.swing.SwingUtilities;
+import javax.swing.UIManager;
+
+import ui.DragController;
+import ui.login.LoginScreen;
+import ui.medialibraryview.StationLibraryCache;
+import ui.medialibraryview.StationMediaLibrary;
+import ui.nav.Navbar;
+import ui.queue.MediaStrip;
+import ui.queue.MediaStripCollection;
+import ui.splash.VoyagerSplash;
+import ui.stage.MainStage;
+import backend.config.ConfigReader;
+import backend.library.CategoryMedia;
+import backend.library.DirectoryIndex;
+import backend.library.DiskImageCache;
+import backend.library.ImageMemoryCache;
+import backend.library.LibraryListener;
+import backend.library.MediaFile;
+import backend.library.MediaLibrary;
+import backend.library.PrefetchListener;
+import backend.library.StationMedia;
+import backend.queue.QueueLibrary;
+import backend.queue.QueueSnapshot;
+import backend.queue.StationQueue;
+import backend.queue.UndoListener;
+
+/**
+ * 
+ * @author Carl Angiolillo
+ *
+ */
+public class Engage extends JFrame implements WindowListener, PrefetchListener, LibraryListener, UndoListener{
+	
+	
+	//-------------------------------------------------------------------------
+	// Private Fields
+	//-------------------------------------------------------------------------
+	
+	// The MediaLibrary where the images are stored.
+	private MediaLibrary media;
+	
+	// The QueueLibrary where the instructor queues are stored.
+	private QueueLibrary queues;
+	
+	// Application splash window
+	private VoyagerSplash splash = new VoyagerSplash("ui/splash/vger_splash.png");
+	
+	// Used to fetch and store the name of the instructor and the educational program.
+	private LoginScreen loginScreen;
+	
+	// The navigation bar across the top of the screen
+	private Navbar navbar;
+	
+	// The stage on which we display the main image.
+	private MainStage stage;
+	
+	// The visual library for this station.
+	private StationMediaLibrary stationLibrary;
+	
+	// The visual libraries of the stations shown recently, and of the ones next to this station.
+	private StationLibraryCache libraryViews;
+	
+	// A media strip is a visual display of a queue that an instructor can interact with.
+	private MediaStripCollection strips;
+	
+	// The particular queue that is currently displayed.
+	private JTabbedPane stationStrip;
+	
+	// Moves images that are being dragged, on the glass pane
+	private DragController dragController;
+
+	// Holds all of the user supplied information from the settings file
+	private ConfigReader configReader;
+	
+	// The station whose images are prefetched first, and shown first after login.
+	private String firstStation;
+	
+	// The latest prefetch progress, and whether the splash screen has yet to be told about it.
+	private int prefetchCompleted, prefetchTotal;
+	private boolean prefetchProgressPending = false;
+	private final Object prefetchProgressLock = new Object();
+	
+	//-------------------------------------------------------------------------
+	// END Private Fields
+	//-------------------------------------------------------------------------
+
+	
+	
+	//-------------------------------------------------------------------------
+	// Getters and Setters
+	//-------------------------------------------------------------------------
+	
+	/**
+	 * Gets the strips.
+	 * 
+	 * @return MediaStripCollection all of the media strips (visual image queues)
+	 */
+	public MediaStripCollection getStrips() {return strips;}
+
+	/**
+	 * Gets the strip corresponding to the currently selected station.
+	 * 
+	 * @return MediaStrip the media strip (visual image queue) corresponding to the current station
+	 */
+	public MediaStrip getCurrentStationStrip() {return strips.getStripForStation(navbar.getStation());}
+	
+	/**
+	 * Gets the visual media library for the currently selected station.
+	 * 
+	 * @return StationMediaLibrary the visual media library corresponding to the currently selected station
+	 */
+	public StationMediaLibrary getLibrary() {return stationLibrary;}
+	
+	/**
+	 * Gets the stage with the previous and next buttons and the "Now Showing" image.
+	 * 
+	 * @return MainStage the stage object
+	 */
+	public MainStage getStage() {return stage;}
+	
+	/**
+	 * Gets an iterator of StationMedia from the media library.
+	 * 
+	 * @return an Iterator of StationMedia
+	 */
+	public Iterator getStations(){
+		return media.getProgram(loginScreen.getProgramName()).getStations();
+	}
+
+	//-------------------------------------------------------------------------
+	// Getters and Setters
+	//-------------------------------------------------------------------------
+
+	
+	
+	//-------------------------------------------------------------------------
+	// Constructors
+	//-------------------------------------------------------------------------
+
+	/**
+	 * Constructor for the OnDemandMedia object.
+	 */
+	public Engage(){
+		  
+		// Put up splash screen
+		splash.setText("Please be patient as your curriculum is being prepared");
+		splash.run();
+		
+		
+		//Set up the look and feel (to the default Java L&F) and prepare the window.
+		try { UIManager.setLookAndFeel("javax.swing.plaf.metal.MetalLookAndFeel");
+		} catch (Exception e) {}
+		this.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+		this.setResizable(false);
+		bindUndoKeys();
+		
+		// Loads the queues and the media library.
+		loadData();
+		this.setBounds(Constants.WINDOW_AREA);
+		
+		// Pause for two seconds, then show the login screen and remove the splash
+		try{Thread.sleep(2000);} catch (InterruptedException e){ splash.close(); }
+		presentLoginScreen();
+	}
+
+	//-------------------------------------------------------------------------
+	// END Constructors
+	//-------------------------------------------------------------------------
+
+	
+	
+	//-------------------------------------------------------------------------
+	// Constructor Helper Methods
+	//-------------------------------------------------------------------------
+	
+	/*
+	 * Sets up the application to run on a tablet computer. 
+	 */
+	private void setOnTablet() {
+		Toolkit toolkit = Toolkit.getDefaultToolkit();
+		Image image = toolkit.getImage("img.gif");
+		Cursor emptyCursor = toolkit.createCustomCursor(image , new Point(0,0), "main/emptyCursor.png");
+		this.setCursor(emptyCursor);
+		this.setUndecorated(true);
+	}
+	
+	/*
+	 * Binds Control-Z to undo, and Control-Y and Control-Shift-Z to redo. They are bound 
+	 * to this window only, so the dialogs it opens (such as for renaming a group) keep 
+	 * their own meaning for them.
+	 */
+	private void bindUndoKeys() {
+		InputMap keys = this.getRootPane().getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW);
+		keys.put(KeyStroke.getKeyStroke(KeyEvent.VK_Z, InputEvent.CTRL_DOWN_MASK), "undo");
+		keys.put(KeyStroke.getKeyStroke(KeyEvent.VK_Y, InputEvent.CTRL_DOWN_MASK), "redo");
+		keys.put(KeyStroke.getKeyStroke(KeyEvent.VK_Z, InputEvent.CTRL_DOWN_MASK | InputEvent.SHIFT_DOWN_MASK), "redo");
+		
+		this.getRootPane().getActionMap().put("undo", new AbstractAction() {
+			public void actionPerformed(ActionEvent e) {
+				undo();
+			}
+		});
+		this.getRootPane().getActionMap().put("redo", new AbstractAction() {
+			public void actionPerformed(ActionEvent e) {
+				redo();
+			}
+		});
+	}
+	
+	/*
+	 * Loads the media library and the queue and then creates a login screen.
+	 */
+	private void loadData() {
+		
+		// Load a configuration reader
+		configReader = new ConfigReader("settings.cfg");
+	
+		// Changes settings based on whether or not we are on the tablet
+		if(configReader.isOnTablet()){
+			setOnTablet();
+		}
+		else{
+			Constants.WINDOW_AREA.height += 20;
+		}
+		
+		// Load the media library.
+		media = new MediaLibrary(configReader.getLibraryFolderPath(), 
+								 new DirectoryIndex(new File(configReader.getCacheFolderPath(), "library.idx")));
+		media.setDiskImageCache(new DiskImageCache(configReader.getCacheFolderPath(), configReader.getDiskCacheSize()*1024L*1024L));
+		media.setImageMemoryCache(new ImageMemoryCache(configReader.getImageCacheSize()*1024L*1024L));
+		media.setLibraryListener(this);
+	
+		// Load the instructor queues
+		queues = new QueueLibrary(configReader.getInstructorsFolderPath(), media,
+								  new QueueSnapshot(new File(configReader.getCacheFolderPath(), "queues.snap")));
+		queues.setUndoListener(this);
+		
+		// Load the login screen, set password and add a window listener.
+		loginScreen = new LoginScreen(queues, media.getPrograms());
+		loginScreen.setPassword(configReader.getPassword());
+		loginScreen.addWindowListener(this);
+	}
+
+	/**
+	 * Presents the user with a login screen. Waits until a user logs in before
+	 * continuing.
+	 */
+	public void presentLoginScreen() {
+
+		// This is also how an instructor logs out, so write out any of their changes 
+		// that are still waiting to be saved.
+		queues.flush();
+		
+		// The libraries of the last session are built again for the next one.
+		if(libraryViews != null) {
+			libraryViews.dispose();
+			libraryViews = null;
+		}
+		
+		// Note how well the central images fit in memory during the last session.
+		Logger.log(Logger.INFO, media.getImageMemoryCache().toString());
+		
+		loginScreen.showLoginScreen();
+		
+		//FIXME Splash problems
+		// Animation here works just fine, even if we sleep...
+		//splash.setAnimated("ui/splash/anim.gif");
+		//try{Thread.sleep(6000);} 
+		//catch (InterruptedException e1){}
+		
+	}
+	
+	/**
+	 * This method is called when the login screen has finished being called.
+	 * @param e The window event (login window being dismissed) that fired this windowDeactivated call.
+	 */
+	public void windowDeactivated(WindowEvent e) {
+		
+		if(loginScreen.isDone()) this.generateMainScreen();
+			
+	}
+
+	/**
+	 * Initializes the fields that depend on the Login Screen
+	 */
+	private void generateMainScreen(){
+		
+		// Prefetch all images in this program, starting with the station the instructor will 
+		// see first. The rest of the program keeps loading in the background.
+		String programName = loginScreen.getProgramName();
+		Iterator stations = media.getProgram(programName).getStations();
+		firstStation = stations.hasNext() ? ((StationMedia)stations.next()).getName() : null;
+		media.setPrefetchListener(this);
+		media.schedulePrefetch(programName, firstStation, 
+						Constants.WAIT_FOR_THUMB_IMAGE, 
+						Constants.WAIT_FOR_CENTER_IMAGE);
+		
+		// Wait for the images off of the event thread so the splash screen can show our progress.
+		Timer timer = new Timer("LoadTask", true);
+		timer.schedule(new LoadTask(timer), 0);
+	}
+	
+	/*
+	 * Builds the main screen once the images it needs have been prefetched.
+	 */
+	private void showMainScreen(){
+				
+		// Set up the contentPane to add all of the elements to.
+		Container contentPane = this.getContentPane();
+		contentPane.removeAll();
+		contentPane.setLayout(null);
+		
+		// Images that are dragged are drawn over everything else, on the glass pane.
+		dragController = new DragController(this);
+		this.setGlassPane(dragController);
+		
+		navbar = new Navbar(this);
+		navbar.setBounds(Constants.NAVBAR_AREA);
+		contentPane.add(navbar);
+		
+		// Load the viewing stage.
+		stage = new MainStage(this, configReader.getScreen(), loginScreen.isConnectedToScreen());
+		stage.setBounds(Constants.STAGE_AREA);
+		contentPane.add(stage);
+		
+		// Load the visual media library.
+		libraryViews = new StationLibraryCache(this, contentPane, media, Constants.LIBRARY_VIEWS_KEPT);
+		stationLibrary = libraryViews.getView(media.getProgram(loginScreen.getProgramName()),
+												navbar.getStation());
+		showMediaLibrary(false);
+		
+		// Load the strips for this instructor and this educational program.
+		strips = new MediaStripCollection(queues.getStationQueues(loginScreen.getInstructorName(), loginScreen.getProgramName()), 
+										  this);
+		navbar.setUndoEnabled(queues.canUndo(), queues.canRedo());
+		
+		// Add the queue strip to the frame.
+		stationStrip = strips.getStripForStation(navbar.getStation()).getView();
+		stationStrip.setBounds(Constants.QUEUE_AREA);
+		contentPane.add(stationStrip);
+				
+		this.setContentPane(contentPane);
+		this.setVisible(true);
+		
+		splash.close();
+		
+		// Pick up images that are added to the program while we are running.
+		media.watchProgram(loginScreen.getProgramName());
+		
+		prewarmAdjacentStations();
+	}
+	
+	/**
+	 * Called by the prefetch workers each time an image has been loaded, so that
+	 * the splash screen can tell the instructor how far along we are.
+	 * 
+	 * @param completed The number of images that have been prefetched so far.
+	 * @param total The total number of images that are being prefetched.
+	 */
+	public void prefetchProgress(int completed, int total) {
+		
+		// This is called from the worker threads, once per image. Only the latest count
+		// matters, so at most one update waits on the event thread at a time.
+		synchronized(prefetchProgressLock) {
+			prefetchCompleted = completed;
+			prefetchTotal = total;
+			if(prefetchProgressPending) return;
+			prefetchProgressPending = true;
+		}
+		
+		SwingUtilities.invokeLater(new Runnable() {
+			public void run() {
+				int completed, total;
+				synchronized(prefetchProgressLock) {
+					completed = prefetchCompleted;
+					total = prefetchTotal;
+					prefetchProgressPending = false;
+				}
+				splash.setText("Preparing your curriculum ("+completed+" of "+total+" images)");
+			}
+		});
+	}
+	
+	// This inner class waits (in the background) until enough of the program has been 
+	// prefetched, and then builds the main screen on the event thread. If we aren't 
+	// preloading the entire program, only the first station has to be ready.
+	// The timer is only used for this one task, so it is cancelled (and its thread ends)
+	// once the task is done.
+	class LoadTask extends TimerTask {
+		private Timer timer;
+		
+		LoadTask(Timer timer){
+			this.timer = timer;
+		}
+		
+		public void run(){
+			if(Constants.PRELOAD_ENTIRE_PROGRAM) media.waitForPrefetch();
+			else media.waitForPrefetch(firstStation);
+			timer.cancel();
+			
+			SwingUtilities.invokeLater(new Runnable() {
+				public void run() {
+					showMainScreen();
+				}
+			});
+		}
+	}
+	
+	
+	//-------------------------------------------------------------------------
+	// END Constructor Helper Methods
+	//-------------------------------------------------------------------------
+	
+	
+	
+	//-------------------------------------------------------------------------
+	// Main Method
+	//-------------------------------------------------------------------------
+	
+	/**
+	 * This is the main application, which creates an OnDemandMedia frame and 
+	 * displays it.
+	 * 
+	 * @param args ignored
+	 */
+	public static void main(String[] args){
+		new Engage();
+	}
+	
+	//-------------------------------------------------------------------------
+	// END Main Method
+	//-------------------------------------------------------------------------
+
+	
+	//-------------------------------------------------------------------------
+	// Action Methods
+	//-------------------------------------------------------------------------
+	
+	/**
+	 * This occurs when the user clicks on the "Show Media Library" button.
+	 * @param show true if the media library should be visible, false otherwise.
+	 */
+	public void showMediaLibrary(boolean show){
+		stationLibrary.setVisible(show);
+		stage.setVisible(!show);
+	}
+	
+	/**
+	 * This method is called when a user switches to a different station.
+	 * @param newStation The name of the new station to switch to.
+	 */
+	public void switchStation(String newStation){
+		
+		// Refresh the visual library.
+		showStationLibrary(newStation);
+		
+		// Refresh the station queue.
+		this.getContentPane().remove(stationStrip);
+		stationStrip = strips.getStripForStation(newStation).getView();
+		stationStrip.setBounds(Constants.QUEUE_AREA);
+		this.getContentPane().add(stationStrip);
+		stationStrip.revalidate();
+		stationStrip.repaint();
+		
+		prewarmAdjacentStations();
+	}
+	
+	/**
+	 * Undoes the instructor's last change to their queues, and shows the station as
+	 * it is now.
+	 */
+	public void undo(){
+		showStationChange(queues.undo());
+	}
+	
+	/**
+	 * Redoes the change to the queues the instructor last undid, and shows the 
+	 * station as it is now.
+	 */
+	public void redo(){
+		showStationChange(queues.redo());
+	}
+	
+	/**
+	 * Called by the QueueLibrary when what the instructor can undo or redo may have
+	 * changed, so that the undo and redo buttons are only enabled when they would
+	 * do something.
+	 * 
+	 * @param canUndo true if there is a change the instructor can undo.
+	 * @param canRedo true if there is a change the instructor can redo.
+	 */
+	public void undoChanged(boolean canUndo, boolean canRedo) {
+		if(navbar != null) navbar.setUndoEnabled(canUndo, canRedo);
+	}
+	
+	/*
+	 * Rebuilds the strip of a station that has been changed behind its back, putting 
+	 * it on screen if it is the station being shown.
+	 */
+	private void showStationChange(StationQueue station){
+		if(station == null || strips == null) return;
+		MediaStrip strip = strips.rebuildStrip(station);
+		if(strip == null || !station.getStationName().equals(navbar.getStation())) return;
+		
+		this.getContentPane().remove(stationStrip);
+		stationStrip = strip.getView();
+		stationStrip.setBounds(Constants.QUEUE_AREA);
+		this.getContentPane().add(stationStrip);
+		stationStrip.revalidate();
+		stationStrip.repaint();
+	}
+	
+	/*
+	 * Puts the visual library for the given station where the current one was, 
+	 * building it only if it has not been kept.
+	 */
+	private void showStationLibrary(String station){
+		boolean wasVisible = stationLibrary.isVisible();
+		StationMediaLibrary view = libraryViews.getView(media.getProgram(loginScreen.getProgramName()), station);
+		if(view != stationLibrary){
+			stationLibrary.releaseSelection();
+			stationLibrary.setVisible(false);
+		}
+		stationLibrary = view;
+		stationLibrary.setVisible(wasVisible);
+		stationLibrary.revalidate();
+		stationLibrary.repaint();
+	}
+	
+	/*
+	 * Builds the visual libraries of the stations next to this one in the background,
+	 * so that switching to them is instant.
+	 */
+	private void prewarmAdjacentStations(){
+		if(libraryViews == null) return;
+		Iterator<String> i = navbar.getAdjacentStations().iterator();
+		while(i.hasNext()) libraryViews.prewarm(media.getProgram(loginScreen.getProgramName()), i.next());
+	}
+	
+	//-------------------------------------------------------------------------
+	// END Action Methods
+	//-------------------------------------------------------------------------
+	
+	
+	
+	//-------------------------------------------------------------------------
+	// Library Change Methods
+	//-------------------------------------------------------------------------
+	
+	/**
+	 * Called by the library watcher when an image appears in the program. Only the 
+	 * visual library can show it; no queue holds it yet.
+	 * 
+	 * @param file The new MediaFile.
+	 */
+	public void mediaFileAdded(final MediaFile file) {
+		SwingUtilities.invokeLater(new Runnable() {
+			public void run() {
+				if(libraryViews == null) return;
+				Iterator<StationMediaLibrary> i = libraryViews.getViews().iterator();
+				while(i.hasNext()) i.next().mediaFileAdded(file);
+			}
+		});
+	}
+	
+	/**
+	 * Called by the library watcher when an image is removed from the program. It is 
+	 * taken out of the visual library and out of every queue.
+	 * 
+	 * @param file The removed MediaFile.
+	 */
+	public void mediaFileRemoved(final MediaFile file) {
+		SwingUtilities.invokeLater(new Runnable() {
+			public void run() {
+				if(libraryViews != null) {
+					Iterator<StationMediaLibrary> i = libraryViews.getViews().iterator();
+					while(i.hasNext()) i.next().mediaFileRemoved(file);
+				}
+				if(strips != null) strips.mediaFileRemoved(file);
+			}
+		});
+	}
+	
+	/**
+	 * Called by the library watcher when an image in the program is overwritten, so 
+	 * that every thumbnail of it is redrawn.
+	 * 
+	 * @param file The changed MediaFile.
+	 */
+	public void mediaFileChanged(final MediaFile file) {
+		SwingUtilities.invokeLater(new Runnable() {
+			public void run() {
+				if(libraryViews != null) {
+					Iterator<StationMediaLibrary> i = libraryViews.getViews().iterator();
+					while(i.hasNext()) i.next().mediaFileChanged(file);
+				}
+				if(strips != null) strips.mediaFileChanged(file);
+			}
+		});
+	}
+	
+	/**
+	 * Called by the library watcher when a category appears in a station. The visual
+	 * library is laid out in pages of columns, so it is rebuilt if it shows that station.
+	 * 
+	 * @param category The new CategoryMedia.
+	 */
+	public void categoryAdded(CategoryMedia category) {
+		categoryChanged(category);
+	}
+	
+	/**
+	 * Called by the library watcher when a category is removed from a station. The 
+	 * visual library is rebuilt if it shows that station.
+	 * 
+	 * @param category The removed CategoryMedia.
+	 */
+	public void categoryRemoved(CategoryMedia category) {
+		categoryChanged(category);
+	}
+	
+	/*
+	 * Drops the kept visual libraries of the station a category belongs to, and 
+	 * rebuilds the one being shown if it is of that station.
+	 */
+	private void categoryChanged(final CategoryMedia category) {
+		SwingUtilities.invokeLater(new Runnable() {
+			public void run() {
+				if(libraryViews == null) return;
+				StationMedia station = (StationMedia)category.getParent();
+				libraryViews.forget(station);
+				if(stationLibrary.showsStation(station)) showStationLibrary(navbar.getStation());
+			}
+		});
+	}
+	
+	//-------------------------------------------------------------------------
+	// END Library Change Methods
+	//-------------------------------------------------------------------------
+
+	
+	
+	//-------------------------------------------------------------------------
+	// Image Dragging Methods
+	//-------------------------------------------------------------------------
+	
+	/**
+	 * Gets the drag controller, which moves images that are dragged from the media
+	 * library or the strips (visual image queues) and drops them.
+	 * 
+	 * @return DragController the drag controller
+	 */
+	public DragController getDragController() {
+		return dragController;
+	}
+	
+	//-------------------------------------------------------------------------
+	// END Image Dragging Methods
+	//-------------------------------------------------------------------------
+	
+	/** Included only to implement WindowListener interface. Not functional.
+	 * @param arg0 Not used
+	 */
+	public void windowOpened(WindowEvent arg0) {}
+	/** Included only to implement WindowListener interface. Not functional.
+	 * @param arg0 Not used
+	 */
+	public void windowClosing(WindowEvent arg0) {}
+	/** Included only to implement WindowListener interface. Not functional.
+	 * @param arg0 Not used
+	 */
+	public void windowClosed(WindowEvent arg0) {}
+	/** Included only to implement WindowListener interface. Not functional.
+	 * @param arg0 Not used
+	 */
+	public void windowIconified(WindowEvent arg0) {}
+	/** Included only to implement WindowListener interface. Not functional.
+	 * @param arg0 Not used
+	 */
+	public void windowDeiconified(WindowEvent arg0) {}
+	/** Included only to implement WindowListener interface. Not functional.
+	 * @param arg0 Not used
+	 */
+	public void windowActivated(WindowEvent arg0) {}
+	
+}
 
-import javax.swing.JFrame;
-import javax.swing.JTabbedPane;
-import javax.swing.UIManager;
-
-import ui.DraggableImage;
-import ui.login.LoginScreen;
-import ui.medialibraryview.StationMediaLibrary;
-import ui.nav.Navbar;
-import ui.queue.MediaStrip;
-import ui.queue.MediaStripCollection;
-import ui.splash.VoyagerSplash;
-import ui.stage.MainStage;
-import backend.config.ConfigReader;
-import backend.library.MediaFile;
-import backend.library.MediaLibrary;
-import backend.queue.QueueLibrary;
-
-/**
- * 
- * @author Carl Angiolillo
- *
- */
-public class Engage extends JFrame implements WindowListener{
-	
-	
-	//-------------------------------------------------------------------------
-	// Private Fields
-	//-------------------------------------------------------------------------
-	
-	// The MediaLibrary where the images are stored.
-	private MediaLibrary media;
-	
-	// The QueueLibrary where the instructor queues are stored.
-	private QueueLibrary queues;
-	
-	// Application splash window
-	private VoyagerSplash splash = new VoyagerSplash("ui/splash/vger_splash.png");
-	
-	// Used to fetch and store the name of the instructor and the educational program.
-	private LoginScreen loginScreen;
-	
-	// The navigation bar across the top of the screen
-	private Navbar navbar;
-	
-	// The stage on which we display the main image.
-	private MainStage stage;
-	
-	// The visual library for this station.
-	private StationMediaLibrary stationLibrary;
-	
-	// A media strip is a visual display of a queue that an instructor can interact with.
-	private MediaStripCollection strips;
-	
-	// The particular queue that is currently displayed.
-	private JTabbedPane stationStrip;
-	
-	// Used to store an image that's being dragged
-	protected DraggableImage ghostImage;
-
-	// Holds all of the user supplied information from the settings file
-	private ConfigReader configReader;
-	
-	//-------------------------------------------------------------------------
-	// END Private Fields
-	//-------------------------------------------------------------------------
-
-	
-	
-	//-------------------------------------------------------------------------
-	// Getters and Setters
-	//-------------------------------------------------------------------------
-	
-	/**
-	 * Gets the strips.
-	 * 
-	 * @return MediaStripCollection all of the media strips (visual image queues)
-	 */
-	public MediaStripCollection getStrips() {return strips;}
-
-	/**
-	 * Gets the strip corresponding to the currently selected station.
-	 * 
-	 * @return MediaStrip the media strip (visual image queue) corresponding to the current station
-	 */
-	public MediaStrip getCurrentStationStrip() {return strips.getStripForStation(navbar.getStation());}
-	
-	/**
-	 * Gets the visual media library for the currently selected station.
-	 * 
-	 * @return StationMediaLibrary the visual media library corresponding to the currently selected station
-	 */
-	public StationMediaLibrary getLibrary() {return stationLibrary;}
-	
-	/**
-	 * Gets the stage with the previous and next buttons and the "Now Showing" image.
-	 * 
-	 * @return MainStage the stage object
-	 */
-	public MainStage getStage() {return stage;}
-	
-	/**
-	 * Gets an iterator of StationMedia from the media library.
-	 * 
-	 * @return an Iterator of StationMedia
-	 */
-	public Iterator getStations(){
-		return media.getProgram(loginScreen.getProgramName()).getStations();
-	}
-
-	//-------------------------------------------------------------------------
-	// Getters and Setters
-	//-------------------------------------------------------------------------
-
-	
-	
-	//-------------------------------------------------------------------------
-	// Constructors
-	//-------------------------------------------------------------------------
-
-	/**
-	 * Constructor for the OnDemandMedia object.
-	 */
-	public Engage(){
-		  
-		// Put up splash screen
-		splash.setText("Please be patient as your curriculum is being prepared");
-		splash.run();
-		
-		
-		//Set up the look and feel (to the default Java L&F) and prepare the window.
-		try { UIManager.setLookAndFeel("javax.swing.plaf.metal.MetalLookAndFeel");
-		} catch (Exception e) {}
-		this.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-		this.setResizable(false);
-		
-		// Loads the queues and the media library.
-		loadData();
-		this.setBounds(Constants.WINDOW_AREA);
-		
-		// Pause for two seconds, then show the login screen and remove the splash
-		try{Thread.sleep(2000);} catch (InterruptedException e){ splash.close(); }
-		presentLoginScreen();
-	}
-
-	//-------------------------------------------------------------------------
-	// END Constructors
-	//-------------------------------------------------------------------------
-
-	
-	
-	//-------------------------------------------------------------------------
-	// Constructor Helper Methods
-	//-------------------------------------------------------------------------
-	
-	/*
-	 * Sets up the application to run on a tablet computer. 
-	 */
-	private void setOnTablet() {
-		Toolkit toolkit = Toolkit.getDefaultToolkit();
-		Image image = toolkit.getImage("img.gif");
-		Cursor emptyCursor = toolkit.createCustomCursor(image , new Point(0,0), "main/emptyCursor.png");
-		this.setCursor(emptyCursor);
-		this.setUndecorated(true);
-	}
-	
-	/*
-	 * Loads the media library and the queue and then creates a login screen.
-	 */
-	private void loadData() {
-		
-		// Load a configuration reader
-		configReader = new ConfigReader("settings.cfg");
-	
-		// Changes settings based on whether or not we are on the tablet
-		if(configReader.isOnTablet()){
-			setOnTablet();
-		}
-		else{
-			Constants.WINDOW_AREA.height += 20;
-		}
-		
-		// Load the media library.
-		media = new MediaLibrary(configReader.getLibraryFolderPath());
-	
-		// Load the instructor queues
-		queues = new QueueLibrary(configReader.getInstructorsFolderPath(), media);
-		
-		// Load the login screen, set password and add a window listener.
-		loginScreen = new LoginScreen(queues, media.getPrograms());
-		loginScreen.setPassword(configReader.getPassword());
-		loginScreen.addWindowListener(this);
-	}
-
-	/**
-	 * Presents the user with a login screen. Waits until a user logs in before
-	 * continuing.
-	 */
-	public void presentLoginScreen() {
-
-		loginScreen.showLoginScreen();
-		
-		//FIXME Splash problems
-		// Animation here works just fine, even if we sleep...
-		//splash.setAnimated("ui/splash/anim.gif");
-		//try{Thread.sleep(6000);} 
-		//catch (InterruptedException e1){}
-		
-	}
-	
-	/**
-	 * This method is called when the login screen has finished being called.
-	 * @param e The window event (login window being dismissed) that fired this windowDeactivated call.
-	 */
-	public void windowDeactivated(WindowEvent e) {
-		
-		if(loginScreen.isDone()) this.generateMainScreen();
-			
-	}
-
-	/**
-	 * Initializes the fields that depend on the Login Screen
-	 */
-	private void generateMainScreen(){
-		
-		// Prefetch all images in this program.
-		if(Constants.PRELOAD_ENTIRE_PROGRAM){
-			//Timer timer = new Timer();
-			//timer.schedule(new LoadTask(), 0);
-			media.prefetchProgramImages(loginScreen.getProgramName(), 
-							Constants.WAIT_FOR_THUMB_IMAGE, 
-							Constants.WAIT_FOR_CENTER_IMAGE);
-		}
-		
-				
-		// Set up the contentPane to add all of the elements to.
-		Container contentPane = this.getContentPane();
-		contentPane.removeAll();
-		contentPane.setLayout(null);
-		
-		navbar = new Navbar(this);
-		navbar.setBounds(Constants.NAVBAR_AREA);
-		contentPane.add(navbar);
-		
-		// Load the viewing stage.
-		stage = new MainStage(this, configReader.getScreen(), loginScreen.isConnectedToScreen());
-		stage.setBounds(Constants.STAGE_AREA);
-		contentPane.add(stage);
-		
-		// Load the visual media library.
-		stationLibrary = new StationMediaLibrary(this,
-												media.getProgram(loginScreen.getProgramName()),
-												navbar.getStation());
-		stationLibrary.setBounds(Constants.STAGE_AREA);
-		showMediaLibrary(false);
-		contentPane.add(stationLibrary);
-		
-		// Load the strips for this instructor and this educational program.
-		strips = new MediaStripCollection(queues.getStationQueues(loginScreen.getInstructorName(), loginScreen.getProgramName()), 
-										  this);
-		
-		// Add the queue strip to the frame.
-		stationStrip = strips.getStripForStation(navbar.getStation()).getView();
-		stationStrip.setBounds(Constants.QUEUE_AREA);
-		contentPane.add(stationStrip);
-				
-		this.setContentPane(contentPane);
-		this.setVisible(true);
-		
-		splash.close();
-		
-		
-		//If we didn't preload everything, go ahead and load it in the background.
-		if(!Constants.PRELOAD_ENTIRE_PROGRAM){
-			Timer timer = new Timer();
-			timer.schedule(new LoadTask(), 0);
-		}
-	}
-	
-	// This inner class is intended simply to prefetch any remaning images that have 
-	// not already been displayed.
-	class LoadTask extends TimerTask {
-		public void run(){
-			media.prefetchProgramImages(loginScreen.getProgramName(), 
-					Constants.WAIT_FOR_THUMB_IMAGE, 
-					Constants.WAIT_FOR_CENTER_IMAGE);
-		}
-	}
-	
-	
-	//-------------------------------------------------------------------------
-	// END Constructor Helper Methods
-	//-------------------------------------------------------------------------
-	
-	
-	
-	//-------------------------------------------------------------------------
-	// Main Method
-	//-------------------------------------------------------------------------
-	
-	/**
-	 * This is the main application, which creates an OnDemandMedia frame and 
-	 * displays it.
-	 * 
-	 * @param args ignored
-	 */
-	public static void main(String[] args){
-		new Engage();
-	}
-	
-	//-------------------------------------------------------------------------
-	// END Main Method
-	//-------------------------------------------------------------------------
-
-	
-	//-------------------------------------------------------------------------
-	// Action Methods
-	//-------------------------------------------------------------------------
-	
-	/**
-	 * This occurs when the user clicks on the "Show Media Library" button.
-	 * @param show true if the media library should be visible, false otherwise.
-	 */
-	public void showMediaLibrary(boolean show){
-		stationLibrary.setVisible(show);
-		stage.setVisible(!show);
-	}
-	
-	/**
-	 * This method is called when a user switches to a different station.
-	 * @param newStation The name of the new station to switch to.
-	 */
-	public void switchStation(String newStation){
-		
-		// Refresh the visual library.
-		this.getContentPane().remove(stationLibrary);
-		boolean wasVisible = stationLibrary.isVisible();
-		stationLibrary = new StationMediaLibrary(this,
-					media.getProgram(loginScreen.getProgramName()),
-					newStation);
-		stationLibrary.setVisible(wasVisible);
-		stationLibrary.setBounds(Constants.STAGE_AREA);
-		this.getContentPane().add(stationLibrary);
-		stationLibrary.revalidate();
-		stationLibrary.repaint();
-
-		
-		// Refresh the station queue.
-		this.getContentPane().remove(stationStrip);
-		stationStrip = strips.getStripForStation(newStation).getView();
-		stationStrip.setBounds(Constants.QUEUE_AREA);
-		this.getContentPane().add(stationStrip);
-		stationStrip.revalidate();
-		stationStrip.repaint();
-
-	}
-	
-	//-------------------------------------------------------------------------
-	// END Action Methods
-	//-------------------------------------------------------------------------
-
-	
-	
-	//-------------------------------------------------------------------------
-	// Image Dragging Methods
-	//-------------------------------------------------------------------------
-	
-	/**
-	 * Gets the ghosted image for dragging purposes.
-	 * 
-	 * @return DraggableImage the image being dragged
-	 */
-	public DraggableImage getGhostImage() {
-		return ghostImage;
-	}
-	
-	/**
-	 * Spawns a draggable image, for use when the user begins to drag
-	 * an image from the media library or the strips (visual image queues).
-	 * 
-	 * @param mf The MediaFile that the drag initiated
-	 * @param origin The location of the initial drag
-	 */
-	public void spawnDraggableImage(MediaFile mf, Point origin)
-	{
-		ghostImage = new DraggableImage(mf,this);
-		
-		ghostImage.setLocation(origin);
-		ghostImage.setVisible(true);
-
-		this.getContentPane().add(ghostImage);
-		this.getContentPane().setComponentZOrder(ghostImage, 0); //make sure image is ontop
-		this.repaint();
-	}
-	
-	/**
-	 * Releases the image that is being dragged. Used when the user releases the 
-	 * dragged image.
-	 */
-	public void DespawnDraggableImage()
-	{
-		this.getContentPane().remove(ghostImage);
-	}	
-	
-	//-------------------------------------------------------------------------
-	// END Image Dragging Methods
-	//-------------------------------------------------------------------------
-	
-	/** Included only to implement WindowListener interface. Not functional.
-	 * @param arg0 Not used
-	 */
-	public void windowOpened(WindowEvent arg0) {}
-	/** Included only to implement WindowListener interface. Not functional.
-	 * @param arg0 Not used
-	 */
-	public void windowClosing(WindowEvent arg0) {}
-	/** Included only to implement WindowListener interface. Not functional.
-	 * @param arg0 Not used
-	 */
-	public void windowClosed(WindowEvent arg0) {}
-	/** Included only to implement WindowListener interface. Not functional.
-	 * @param arg0 Not used
-	 */
-	public void windowIconified(WindowEvent arg0) {}
-	/** Included only to implement WindowListener interface. Not functional.
-	 * @param arg0 Not used
-	 */
-	public void windowDeiconified(WindowEvent arg0) {}
-	/** Included only to implement WindowListener interface. Not functional.
-	 * @param arg0 Not used
-	 */
-	public void windowActivated(WindowEvent arg0) {}
-	
-}
-
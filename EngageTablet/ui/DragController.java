@@ -0,0 +1,229 @@
+package ui;
+
+import java.awt.AlphaComposite;
+import java.awt.Component;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.Point;
+import java.awt.Rectangle;
+
+import javax.swing.JComponent;
+import javax.swing.JTabbedPane;
+import javax.swing.SwingUtilities;
+
+import main.Constants;
+import main.Engage;
+import ui.queue.MediaStrip;
+import backend.library.MediaFile;
+
+/**
+ * The DragController moves an image that is being dragged from the media library or a
+ * strip (visual image queue) across the screen, and tells the strip it is dragged over
+ * where it is. It is the main window's glass pane: while a drag is going on it is made
+ * visible and paints a see-through copy of the image's thumbnail (the "ghost") under the
+ * instructor's finger, and otherwise it is hidden.
+ *
+ * The cell the drag started on keeps getting the mouse events for the whole drag, so it
+ * simply passes them on here (see start, moveTo and drop). Each move repaints only the
+ * places the ghost left and arrived at.
+ */
+public class DragController extends JComponent {
+
+	//-------------------------------------------------------------------------
+	// Constants
+	//-------------------------------------------------------------------------
+
+	// How the ghost is drawn over the screen.
+	private static final AlphaComposite GHOST_COMPOSITE = AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 0.5f);
+
+	//-------------------------------------------------------------------------
+	// END Constants
+	//-------------------------------------------------------------------------
+
+
+	//-------------------------------------------------------------------------
+	// Private Fields
+	//-------------------------------------------------------------------------
+
+	// The main window.
+	private Engage main;
+
+	// The MediaFile being dragged, and its thumbnail, or null if there is no drag.
+	private MediaFile mediaFile;
+	private Image ghost;
+
+	// Where the ghost is now, in our coordinates.
+	private Rectangle ghostBounds = new Rectangle();
+
+	// Where the content pane's origin is in our coordinates, so that points can be
+	// handed to the strips without converting them through the component tree.
+	private int contentX, contentY;
+
+	// The strip the image is over, or null if it is not over one.
+	private MediaStrip target;
+
+	//-------------------------------------------------------------------------
+	// END Private Fields
+	//-------------------------------------------------------------------------
+
+
+	//-------------------------------------------------------------------------
+	// Constructor
+	//-------------------------------------------------------------------------
+
+	/**
+	 * Creates a DragController for the main window. It still has to be made the
+	 * window's glass pane.
+	 *
+	 * @param main The main window.
+	 */
+	public DragController(Engage main) {
+		this.main = main;
+		this.setOpaque(false);
+		this.setVisible(false);
+	}
+
+	//-------------------------------------------------------------------------
+	// END Constructor
+	//-------------------------------------------------------------------------
+
+
+	//-------------------------------------------------------------------------
+	// Dragging
+	//-------------------------------------------------------------------------
+
+	/**
+	 * Starts dragging an image. The ghost appears once moveTo is called.
+	 *
+	 * @param file The MediaFile being dragged.
+	 */
+	public void start(MediaFile file) {
+		mediaFile = file;
+		ghost = file.getThumbImage();
+
+		int width = ghost.getWidth(null);
+		int height = ghost.getHeight(null);
+		if(width <= 0 || height <= 0) {
+			width = Constants.THUMB_SIZE.width;
+			height = Constants.THUMB_SIZE.height;
+		}
+		ghostBounds.setBounds(-width, -height, width, height);
+
+		Point origin = SwingUtilities.convertPoint(main.getContentPane(), 0, 0, this);
+		contentX = origin.x;
+		contentY = origin.y;
+		target = null;
+
+		this.setVisible(true);
+	}
+
+	/**
+	 * Moves the ghost so that it is centred on the instructor's finger, and tells the
+	 * strip it is over (if any) where it is.
+	 *
+	 * @param source The component the mouse event came from.
+	 * @param x The x coordinate of the event, in the source's coordinates.
+	 * @param y The y coordinate of the event, in the source's coordinates.
+	 */
+	public void moveTo(Component source, int x, int y) {
+		if(mediaFile == null) return;
+		Point point = SwingUtilities.convertPoint(source, x, y, this);
+
+		// Keep the ghost within the window.
+		int newX = Math.max(0, Math.min(this.getWidth() - ghostBounds.width, point.x - ghostBounds.width/2));
+		int newY = Math.max(0, Math.min(this.getHeight() - ghostBounds.height, point.y - ghostBounds.height/2));
+		if(newX != ghostBounds.x || newY != ghostBounds.y) {
+			this.repaint(ghostBounds.x, ghostBounds.y, ghostBounds.width, ghostBounds.height);
+			ghostBounds.setLocation(newX, newY);
+			this.repaint(ghostBounds.x, ghostBounds.y, ghostBounds.width, ghostBounds.height);
+		}
+
+		int contentPointX = point.x - contentX;
+		int contentPointY = point.y - contentY;
+		MediaStrip strip = getStripAt(contentPointY);
+		if(target != null && target != strip) target.dragExited();
+		target = strip;
+		if(target != null) target.dragOver(contentPointX, contentPointY);
+	}
+
+	/**
+	 * Drops the image where the instructor let go of it: into the strip it is over, if
+	 * any. The ghost disappears, and the strip forgets about the drag.
+	 *
+	 * @param source The component the mouse event came from.
+	 * @param x The x coordinate of the event, in the source's coordinates.
+	 * @param y The y coordinate of the event, in the source's coordinates.
+	 */
+	public void drop(Component source, int x, int y) {
+		if(mediaFile == null) return;
+		moveTo(source, x, y);
+
+		MediaFile dropped = mediaFile;
+		this.repaint(ghostBounds.x, ghostBounds.y, ghostBounds.width, ghostBounds.height);
+		this.setVisible(false);
+		mediaFile = null;
+		ghost = null;
+
+		if(target != null) target.drop(dropped);
+		target = null;
+
+		MediaStrip strip = main.getCurrentStationStrip();
+		if(strip != null) strip.dragEnded();
+	}
+
+	/**
+	 * Reports whether an image is being dragged.
+	 *
+	 * @return true if there is a drag going on.
+	 */
+	public boolean isDragging() {
+		return mediaFile != null;
+	}
+
+	//-------------------------------------------------------------------------
+	// END Dragging
+	//-------------------------------------------------------------------------
+
+
+	//-------------------------------------------------------------------------
+	// Painting
+	//-------------------------------------------------------------------------
+
+	/**
+	 * Paints the ghost, if there is a drag going on.
+	 */
+	protected void paintComponent(Graphics g) {
+		if(ghost == null) return;
+		Graphics2D g2d = (Graphics2D)g.create();
+		g2d.setComposite(GHOST_COMPOSITE);
+		g2d.drawImage(ghost, ghostBounds.x, ghostBounds.y, this);
+		g2d.dispose();
+	}
+
+	//-------------------------------------------------------------------------
+	// END Painting
+	//-------------------------------------------------------------------------
+
+
+	//-------------------------------------------------------------------------
+	// Private Methods
+	//-------------------------------------------------------------------------
+
+	/*
+	 * Returns the strip of the current station if a point at the given height (in the
+	 * content pane's coordinates) is over it, otherwise null.
+	 */
+	private MediaStrip getStripAt(int contentPointY) {
+		MediaStrip strip = main.getCurrentStationStrip();
+		if(strip == null) return null;
+		JTabbedPane view = strip.getView();
+		if(contentPointY < view.getY() || contentPointY >= view.getY() + view.getHeight()) return null;
+		return strip;
+	}
+
+	//-------------------------------------------------------------------------
+	// END Private Methods
+	//-------------------------------------------------------------------------
+
+}
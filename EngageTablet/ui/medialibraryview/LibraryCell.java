@@ -1,15 +1,13 @@
 package ui.medialibraryview;
 
-import java.awt.Point;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
 import java.awt.event.MouseMotionListener;
 
 import javax.swing.BorderFactory;
-import javax.swing.SwingUtilities;
 
 import main.Constants;
-import ui.DraggableImage;
+import ui.DragController;
 import backend.library.MediaFile;
 import backend.library.ThumbLabel;
 
@@ -40,7 +38,8 @@ class LibraryCell extends ThumbLabel implements MouseListener, MouseMotionListen
 	
 	/**
 	 * A LibraryCell is not added to the MediaLibrary pane directly, but rather a logical
-	 * row or column (presently MediaColumn). The cell represents the individual media element
+	 * row or column (presently MediaColumn), which reuses it for other images as the
+	 * library is scrolled (see recycle). The cell represents the individual media element
 	 * users can interact with by clicking to make big, or dragging to the stage
 	 * 
 	 * @param library handle to the container Media Library
@@ -72,6 +71,20 @@ class LibraryCell extends ThumbLabel implements MouseListener, MouseMotionListen
 		this.repaint();
 	}
 	
+	/**
+	 * Shows a different image in this cell, unselected, so the cell can be reused
+	 * for an image that has scrolled into sight
+	 * @param mf the media file to show
+	 */
+	void recycle(MediaFile mf)
+	{
+		this.setMediaFile(mf);
+		this.setBorder(BorderFactory.createEmptyBorder(3,3,3,3));
+		this.setHighlighted(false);
+		this.dragging = false;
+		this.lastObservedPress = 0;
+	}
+	
 	public void mousePressed(MouseEvent e) 
 	{
 		//record the latest press to compute if drag delay is sufficient (in mouseDragged)
@@ -84,35 +97,18 @@ class LibraryCell extends ThumbLabel implements MouseListener, MouseMotionListen
 		if ( (e.getWhen() - this.lastObservedPress) < LibraryCell.DRAG_DELAY)
 			return;
 		
+		//this cell keeps getting the drag events however far the finger goes, so hand 
+		//them to the drag controller, which moves a ghost of the image over the whole window
+		DragController drag = this.library.handleToMain.getDragController();
+		
 		if (dragging == false)
 		{
 			//we are currently dragging
 			dragging = true;
-			//in the highest level window, spawn a semi-transparent version of the cell for dragging
-			//note that this must be in the highest level window since we want dragging over all interface components
-			this.library.handleToMain.spawnDraggableImage(mFile, SwingUtilities.convertPoint(this, e.getX() - (this.getIcon().getIconWidth() / 2), e.getY() - (this.getIcon().getIconHeight() / 2), this.library.handleToMain));
+			drag.start(mFile);
 		}
 		
-		/* Here is a little bit of swing hacking: we must continuously redirect drag events within this cell to
-		 * the ghostImage in the highest level window. A local to global coordinate space conversion needs to
-		 * take place, which convertPoint handles. 
-		 */
-		DraggableImage target = this.library.handleToMain.getGhostImage();
-
-   	    Point componentPoint = SwingUtilities.convertPoint(
-			    this,
-			    new Point(e.getX() - (this.getIcon().getIconWidth() / 2), e.getY() - (this.getIcon().getIconHeight() / 2)),
-			    target);
-		 
-   	     //dispatch the event to the ghost image in main
-		 target.dispatchEvent(new MouseEvent(target,
-			    e.getID(),
-			    e.getWhen(),
-			    e.getModifiers(),
-			    componentPoint.x,
-			    componentPoint.y,
-			    e.getClickCount(),
-			    e.isPopupTrigger()));
+		drag.moveTo(this, e.getX(), e.getY());
 	}
 
 	public void mouseReleased(MouseEvent e) 
@@ -120,27 +116,11 @@ class LibraryCell extends ThumbLabel implements MouseListener, MouseMotionListen
 		//reset the interval counter for presses
 		this.lastObservedPress = 0;
 		
-		//follow the same scheme as above to redirect a mouseReleased to main window
-		DraggableImage target = this.library.handleToMain.getGhostImage();
-		 
-		 if (target != null && dragging)
-		 {
-			 Point componentPoint = SwingUtilities.convertPoint(
-					    this,
-					    new Point(e.getX(), e.getY()),
-					    this.library.handleToMain);
-			 
-			 target.dispatchEvent(new MouseEvent(target,
-					    e.getID(),
-					    e.getWhen(),
-					    e.getModifiers(),
-					    componentPoint.x,
-					    componentPoint.y,
-					    e.getClickCount(),
-					    e.isPopupTrigger()));
-		 }
-		 
-		 dragging = false;
+		//drop the image wherever the finger was lifted
+		if (dragging)
+			this.library.handleToMain.getDragController().drop(this, e.getX(), e.getY());
+		
+		dragging = false;
 	}
 	
 	public void mouseClicked(MouseEvent arg0) 
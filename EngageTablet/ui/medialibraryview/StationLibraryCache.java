@@ -0,0 +1,234 @@
+package ui.medialibraryview;
+
+import java.awt.Container;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Timer;
+import java.util.TimerTask;
+
+import javax.swing.SwingUtilities;
+
+import main.Constants;
+import main.Engage;
+import main.Logger;
+import backend.library.MediaLibrary;
+import backend.library.ProgramMedia;
+import backend.library.StationMedia;
+
+/**
+ * The StationLibraryCache keeps the visual libraries of the stations that were shown
+ * most recently, so that switching back to one of them does not build it again. It can
+ * also build the library of a station before it is asked for (see prewarm), so that
+ * switching to the stations next to the current one is just as quick.
+ *
+ * The libraries are kept in the container they are shown in, hidden, so that they are
+ * laid out and their visible rows are ready; only the one being shown is visible. When
+ * there are more than the cache may keep, the one that has gone unused the longest is
+ * taken out of the container and dropped.
+ */
+public class StationLibraryCache {
+
+	//-------------------------------------------------------------------------
+	// Private Fields
+	//-------------------------------------------------------------------------
+
+	// The main window, which each library needs a handle to.
+	private Engage handleToMain;
+
+	// Where the libraries are shown.
+	private Container container;
+
+	// The media library, whose prefetching is waited for before a library is built ahead of time.
+	private MediaLibrary media;
+
+	// The most libraries we keep.
+	private int capacity;
+
+	// The libraries we keep, by program and station, from least to most recently used.
+	private LinkedHashMap<String, StationMediaLibrary> views = new LinkedHashMap<String, StationMediaLibrary>(16, 0.75f, true);
+
+	// The library being shown, which is never dropped.
+	private StationMediaLibrary current;
+
+	// A single background thread that waits for stations to be prefetched.
+	private Timer prewarmer = new Timer("StationLibraryCache", true);
+
+	// True once the cache has been disposed of, after which nothing more is built.
+	private boolean disposed = false;
+
+	//-------------------------------------------------------------------------
+	// END Private Fields
+	//-------------------------------------------------------------------------
+
+
+	//-------------------------------------------------------------------------
+	// Constructor
+	//-------------------------------------------------------------------------
+
+	/**
+	 * Creates an empty cache.
+	 *
+	 * @param handleToMain The main window.
+	 * @param container The container the libraries are shown in.
+	 * @param media The media library the stations come from.
+	 * @param capacity The most libraries to keep, including the one being shown.
+	 */
+	public StationLibraryCache(Engage handleToMain, Container container, MediaLibrary media, int capacity) {
+		this.handleToMain = handleToMain;
+		this.container = container;
+		this.media = media;
+		this.capacity = Math.max(capacity, 1);
+	}
+
+	//-------------------------------------------------------------------------
+	// END Constructor
+	//-------------------------------------------------------------------------
+
+
+	//-------------------------------------------------------------------------
+	// Cache Methods
+	//-------------------------------------------------------------------------
+
+	/**
+	 * Returns the library of a station, building it if it is not already kept, and
+	 * makes it the one being shown. It is already in the container, but it is up to
+	 * the caller to make it visible (and to hide the one that was shown before).
+	 * Must be called on the event thread.
+	 *
+	 * @param program The program the station is in.
+	 * @param station The name of the station.
+	 * @return The library of the station.
+	 */
+	public StationMediaLibrary getView(ProgramMedia program, String station) {
+		StationMediaLibrary view = views.get(keyFor(program, station));
+		if(view == null) view = build(program, station);
+		current = view;
+		return view;
+	}
+
+	/**
+	 * Builds the library of a station in the background, if it is not already kept,
+	 * so that it is ready when the instructor switches to it. The station's images are
+	 * given time to be prefetched first, and the library is then built on the event
+	 * thread. Returns immediately.
+	 *
+	 * @param program The program the station is in.
+	 * @param station The name of the station.
+	 */
+	public void prewarm(final ProgramMedia program, final String station) {
+		if(program == null || station == null || disposed) return;
+
+		prewarmer.schedule(new TimerTask() {
+			public void run() {
+				media.waitForPrefetch(station);
+
+				SwingUtilities.invokeLater(new Runnable() {
+					public void run() {
+						if(!disposed && !views.containsKey(keyFor(program, station))) build(program, station);
+					}
+				});
+			}
+		}, 0);
+	}
+
+	/**
+	 * Drops every library of a station, for instance because its categories have
+	 * changed and its pages have to be laid out again. The library being shown is
+	 * dropped as well, so the caller should get it again with getView.
+	 *
+	 * @param station The station whose libraries should be dropped.
+	 */
+	public void forget(StationMedia station) {
+		Iterator<StationMediaLibrary> i = views.values().iterator();
+		while(i.hasNext()) {
+			StationMediaLibrary view = i.next();
+			if(!view.showsStation(station)) continue;
+
+			i.remove();
+			container.remove(view);
+			if(view == current) current = null;
+		}
+	}
+
+	/**
+	 * Stops building libraries ahead of time and drops every library that is kept,
+	 * taking them out of the container. Called when the instructor logs out; the 
+	 * cache cannot be used afterwards. Must be called on the event thread.
+	 */
+	public void dispose() {
+		disposed = true;
+		prewarmer.cancel();
+
+		Iterator<StationMediaLibrary> i = views.values().iterator();
+		while(i.hasNext()) {
+			StationMediaLibrary view = i.next();
+			view.releaseSelection();
+			container.remove(view);
+		}
+		views.clear();
+		current = null;
+	}
+
+	/**
+	 * Returns every library that is kept, so that they can all be told about
+	 * changes to the media on disk.
+	 *
+	 * @return The libraries, from least to most recently used.
+	 */
+	public List<StationMediaLibrary> getViews() {
+		return new ArrayList<StationMediaLibrary>(views.values());
+	}
+
+	//-------------------------------------------------------------------------
+	// END Cache Methods
+	//-------------------------------------------------------------------------
+
+
+	//-------------------------------------------------------------------------
+	// Private Methods
+	//-------------------------------------------------------------------------
+
+	/*
+	 * Returns the key a station's library is kept under.
+	 */
+	private static String keyFor(ProgramMedia program, String station) {
+		return program.getName() + "/" + station;
+	}
+
+	/*
+	 * Builds the library of a station, hidden, adds it to the container and keeps it,
+	 * dropping the least recently used libraries if there are too many.
+	 */
+	private StationMediaLibrary build(ProgramMedia program, String station) {
+		long start = System.currentTimeMillis();
+
+		StationMediaLibrary view = new StationMediaLibrary(handleToMain, program, station);
+		view.setVisible(false);
+		view.setBounds(Constants.STAGE_AREA);
+		container.add(view);
+		view.validate();
+		views.put(keyFor(program, station), view);
+
+		// The eldest entries come first, so drop from the front until we fit.
+		Iterator<Map.Entry<String, StationMediaLibrary>> i = views.entrySet().iterator();
+		while(views.size() > capacity && i.hasNext()) {
+			StationMediaLibrary eldest = i.next().getValue();
+			if(eldest == current || eldest == view) continue;
+
+			i.remove();
+			eldest.releaseSelection();
+			container.remove(eldest);
+		}
+
+		Logger.log(Logger.INFO, "StationLibraryCache: Built the library for " + station + " in " + (System.currentTimeMillis() - start) + "ms.");
+		return view;
+	}
+
+	//-------------------------------------------------------------------------
+	// END Private Methods
+	//-------------------------------------------------------------------------
+
+}
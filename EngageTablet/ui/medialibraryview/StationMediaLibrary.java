@@ -1,14 +1,15 @@
 package ui.medialibraryview;
 
-import java.awt.CardLayout;
 import java.awt.Color;
-import java.awt.Component;
 import java.awt.Dimension;
 import java.awt.Font;
 import java.awt.GridLayout;
+import java.awt.Point;
+import java.awt.Rectangle;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Iterator;
 
 import javax.swing.BorderFactory;
@@ -19,6 +20,8 @@ import javax.swing.JLabel;
 import javax.swing.JPanel;
 import javax.swing.JScrollBar;
 import javax.swing.JScrollPane;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
 
 import main.Constants;
 import main.Engage;
@@ -30,6 +33,12 @@ import backend.library.StationMedia;
 /**
  * The StationMediaLibrary is a view of a single station's media library.
  * 
+ * Only the page being shown is built, and within it only the rows of each column that
+ * can be seen in the scroll pane have a LibraryCell. Cells that scroll out of sight are
+ * kept and given the next images that scroll into sight, and the columns themselves are
+ * reused from page to page, so a station with hundreds of images opens as quickly as one
+ * with a handful.
+ * 
  * @author Andy Tzou
  */
 public class StationMediaLibrary extends JPanel{
@@ -39,20 +48,36 @@ public class StationMediaLibrary extends JPanel{
 	public static int NUMBER_OF_COLUMNS = 5;
 	public static int SCROLLBAR_WIDTH = 12;
 	protected LibraryCell lastSelectedCell = null;
+	
+	//height of one row (one cell) in a column
+	static final int ROW_HEIGHT = Constants.THUMB_LABEL_AREA.height;
+	
+	//rows above and below the visible ones that also get cells, so that they are
+	//already there when a scroll uncovers them
+	static final int EXTRA_ROWS = 1;
 
-	//cardPanels that allow flipping between "pages" of the Media Library
-	JPanel headerCards;
-	JPanel columnCards;
+	//the headers and columns of the page being shown
+	JPanel headerPanel;
+	JPanel columnPanel;
+	JScrollPane columnScroller;
 	
 	//panel containing Next and Prev navigation and a banner
 	NavPanel navigationPanel;
 	
-	//internal lists of the columns and headers (pages)
-	ArrayList columnList;
-	ArrayList headerList;
+	//the page being shown (counting from 0), and where each page was scrolled to
+	int currentPage = -1;
+	int[] scrollPositions;
+	
+	//a header and a column for each place on a page, reused from page to page
+	JLabel[] headers;
+	MediaColumn[] columns;
 
 	//pointer to this object
 	StationMediaLibrary handleToMe;
+	
+	//the station shown here, and its categories in order
+	StationMedia station;
+	ArrayList<CategoryMedia> categories;
 
 	/**
 	 * StationMediaLibrary arranges images in column format for a given teaching station. 
@@ -66,103 +91,69 @@ public class StationMediaLibrary extends JPanel{
 		this.handleToMain = mainFrame; //get a handle to the main container
 
 		this.setLayout(new BoxLayout(this, BoxLayout.PAGE_AXIS));
-				
-		headerCards = new JPanel();
-		columnCards = new JPanel();
-		
-		columnList = new ArrayList();
-		headerList = new ArrayList();
-		
-		headerCards.setLayout(new CardLayout());
-		columnCards.setLayout(new CardLayout());
 		
 		//retrieve stations
 		StationMedia sm = pm.getStation(stationName);
+		this.station = sm;
 		
-		int category_count = 0; 
-		
-		//retrieve categories
+		//retrieve categories; their images are not looked at until their page is shown
+		categories = new ArrayList<CategoryMedia>();
 		Iterator categoryIter = sm.getCategories();
+		while (categoryIter.hasNext())
+			categories.add((CategoryMedia)categoryIter.next());
 		
-		//we alternate white and gray color per column, so use counter to alternate
-		int odd_even_counter = 0;
+		scrollPositions = new int[Math.max(getPageCount(), 1)];
 		
-		while (categoryIter.hasNext())
+		headerPanel = new JPanel(); //panel that will hold the headers
+		headerPanel.setLayout(new GridLayout(1, NUMBER_OF_COLUMNS));
+		headerPanel.setBackground(new Color(202, 216, 234));
+		
+		columnPanel = new JPanel(); //panel that will hold the columns
+		columnPanel.setLayout(new GridLayout(1, NUMBER_OF_COLUMNS)); //Rows, Columns, Hgap, Vgap
+		
+		headers = new JLabel[NUMBER_OF_COLUMNS];
+		columns = new MediaColumn[NUMBER_OF_COLUMNS];
+		for (int i = 0; i < NUMBER_OF_COLUMNS; ++i)
 		{
-			CategoryMedia cat = (CategoryMedia)categoryIter.next();
-			
-			//create a new page for every NUMBER_OF_COLUMNS'th column
-			if (category_count % NUMBER_OF_COLUMNS == 0)
-			{
-				JPanel columnPanel = new JPanel(); //panel that will hold the columns	
-				
-				columnPanel.setLayout(new GridLayout(1, NUMBER_OF_COLUMNS)); //Rows, Columns, Hgap, Vgap
-				JPanel headerPanel = new JPanel(); //panel that will hold the headers
-	
-				headerPanel.setLayout(new GridLayout(1, NUMBER_OF_COLUMNS));
-				
-				headerPanel.setBackground(new Color(202, 216, 234));
-				//add new panels to lists
-				columnList.add(columnPanel);
-				headerList.add(headerPanel);
-			}
-			
-			//add category to header panel 
-			JLabel header = new JLabel("<html><p>" + cat.getDisplayName() + "</p></html>");
+			headers[i] = new JLabel();
 			//header.setFont(new Font("SansSerif", Font.BOLD, 14));		
 			
 			//force each header to be the size of a thumbnail to ensure proper alignment with columns
-			header.setPreferredSize(new Dimension(Constants.THUMB_SIZE.width, (int)(header.getPreferredSize().getHeight()*2)));
-			header.setHorizontalAlignment(JLabel.CENTER);
-			((JPanel)(headerList.get(headerList.size() - 1))).add(header);
-			
-			//retrieve media files and add them to the column (done in MediaColumn class)
-			Iterator mediaIter = cat.getMediaFiles();
-			MediaColumn mc = new MediaColumn(mediaIter);
-			
-			if (odd_even_counter % 2 == 0)
-				mc.setBackground(Color.getHSBColor(0f, 0f, .85f));
-			else
-				mc.setBackground(null);
-
-			odd_even_counter++;
-			
-			//add column to the latest columnPanel in list
-			((JPanel)(columnList.get(columnList.size() - 1))).add(mc);
+			headers[i].setText("<html><p>&nbsp;</p></html>");
+			headers[i].setPreferredSize(new Dimension(Constants.THUMB_SIZE.width, (int)(headers[i].getPreferredSize().getHeight()*2)));
+			headers[i].setHorizontalAlignment(JLabel.CENTER);
 			
-			category_count++;
+			columns[i] = new MediaColumn();
 		}
 		
-		for(int i = 0; i < columnList.size(); ++i)
-		{
-			//scrollpane that will hold the column panel
-			JScrollPane jsp = new JScrollPane((JPanel)columnList.get(i), JScrollPane.VERTICAL_SCROLLBAR_ALWAYS, JScrollPane.HORIZONTAL_SCROLLBAR_NEVER);
-			JScrollBar vBar = jsp.getVerticalScrollBar();
+		//scrollpane that will hold the column panel
+		columnScroller = new JScrollPane(columnPanel, JScrollPane.VERTICAL_SCROLLBAR_ALWAYS, JScrollPane.HORIZONTAL_SCROLLBAR_NEVER);
+		JScrollBar vBar = columnScroller.getVerticalScrollBar();
 
-			vBar.setPreferredSize(new Dimension( (int)vBar.getPreferredSize().getWidth() + SCROLLBAR_WIDTH, 
-					 (int)vBar.getPreferredSize().getHeight()) );
-			
-			jsp.setVerticalScrollBar(vBar);
-			
-			
-			//JScrollBar(int orientation, int value, int extent, int min, int max)
-			columnCards.add(jsp, "jsp");
-		}
+		vBar.setPreferredSize(new Dimension( (int)vBar.getPreferredSize().getWidth() + SCROLLBAR_WIDTH, 
+				 (int)vBar.getPreferredSize().getHeight()) );
 		
-		for(int i = 0; i < headerList.size(); ++i)
+		columnScroller.setVerticalScrollBar(vBar);
+		
+		//give cells to the rows that scroll into sight
+		columnScroller.getViewport().addChangeListener(new ChangeListener()
 		{
-			JPanel currentHeaderPanel = (JPanel)headerList.get(i);
-			headerCards.add(currentHeaderPanel, "header");
-		}
+			public void stateChanged(ChangeEvent e)
+			{
+				for (int i = 0; i < columnPanel.getComponentCount(); ++i)
+					((MediaColumn)columnPanel.getComponent(i)).realizeRows();
+			}
+		});
 		
-		headerCards.setPreferredSize(new Dimension(1024, 29));
-		headerCards.setMaximumSize(new Dimension(1024, 29));
+		headerPanel.setPreferredSize(new Dimension(1024, 29));
+		headerPanel.setMaximumSize(new Dimension(1024, 29));
 		
+		showPage(0);
 		
 		navigationPanel = new NavPanel();
 		this.add(navigationPanel);
-		this.add(headerCards);
-		this.add(columnCards);
+		this.add(headerPanel);
+		this.add(columnScroller);
 	}
 	
 	/**
@@ -179,7 +170,51 @@ public class StationMediaLibrary extends JPanel{
 	 */
 	public int getPageCount()
 	{
-		return columnList.size();
+		return (categories.size() + NUMBER_OF_COLUMNS - 1) / NUMBER_OF_COLUMNS;
+	}
+	
+	/**
+	 * Shows one page of the MediaLibrary, scrolled to where it was last left.
+	 * @param page the page to show, counting from 0
+	 */
+	public void showPage(int page)
+	{
+		if (page == currentPage || page < 0 || page >= Math.max(getPageCount(), 1))
+			return;
+		
+		if (currentPage >= 0)
+			scrollPositions[currentPage] = columnScroller.getViewport().getViewPosition().y;
+		currentPage = page;
+		
+		headerPanel.removeAll();
+		columnPanel.removeAll();
+		
+		int first = page * NUMBER_OF_COLUMNS;
+		int count = Math.min(NUMBER_OF_COLUMNS, categories.size() - first);
+		for (int i = 0; i < count; ++i)
+		{
+			CategoryMedia cat = categories.get(first + i);
+			
+			//add category to header panel 
+			headers[i].setText("<html><p>" + cat.getDisplayName() + "</p></html>");
+			headerPanel.add(headers[i]);
+			
+			//we alternate white and gray color per column
+			MediaColumn mc = columns[i];
+			mc.setCategory(cat);
+			if ((first + i) % 2 == 0)
+				mc.setBackground(Color.getHSBColor(0f, 0f, .85f));
+			else
+				mc.setBackground(null);
+			columnPanel.add(mc);
+		}
+		
+		//the cells for the page are only made once it is laid out at its new height
+		columnPanel.revalidate();
+		columnScroller.getViewport().setViewPosition(new Point(0, scrollPositions[page]));
+		headerPanel.revalidate();
+		headerPanel.repaint();
+		columnPanel.repaint();
 	}
 	
 	/**
@@ -196,6 +231,81 @@ public class StationMediaLibrary extends JPanel{
 		this.lastSelectedCell = null; //special case where no deselection needed on next click, so nullify
 	}
 	
+	/**
+	 * Reports whether this MediaLibrary shows the given station
+	 * @param sm the station to check
+	 * @return true if this is the view of that station
+	 */
+	public boolean showsStation(StationMedia sm)
+	{
+		return this.station == sm;
+	}
+	
+	/**
+	 * Makes room for a media file that has just appeared on disk, in its place within
+	 * its category's column. Files in other stations are ignored.
+	 * @param mf the new media file
+	 */
+	public void mediaFileAdded(MediaFile mf)
+	{
+		MediaColumn mc = columnForCategory((CategoryMedia)mf.getParent());
+		if (mc != null)
+			mc.reload();
+	}
+	
+	/**
+	 * Removes a media file that has been removed from disk. If it was selected, the
+	 * big screen is cleared as well.
+	 * @param mf the removed media file
+	 */
+	public void mediaFileRemoved(MediaFile mf)
+	{
+		if (!categories.contains(mf.getParent()))
+			return;
+		
+		if (this.lastSelectedCell != null && this.lastSelectedCell.getMediaFile() == mf)
+		{
+			releaseSelection();
+			this.handleToMain.getStage().showImage(null, this.handleToMe);
+		}
+		
+		MediaColumn mc = columnForCategory((CategoryMedia)mf.getParent());
+		if (mc != null)
+			mc.reload();
+	}
+	
+	/**
+	 * Shows the new thumbnail of a media file whose original has changed on disk.
+	 * @param mf the changed media file
+	 */
+	public void mediaFileChanged(MediaFile mf)
+	{
+		if (this.lastSelectedCell != null && this.lastSelectedCell.getMediaFile() == mf)
+			this.lastSelectedCell.refreshThumb();
+		
+		MediaColumn mc = columnForCategory((CategoryMedia)mf.getParent());
+		if (mc == null)
+			return;
+		
+		LibraryCell cell = mc.findCell(mf);
+		if (cell != null && cell != this.lastSelectedCell)
+			cell.refreshThumb();
+	}
+	
+	/*
+	 * Finds the column showing a category, if it is on the page being shown.
+	 */
+	private MediaColumn columnForCategory(CategoryMedia cat)
+	{
+		for (int i = 0; i < columnPanel.getComponentCount(); ++i)
+		{
+			MediaColumn mc = (MediaColumn)columnPanel.getComponent(i);
+			if (mc.category == cat)
+				return mc;
+		}
+		return null;
+	}
+	
 	//-------------------------------------------------------------------------
 	// MediaColumn
 	//-------------------------------------------------------------------------	
@@ -203,27 +313,140 @@ public class StationMediaLibrary extends JPanel{
 	
 	/**
 	 * The fundamental column in a MediaLibrary is a MediaColumn that lays out
-	 * images vertically.
+	 * images vertically. It is as tall as all of its images, but only the rows that
+	 * can be seen have a LibraryCell; the others are empty space until they are
+	 * scrolled to.
 	 */
 	class MediaColumn extends JPanel
 	{
+		//the category shown, and its images in order
+		CategoryMedia category;
+		ArrayList<MediaFile> files = new ArrayList<MediaFile>();
 		
-		public MediaColumn(Iterator iter)
+		//the cells there are now, by row, and cells waiting to be given another image
+		HashMap<Integer, LibraryCell> realized = new HashMap<Integer, LibraryCell>();
+		ArrayList<LibraryCell> pool = new ArrayList<LibraryCell>();
+		
+		public MediaColumn()
 		{
-			this.setLayout(new BoxLayout(this, BoxLayout.Y_AXIS));
-			
-			//cycle through the images using the given iterator, create a LibraryCell
-			//with it and add it to the column
+			//cells are placed by realizeRows
+			this.setLayout(null);
+		}
+		
+		/**
+		 * Shows a category in this column
+		 * @param cat the category to show
+		 */
+		void setCategory(CategoryMedia cat)
+		{
+			this.category = cat;
+			reload();
+		}
+		
+		/**
+		 * Fetches the images of the category again, for instance because one has
+		 * been added or removed on disk
+		 */
+		void reload()
+		{
+			files.clear();
+			Iterator iter = category.getMediaFiles();
 			while (iter.hasNext())
+				files.add((MediaFile)iter.next());
+			
+			revalidate();
+			realizeRows();
+		}
+		
+		public Dimension getPreferredSize()
+		{
+			return new Dimension(Constants.THUMB_LABEL_AREA.width, files.size() * ROW_HEIGHT);
+		}
+		
+		public void doLayout()
+		{
+			realizeRows();
+		}
+		
+		/**
+		 * Gives a cell to each row that can be seen (and a few either side), and takes
+		 * them from the rows that no longer can.
+		 */
+		void realizeRows()
+		{
+			Rectangle visible = getVisibleRect();
+			int first = Math.max(visible.y / ROW_HEIGHT - EXTRA_ROWS, 0);
+			int last = Math.min((visible.y + visible.height - 1) / ROW_HEIGHT + EXTRA_ROWS, files.size() - 1);
+			if (visible.height <= 0)
+				last = -1;
+			
+			//take back the cells of rows out of sight, and of rows whose image has changed
+			Iterator<Integer> rowIter = realized.keySet().iterator();
+			while (rowIter.hasNext())
 			{
-				MediaFile mf = (MediaFile)iter.next(); 
-
-				LibraryCell imageCell = new LibraryCell(StationMediaLibrary.this, mf, handleToMe);
-				imageCell.setAlignmentX(Component.CENTER_ALIGNMENT);
-
-				this.add(imageCell);	
+				int row = rowIter.next();
+				LibraryCell cell = realized.get(row);
+				if (row < first || row > last || cell.getMediaFile() != files.get(row))
+				{
+					rowIter.remove();
+					this.remove(cell);
+					
+					//the selected cell is kept as it is, to be used again if it comes back
+					if (cell != lastSelectedCell)
+						pool.add(cell);
+				}
 			}
-
+			
+			int x = (getWidth() - Constants.THUMB_LABEL_AREA.width) / 2;
+			for (int row = first; row <= last; ++row)
+			{
+				LibraryCell cell = realized.get(row);
+				if (cell == null)
+				{
+					cell = cellFor(files.get(row));
+					realized.put(row, cell);
+					this.add(cell);
+				}
+				cell.setBounds(x, row * ROW_HEIGHT, Constants.THUMB_LABEL_AREA.width, ROW_HEIGHT);
+			}
+			
+			repaint();
+		}
+		
+		/**
+		 * Finds the cell showing a media file
+		 * @param mf the media file to look for
+		 * @return the LibraryCell showing it, or null if it is not in sight in this column
+		 */
+		LibraryCell findCell(MediaFile mf)
+		{
+			Iterator<LibraryCell> cellIter = realized.values().iterator();
+			while (cellIter.hasNext())
+			{
+				LibraryCell cell = cellIter.next();
+				if (cell.getMediaFile() == mf)
+					return cell;
+			}
+			return null;
+		}
+		
+		/*
+		 * Returns a cell for an image that has come into sight: the selected cell if it
+		 * is the selected image, otherwise a cell from the pool, or a new one.
+		 */
+		private LibraryCell cellFor(MediaFile mf)
+		{
+			if (lastSelectedCell != null && lastSelectedCell.getMediaFile() == mf)
+				return lastSelectedCell;
+			
+			if (!pool.isEmpty())
+			{
+				LibraryCell cell = pool.remove(pool.size() - 1);
+				cell.recycle(mf);
+				return cell;
+			}
+			
+			return new LibraryCell(StationMediaLibrary.this, mf, handleToMe);
 		}
 	}
 	
@@ -268,14 +491,13 @@ public class StationMediaLibrary extends JPanel{
 			{
 				public void mouseClicked(MouseEvent e)
 				{
-					((CardLayout)(headerCards.getLayout())).previous(headerCards);
-					((CardLayout)(columnCards.getLayout())).previous(columnCards);
-					
 					currentPage--;
 					
 					if (currentPage == 0)
 						currentPage = getPageCount();
 					
+					showPage(currentPage - 1);
+					
 					banner.setText("Media Library (page " + currentPage + " of " + getPageCount() + ")");
 				}
 			});
@@ -285,15 +507,14 @@ public class StationMediaLibrary extends JPanel{
 			{
 				public void mouseClicked(MouseEvent e)
 				{
-					((CardLayout)(headerCards.getLayout())).next(headerCards);
-					((CardLayout)(columnCards.getLayout())).next(columnCards);		
-			
 					//increment page number
 					currentPage++;
 					
 					if (currentPage == getPageCount() + 1)
 						currentPage = 1;
 					
+					showPage(currentPage - 1);
+					
 					banner.setText("Media Library (page " + currentPage + " of " + getPageCount() + ")");
 				}
 				
@@ -301,7 +522,7 @@ public class StationMediaLibrary extends JPanel{
 			);
 			
 			//if there's only one page, disable the nav buttons
-			if (columnList != null && columnList.size() <= 1)
+			if (getPageCount() <= 1)
 			{
 				prev.setEnabled(false);
 				next.setEnabled(false);
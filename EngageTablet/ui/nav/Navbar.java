@@ -2,8 +2,10 @@ package ui.nav;
 
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.util.Vector;
 
 import javax.swing.ImageIcon;
+import javax.swing.JButton;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
 
@@ -20,6 +22,10 @@ public class Navbar extends JPanel implements ActionListener {
 	// Used to fetch and store the name of the current station.
 	private StationSelector stationDropDown;
 	
+	// Undo and redo the instructor's changes to their queues.
+	private JButton undoButton;
+	private JButton redoButton;
+	
 	private JLabel navbarHeader;
 	
 	// The toggle button for the media library.
@@ -45,6 +51,21 @@ public class Navbar extends JPanel implements ActionListener {
 		stationDropDown.addActionListener(this);
 		stationDropDown.setBounds(Constants.STATION_DROP_DOWN_AREA);
 		this.add(stationDropDown);
+		
+		// Add the undo and redo buttons, which are enabled once there is something to undo or redo.
+		undoButton = new JButton("Undo");
+		undoButton.setFocusPainted(false);
+		undoButton.setEnabled(false);
+		undoButton.addActionListener(this);
+		undoButton.setBounds(Constants.UNDO_BUTTON_AREA);
+		this.add(undoButton);
+		
+		redoButton = new JButton("Redo");
+		redoButton.setFocusPainted(false);
+		redoButton.setEnabled(false);
+		redoButton.addActionListener(this);
+		redoButton.setBounds(Constants.REDO_BUTTON_AREA);
+		this.add(redoButton);
 	
 		// Add the decorative header between the station selector and the library toggle.
 		navbarHeader = new JLabel(new ImageIcon("ui/nav/navbar_header.png"));
@@ -61,9 +82,30 @@ public class Navbar extends JPanel implements ActionListener {
 	public String getStation(){
 		return stationDropDown.getStation();
 	}
+	
+	/**
+	 * Returns the stations next to the current one in the station drop down.
+	 * @return The names of the neighbouring stations.
+	 */
+	public Vector<String> getAdjacentStations(){
+		return stationDropDown.getAdjacentStations();
+	}
+	
+	/**
+	 * Enables the undo and redo buttons when there is something to undo or redo.
+	 * @param canUndo true if the instructor can undo a change.
+	 * @param canRedo true if the instructor can redo a change.
+	 */
+	public void setUndoEnabled(boolean canUndo, boolean canRedo){
+		undoButton.setEnabled(canUndo);
+		redoButton.setEnabled(canRedo);
+	}
 
-	//Called when someone hits the station dropdown
+	//Called when someone hits the station dropdown, or the undo or redo button
 	public void actionPerformed(ActionEvent arg0) {
+		if(arg0.getSource() == undoButton) { parent.undo(); return; }
+		if(arg0.getSource() == redoButton) { parent.redo(); return; }
+		
 		parent.switchStation(stationDropDown.getStation());
 		Logger.log(Logger.INFO,"Station has been switched to:"+stationDropDown.getStation());
 	}
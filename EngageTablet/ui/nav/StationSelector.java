@@ -37,4 +37,17 @@ public class StationSelector extends JComboBox{
 		return names.get(this.getSelectedIndex());
 	}
 	
+	/**
+	 * Returns the stations just before and just after the currently selected one,
+	 * which are the ones the instructor is most likely to switch to next.
+	 * @return The names of the neighbouring stations (none, one or two of them).
+	 */
+	public Vector<String> getAdjacentStations(){
+		Vector<String> adjacent = new Vector<String>();
+		int index = this.getSelectedIndex();
+		if(index > 0) adjacent.add(names.get(index - 1));
+		if(index >= 0 && index < names.size() - 1) adjacent.add(names.get(index + 1));
+		return adjacent;
+	}
+	
 }
@@ -5,7 +5,6 @@ import java.awt.Color;
 import java.awt.Component;
 import java.awt.Dimension;
 import java.awt.FlowLayout;
-import java.awt.Point;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.MouseEvent;
@@ -33,7 +32,7 @@ import javax.swing.event.MouseInputAdapter;
 import main.Constants;
 import main.Logger;
 import main.Engage;
-import ui.DraggableImage;
+import ui.DragController;
 import backend.library.MediaFile;
 import backend.queue.GroupQueue;
 import backend.queue.StationQueue;
@@ -65,7 +64,7 @@ public class MediaStrip extends MouseInputAdapter implements ActionListener {
 	private String currentStation;
 	private Engage parent;
 	private QueueImage[] labels = null;
-	private Vector<Double> imageMidpoints = null;
+	private int[] imageMidpoints = null;
 	private QueueImage previousLineLabel = null;
 	private int previousLineIndex = -1;
 	private JPanel imagePanel = null;
@@ -147,81 +146,55 @@ public class MediaStrip extends MouseInputAdapter implements ActionListener {
 	public MediaFile advanceSelection() {
 		Logger.log(Logger.INFO,"MediaStrip: Advance selection.");
 		
-		// HOLY HACK-JOB BATMAN!
-		this.findImagePanel();
-		
-		Component components[] = imagePanel.getComponents();
-		
-		labels = new QueueImage[components.length];
-	
-		if(components.length == 3) {
-			if(selectedImage == null) {
-				this.setSelectedImage((QueueImage) components[1]);
-				return (MediaFile)jlabelToMediaFile.get(components[1]);
-			}
-			else {
-				this.setSelectedImage(null);
-				return null;
-			}
-		}
-		
-		for(int i=1;i<components.length-2;i+=2) {
-			
-			if(selectedImage == null) {
-				this.setSelectedImage((QueueImage)components[1]);
-				return (MediaFile)jlabelToMediaFile.get(components[1]);
-			}
-			
-			if(selectedImage.equals(components[i]) && components[i+2] != null) {
-				this.setSelectedImage((QueueImage) components[i+2]);
-				return (MediaFile)jlabelToMediaFile.get(components[i+2]);
-			}
-		}
-	
-		this.setSelectedImage(null);
-		return null;
+		// Start at the first image if nothing in this group is selected.
+		int selected = getSelectedPosition();
+		return selectPosition(selected < 0 ? 0 : selected + 1);
 	}
 	
 	public MediaFile retreatSelection() {
 		Logger.log(Logger.INFO,"MediaStrip: Retreat selection.");
 		
-		// HOLY HACK-JOB BATMAN!
+		// Start at the last image if nothing in this group is selected.
+		int selected = getSelectedPosition();
+		return selectPosition(selected < 0 ? getCellCount() - 1 : selected - 1);
+	}
+	
+	/*
+	 * Returns the position of the selected image in the group that is showing, or -1 if
+	 * nothing in that group is selected. Each cell keeps its own position up to date 
+	 * (see renumberCells), so nothing has to be searched.
+	 */
+	private int getSelectedPosition() {
 		this.findImagePanel();
-		Component components[] = imagePanel.getComponents();
-		
-		labels = new QueueImage[components.length];
-		
-		if(components.length == 3) {
-			if(selectedImage == null) {
-				this.setSelectedImage((QueueImage) components[1]);
-				return (MediaFile)jlabelToMediaFile.get(components[1]);
-			}
-			else {
-				this.setSelectedImage(null);
-				return null;
-			}
-		}
+		if(selectedImage == null || imagePanel == null || selectedImage.getParent() != imagePanel) return -1;
+		return selectedImage.getQueueIndex();
+	}
 	
-		for(int i=components.length-2;i>1;i-=2) {
-			
-			if(selectedImage == null && components[components.length-2] != null) {
-				this.setSelectedImage((QueueImage)components[components.length-2]);
-				return (MediaFile)jlabelToMediaFile.get(components[components.length-2]);
-			}
-			
-			if(selectedImage.equals(components[i]) && components[i-2] != null) {
-				this.setSelectedImage((QueueImage) components[i-2]);
-				return (MediaFile)jlabelToMediaFile.get(components[i-2]);
-			}
-		}
+	/*
+	 * Returns the number of images in the group that is showing.
+	 */
+	private int getCellCount() {
+		return (imagePanel == null) ? 0 : (imagePanel.getComponentCount() - 1) / 2;
+	}
 	
-		this.setSelectedImage(null);
-		return null;
-		
+	/*
+	 * Selects the image at a position in the group that is showing. Stepping off either
+	 * end of the group clears the selection.
+	 */
+	private MediaFile selectPosition(int position) {
+		if(position < 0 || position >= getCellCount()) {
+			this.setSelectedImage(null);
+			return null;
+		}
+		QueueImage image = (QueueImage)imagePanel.getComponent(2*position+1);
+		this.setSelectedImage(image);
+		return (MediaFile)jlabelToMediaFile.get(image);
 	}
 	
 	private void setSelectedImage(QueueImage image) {
 		
+		QueueImage previous = selectedImage;
+		
 		if(image != null) {
 			if(image.getBorder() instanceof EmptyBorder) {
 				
@@ -238,6 +211,7 @@ public class MediaStrip extends MouseInputAdapter implements ActionListener {
 				image.setBorder(BorderFactory.createLineBorder(Constants.SELECTION_COLOR,3));
 				selectedImage = image;
 				parent.getStage().showImage((MediaFile)jlabelToMediaFile.get(selectedImage),this);
+				preloadNeighbours(image);
 			}
 			else { 
 				image.setBorder(BorderFactory.createEmptyBorder(3,3,3,3));
@@ -251,17 +225,32 @@ public class MediaStrip extends MouseInputAdapter implements ActionListener {
 			parent.getStage().showImage(null,this);
 		}
 		
-		Iterator it = ((Set)jlabelToMediaFile.keySet()).iterator();
-		
-		while(it.hasNext()) {
-			QueueImage label = (QueueImage)it.next();
-			if(!label.equals(image)) {
-				label.setSelected(false);
-				label.setBorder(BorderFactory.createEmptyBorder(3,3,3,3));
-			}
+		// Only one image is ever selected, so only it has to be cleared (and repainted).
+		if(previous != null && previous != image) {
+			previous.setSelected(false);
+			previous.setBorder(BorderFactory.createEmptyBorder(3,3,3,3));
 		}
 		
-		
+	}
+	
+	/*
+	 * Has the library load the central images of the next few and previous few images in 
+	 * the group in the background, so stepping through a lesson never waits on a decode.
+	 */
+	private void preloadNeighbours(QueueImage image) {
+		if(tabView.getSelectedIndex() < 0) return;
+		GroupQueue group = getGroupQueueByName(tabView.getTitleAt(tabView.getSelectedIndex()));
+		if(group == null) return;
+		
+		Vector files = group.getMediaFiles();
+		int index = image.getQueueIndex();
+		Vector<MediaFile> neighbours = new Vector<MediaFile>();
+		for(int i=1; i<=Constants.LOOKAHEAD_NEXT && index+i<files.size(); i++) 
+			neighbours.add((MediaFile)files.get(index+i));
+		for(int i=1; i<=Constants.LOOKAHEAD_PREVIOUS && index-i>=0; i++) 
+			neighbours.add((MediaFile)files.get(index-i));
+		
+		group.getMediaLibrary().preloadCentralImages(neighbours);
 	}
 	
 	public void releaseSelection() {
@@ -292,28 +281,19 @@ public class MediaStrip extends MouseInputAdapter implements ActionListener {
 			
 			if(imagePanel == null) return;
 			
-			Component components[] = imagePanel.getComponents();
-			labels = new QueueImage[components.length];
+			// Only this image's cell (and the line after it) is taken out of the panel.
+			GroupQueue group = getGroupQueueByName(tabView.getTitleAt(tabView.getSelectedIndex()));
+			Vector<MediaFile> newImages = new Vector<MediaFile>(group.getMediaFiles());
+			newImages.remove(image.getQueueIndex());
 			
-			Vector<QueueImage> tempLabels = new Vector<QueueImage>();
-			Vector<MediaFile> newImages = new Vector<MediaFile>();
-			//int deleteAtIndex = 0;
-			 
-			 for(int i=0;i<labels.length;i++) {
-				 labels[i] = (QueueImage)components[i];
-				 if(!labels[i].equals(image)) tempLabels.add(labels[i]);
-				 //else deleteAtIndex = i;
-			 }
-			 
-			 for(int i=0;i<tempLabels.size();i++) {
-					if(jlabelToMediaFile.get(tempLabels.get(i)) != null) {
-						newImages.add(jlabelToMediaFile.get(tempLabels.get(i)));
-					}
-			 }	
-			 
-			 ((JTabbedPane)this.getView()).setComponentAt(
-						((JTabbedPane)this.getView()).getSelectedIndex(),
-						constructView(newImages,-1));
+			if(newImages.size() == 0) {
+				tabView.setComponentAt(tabView.getSelectedIndex(), buildView(newImages, -1));
+			}
+			else {
+				removeCell(imagePanel, image.getQueueIndex());
+			}
+			jlabelToMediaFile.remove(image);
+			group.setMediaFiles(newImages);
 			
 		}
 		
@@ -333,200 +313,196 @@ public class MediaStrip extends MouseInputAdapter implements ActionListener {
 		
 		if ( (e.getWhen() - this.lastObservedPress) < MediaStrip.DRAG_DELAY) return;
 		
+		DragController drag = parent.getDragController();
+		
 		if(!dragging) {
-			
-			if(!(e.getComponent() instanceof ui.DraggableImage)) {
-				draggedLabel = (QueueImage)e.getComponent();
-				parent.spawnDraggableImage((MediaFile)jlabelToMediaFile.get(draggedLabel), SwingUtilities.convertPoint(draggedLabel, e.getX() - (draggedLabel.getIcon().getIconWidth() / 2), e.getY() - (draggedLabel.getIcon().getIconHeight() / 2), parent));
-			}
-				
-			this.findImagePanel();
-			
-			if(imagePanel == null) return;
-			
-			Component components[] = imagePanel.getComponents();
-			
-			labels = new QueueImage[components.length];
-			
-			for(int i=0;i<components.length;i++) {
-				labels[i] = (QueueImage)components[i];
-				if(draggedLabel == labels[i]) {
-					draggedLabelIndex = i;
-				}
-			}
-			
-			imageMidpoints = new Vector<Double>();
-			
-			for(int i=1;i<labels.length;i+=2) {
-				imageMidpoints.add(Double.valueOf(new Double(labels[i].getX() + labels[i].getWidth() /2)));
-			}
-			
+			draggedLabel = (QueueImage)e.getComponent();
+			drag.start((MediaFile)jlabelToMediaFile.get(draggedLabel));
 			dragging = true;
 		}
 		
-		Point compPoint = SwingUtilities.convertPoint(
-			    e.getComponent(),
-			    new Point(e.getX() + e.getComponent().getWidth() / 2, e.getY() + e.getComponent().getHeight() / 2),
-			    imagePanel);
-		
-		//Logger.log(Logger.DEBUG,"DragX: " + e.getX() + "DragY: " + e.getY());
-		//Logger.log(Logger.DEBUG,"CompX: " + compPoint.getX() + "DragY: " + compPoint.getY());
+		drag.moveTo(e.getComponent(), e.getX(), e.getY());
+	}
+	
+	public void mouseReleased(MouseEvent e) {
 		
-		DraggableImage target = parent.getGhostImage();
+		this.lastObservedPress = 0;
 		
-		Point compPointToMain = SwingUtilities.convertPoint(
-			    e.getComponent(),
-			    new Point(e.getX() + e.getComponent().getWidth() / 2, e.getY() + e.getComponent().getHeight() / 2),
-			    parent);
+		if(dragging) parent.getDragController().drop(e.getComponent(), e.getX(), e.getY());
+	}
+	
+	/**
+	 * Called by the DragController as an image is dragged over this strip. Shows the
+	 * line where the image would go if it were dropped now.
+	 * 
+	 * @param x The x coordinate of the instructor's finger, in the content pane's coordinates.
+	 * @param y The y coordinate of the instructor's finger, in the content pane's coordinates.
+	 */
+	public void dragOver(int x, int y) {
 		
+		if(labels == null && !prepareDrop()) return;
 		
+		if(y <= Constants.QUEUE_AREA.y+100) {
+			hideLine();
+			return;
+		}
 		
-	if((Constants.QUEUE_AREA.y+100) < compPointToMain.y) {
-		for(int i=0;i<=imageMidpoints.size();i++) {
-			
-			if(imageMidpoints.size() == 0) {
-				
-				labels[0].setIcon(divLine);
-				
-				previousLineLabel = labels[0];
-				previousLineIndex = 0;
-				this.getView().repaint();
-				break;
-			}
-			
-			if(i == imageMidpoints.size()) { 
-				//Logger.log(Logger.DEBUG,draggedLabelIndex + " - " + labels.length);
-				
-				if(previousLineLabel != null && !previousLineLabel.equals(labels[i*2])) {
-					previousLineLabel.setIcon(divEmpty);
-				}
-				
-				if(draggedLabelIndex == labels.length-2) break;
-				labels[i*2].setIcon(divLine); 
-				
-				previousLineLabel = labels[i*2];
-				previousLineIndex = i*2;
-				this.getView().repaint();
+		// The line before the first image whose middle is to the right of the finger, or
+		// the last line if there is none.
+		int slot = imageMidpoints.length;
+		for(int i=0;i<imageMidpoints.length;i++) {
+			if(x < imageMidpoints[i]) {
+				slot = i;
 				break;
-			} 
-			
-			
-			double currentMidpoint = ((Double)imageMidpoints.elementAt(i)).doubleValue();
-			
-			if(compPoint.getX() > currentMidpoint) continue;
-			if(compPoint.getX() < currentMidpoint) {
-				//Logger.log(Logger.DEBUG,draggedLabelIndex + " -- " + i*2);
-				
-				if(previousLineLabel != null && !previousLineLabel.equals(labels[i*2])) {
-					//Logger.log(Logger.DEBUG,"MidX: " +currentMidpoint+ "CompX: " + compPoint.getX());
-					previousLineLabel.setIcon(divEmpty);
-				}
-				
-				if(draggedLabelIndex == (i*2)+1 || draggedLabelIndex == (i*2)- 1) break;
-				labels[i*2].setIcon(divLine); 
-				
-				previousLineLabel = labels[i*2];
-				previousLineIndex = i*2;
-				this.getView().repaint();
-				break; 
 			}
 		}
+		
+		showLine(slot*2);
 	}
-	else {
-		if(previousLineLabel != null) previousLineLabel.setIcon(divEmpty);
-		previousLineLabel = null;
-		previousLineIndex = -1;
-	}
-
-   	    
-		if(!(e.getComponent() instanceof ui.DraggableImage)) {
-			
-			QueueImage label = (QueueImage)e.getComponent();
-			
-			Point componentPoint = SwingUtilities.convertPoint(
-			   label,
-			   new Point(e.getX() - (label.getIcon().getIconWidth() / 2), e.getY() - (label.getIcon().getIconHeight() / 2)),
-			   target);
-		 
-			target.dispatchEvent(new MouseEvent(target,
-			    e.getID(),
-			    e.getWhen(),
-			    e.getModifiers(),
-			    componentPoint.x,
-			    componentPoint.y,
-			    e.getClickCount(),
-			    e.isPopupTrigger()));
-		}
+	
+	/**
+	 * Called by the DragController when an image is dragged off this strip.
+	 */
+	public void dragExited() {
+		hideLine();
 	}
 	
-	public void mouseReleased(MouseEvent e) {
-		
-		this.lastObservedPress = 0;
-		
-		DraggableImage target = parent.getGhostImage();
-		
-		if(draggedLabelIndex > -1) {
-		
-			target.dispatchEvent(new MouseEvent(target,
-				    e.getID(),
-				    e.getWhen(),
-				    e.getModifiers(),
-				    e.getX(),
-				    e.getY(),
-				    e.getClickCount(),
-				    e.isPopupTrigger()));
-		}
+	/**
+	 * Called by the DragController when an image is dropped on this strip. It is put
+	 * where the line is showing, if there is one; an image dragged from this strip is 
+	 * moved there instead.
+	 * 
+	 * @param mFile The MediaFile that was dropped.
+	 */
+	public void drop(MediaFile mFile) {
 		 
-		 if(previousLineLabel != null && previousLineLabel.getIcon().equals(divLine)) {
+		 if(previousLineLabel != null && previousLineLabel.getIcon().equals(divLine) && imagePanel != null) {
 			
-			 Vector<QueueImage> tempLabels = new Vector<QueueImage>();
-			 Vector<MediaFile> newImages = new Vector<MediaFile>();
+			 previousLineLabel.setIcon(divEmpty);
 			 
-			 for(int i=0;i<labels.length;i++) {
-				 tempLabels.add(labels[i]);
-			 }
+			 // The line the image was dropped on comes just before the image at this position.
+			 GroupQueue group = getGroupQueueByName(tabView.getTitleAt(tabView.getSelectedIndex()));
+			 Vector<MediaFile> newImages = new Vector<MediaFile>(group.getMediaFiles());
+			 int position = previousLineIndex / 2;
 			 
 			 if(draggedLabelIndex > -1) { 
-				 tempLabels.remove(draggedLabelIndex);
-				 Logger.log(Logger.INFO,"MediaStrip: Removing image at index: " + draggedLabelIndex);
-				 tempLabels.insertElementAt(labels[draggedLabelIndex], previousLineIndex);	
+				 int from = draggedLabelIndex / 2;
+				 Logger.log(Logger.INFO,"MediaStrip: Removing image at index: " + from);
+				 if(from < position) position--;
+				 newImages.add(position, newImages.remove(from));
+				 moveCell(imagePanel, from, position);
 			 }
 			 
 			 else {
-				 QueueImage newImage = new QueueImage(target.getMediaFile());
-				 tempLabels.insertElementAt(newImage,previousLineIndex);
-				 jlabelToMediaFile.put(newImage, target.getMediaFile());	 
+				 newImages.add(position, mFile);
+				 
+				 // An empty group shows the "drag images here" panel, which is replaced.
+				 if(imagePanel instanceof DragImagesHereJPanel) {
+					 tabView.setComponentAt(tabView.getSelectedIndex(), buildView(newImages, -1));
+				 }
+				 else {
+					 insertCell(imagePanel, newCell(mFile, position), position);
+				 }
 			 }
 			 
-			 for(int i=0;i<tempLabels.size();i++) {
-					if(jlabelToMediaFile.get(tempLabels.get(i)) != null) {
-						newImages.add(jlabelToMediaFile.get(tempLabels.get(i)));
-					}
-			 }	
-			   
-		
-				((JTabbedPane)this.getView()).setComponentAt(
-						((JTabbedPane)this.getView()).getSelectedIndex(),
-						constructView(newImages, previousLineIndex+3));
-			
-			
+			 group.setMediaFiles(newImages);
 		 }
-		 
-		 
-		 
+	}
+	
+	/**
+	 * Called by the DragController once a drag is over, whether or not the image was
+	 * dropped on this strip.
+	 */
+	public void dragEnded() {
+		 hideLine();
 		 labels = null;
-		 draggedLabelIndex = -10;
+		 draggedLabelIndex = -1;
 		 draggedLabel = null;
 		 imageMidpoints = null;
-		 previousLineLabel = null;
-		 previousLineIndex = -1;
 		 imagePanel = null;
 		 dragging = false;
-		 
+	}
+	
+	/*
+	 * Notes the cells of the group being shown, and where the middle of each image is
+	 * (in the content pane's coordinates), for the rest of a drag. Returns false if the
+	 * tab being shown does not hold a group.
+	 */
+	private boolean prepareDrop() {
+		
+		this.findImagePanel();
+		
+		if(imagePanel == null) return false;
+		
+		Component components[] = imagePanel.getComponents();
+		
+		labels = new QueueImage[components.length];
+		
+		for(int i=0;i<components.length;i++) {
+			labels[i] = (QueueImage)components[i];
+			if(draggedLabel == labels[i]) {
+				draggedLabelIndex = i;
+			}
+		}
+		
+		// The panel stays put during a drag, so its position only has to be found once.
+		int panelX = SwingUtilities.convertPoint(imagePanel, 0, 0, parent.getContentPane()).x;
+		
+		imageMidpoints = new int[labels.length/2];
+		
+		for(int i=1;i<labels.length;i+=2) {
+			imageMidpoints[i/2] = panelX + labels[i].getX() + labels[i].getWidth()/2;
+		}
+		
+		return true;
+	}
+	
+	/*
+	 * Shows the line at a position in the group's panel (an even component index), 
+	 * hiding the one shown before. There is no line either side of the image being 
+	 * dragged, since dropping it there would not move it. Only the lines that change
+	 * are repainted.
+	 */
+	private void showLine(int index) {
+		
+		if(previousLineLabel != null && previousLineLabel != labels[index]) {
+			previousLineLabel.setIcon(divEmpty);
+		}
+		
+		if(draggedLabelIndex > -1 && (draggedLabelIndex == index+1 || draggedLabelIndex == index-1)) return;
+		
+		labels[index].setIcon(divLine); 
+		
+		previousLineLabel = labels[index];
+		previousLineIndex = index;
+	}
+	
+	/*
+	 * Hides the line that is showing, if any.
+	 */
+	private void hideLine() {
+		if(previousLineLabel != null) previousLineLabel.setIcon(divEmpty);
+		previousLineLabel = null;
+		previousLineIndex = -1;
 	}
 	
 	public JPanel constructView(Vector mediaFiles, int activeIndex) {
 		
+		JPanel fullView = buildView(mediaFiles, activeIndex);
+		
+		if(!firstDraw && tabView.getSelectedIndex() > -1) {
+			getGroupQueueByName(tabView.getTitleAt(tabView.getSelectedIndex())).setMediaFiles(mediaFiles);
+		}
+		
+		return fullView;
+	}
+	
+	/*
+	 * Builds the view of a group's images without touching the group itself, so that it
+	 * can be used for groups other than the one that is selected.
+	 */
+	private JPanel buildView(Vector mediaFiles, int activeIndex) {
+		
 		int totalWidth = 0;
 		
 		JPanel imagePanel;
@@ -546,25 +522,7 @@ public class MediaStrip extends MouseInputAdapter implements ActionListener {
 			QueueImage line = new QueueImage(divEmpty);
 			imagePanel.add(line);
 			
-			MediaFile mFile = ((MediaFile)mediaFiles.get(i));
-			
-			QueueImage image = new QueueImage(mFile);
-			image.setQueueIndex(i);
-			image.addMouseListener(this);
-			image.addMouseMotionListener(this);
-			
-			if(((MediaFile)jlabelToMediaFile.get(selectedImage)) != null && 
-					((MediaFile)jlabelToMediaFile.get(selectedImage)).getPath().contentEquals(mFile.getPath())) {
-				image.setBorder(BorderFactory.createLineBorder(Constants.SELECTION_COLOR,3));
-				image.setSelected(true);
-			}
-			else {
-				image.setBorder(BorderFactory.createEmptyBorder(3,3,3,3));
-				image.setSelected(false);
-			}
-			
-			imagePanel.add(image);
-			jlabelToMediaFile.put(image,mFile);
+			imagePanel.add(newCell((MediaFile)mediaFiles.get(i), i));
 			
 			totalWidth+=Constants.THUMB_SIZE.width;
 			totalWidth+=10; 	//Line width
@@ -623,25 +581,143 @@ public class MediaStrip extends MouseInputAdapter implements ActionListener {
 			//scrollView.getHorizontalScrollBar().setValue(scrollView.getHorizontalScrollBar().getMaximum());
 		}
 		
-		if(!firstDraw && tabView.getSelectedIndex() > -1) {
-			getGroupQueueByName(tabView.getTitleAt(tabView.getSelectedIndex())).setMediaFiles(mediaFiles);
-		}
-		
 		return fullView;
 	}
 	
+	/*
+	 * Makes the cell that shows an image in a group's panel.
+	 */
+	private QueueImage newCell(MediaFile mFile, int index) {
+		QueueImage image = new QueueImage(mFile);
+		image.setQueueIndex(index);
+		image.addMouseListener(this);
+		image.addMouseMotionListener(this);
+		
+		// The selected image keeps its own cell, so a new one never starts out selected.
+		image.setBorder(BorderFactory.createEmptyBorder(3,3,3,3));
+		image.setSelected(false);
+		
+		jlabelToMediaFile.put(image,mFile);
+		return image;
+	}
+	
+	/*
+	 * Adds a cell, along with a line after it, at a position in a group's panel. The 
+	 * panel alternates lines and images, starting and ending with a line, so the image 
+	 * at a position is component 2*position+1. This and the methods below change just 
+	 * the cells involved, rather than building the panel again.
+	 */
+	private void insertCell(JPanel panel, QueueImage image, int position) {
+		panel.add(image, 2*position+1);
+		panel.add(new QueueImage(divEmpty), 2*position+2);
+		renumberCells(panel, position);
+	}
+	
+	/*
+	 * Takes the cell at a position, and the line after it, out of a group's panel.
+	 */
+	private void removeCell(JPanel panel, int position) {
+		panel.remove(2*position+2);
+		panel.remove(2*position+1);
+		renumberCells(panel, position);
+	}
+	
+	/*
+	 * Moves the cell at one position in a group's panel (and the line after it) so that
+	 * it ends up at another.
+	 */
+	private void moveCell(JPanel panel, int from, int to) {
+		if(from == to) return;
+		Component image = panel.getComponent(2*from+1);
+		Component line = panel.getComponent(2*from+2);
+		panel.remove(2*from+2);
+		panel.remove(2*from+1);
+		panel.add(image, 2*to+1);
+		panel.add(line, 2*to+2);
+		renumberCells(panel, Math.min(from, to));
+	}
+	
+	/*
+	 * Numbers the cells of a group's panel from a position onwards, and lays it out again.
+	 */
+	private void renumberCells(JPanel panel, int position) {
+		for(int i=2*position+1;i<panel.getComponentCount();i+=2) {
+			((QueueImage)panel.getComponent(i)).setQueueIndex((i-1)/2);
+		}
+		panel.revalidate();
+		panel.repaint();
+	}
+	
 	public void findImagePanel() {
-		JTabbedPane tabPane = this.getView();
-		if(!(tabPane.getSelectedComponent() instanceof JPanel)) { imagePanel = null; return; }
-		JPanel fullPanel = (JPanel)tabPane.getSelectedComponent();
+		imagePanel = getImagePanel(this.getView().getSelectedIndex());
+	}
+	
+	/*
+	 * Returns the panel holding the images (and the lines between them) in a tab, or 
+	 * null if the tab does not hold a group.
+	 */
+	private JPanel getImagePanel(int tab) {
+		if(tab < 0 || !(tabView.getComponentAt(tab) instanceof JPanel)) return null;
+		JPanel fullPanel = (JPanel)tabView.getComponentAt(tab);
+		if(fullPanel.getComponentCount() < 2) return null;
 		//Logger.log(Logger.DEBUG,fullPanel.getComponent(1).toString());
 		JScrollPane scrollPane = (JScrollPane)(fullPanel.getComponent(1));
-		imagePanel = (JPanel)((JPanel)((JViewport)scrollPane.getComponent(0)).getComponent(0));
-		
+		return (JPanel)((JPanel)((JViewport)scrollPane.getComponent(0)).getComponent(0));
+	}
+	
+	/**
+	 * Takes an image that has been removed from the library out of every group in this
+	 * strip. Only its own cells (and the lines after them) are removed; the rest of each
+	 * group is left as it is.
+	 * 
+	 * @param mFile The MediaFile that no longer exists.
+	 */
+	public void mediaFileRemoved(MediaFile mFile) {
+		for(int t=0;t<tabView.getTabCount();t++) {
+			GroupQueue group = getGroupQueueByName(tabView.getTitleAt(t));
+			if(group == null || !group.getMediaFiles().contains(mFile)) continue;
+			
+			// The file is gone, so this is not something the instructor can undo.
+			group.removeDeletedMediaFile(mFile);
+			Vector remaining = group.getMediaFiles();
+			
+			JPanel panel = getImagePanel(t);
+			if(panel == null) continue;
+			
+			// An empty group shows the "drag images here" panel instead.
+			if(remaining.size() == 0) {
+				if(selectedImage != null && jlabelToMediaFile.get(selectedImage) == mFile) this.setSelectedImage(null);
+				tabView.setComponentAt(t, buildView(remaining, -1));
+				continue;
+			}
+			
+			// Each image goes along with the line after it.
+			for(int position=(panel.getComponentCount()-1)/2-1;position>=0;position--) {
+				Component image = panel.getComponent(2*position+1);
+				if(jlabelToMediaFile.get(image) != mFile) continue;
+				if(image.equals(selectedImage)) this.setSelectedImage(null);
+				jlabelToMediaFile.remove(image);
+				removeCell(panel, position);
+			}
+		}
+	}
+	
+	/**
+	 * Shows the new thumbnail of an image whose original has changed on disk.
+	 * 
+	 * @param mFile The MediaFile that has changed.
+	 */
+	public void mediaFileChanged(MediaFile mFile) {
+		Iterator it = ((Set)jlabelToMediaFile.keySet()).iterator();
+		while(it.hasNext()) {
+			QueueImage label = (QueueImage)it.next();
+			if(jlabelToMediaFile.get(label) == mFile) label.refreshThumb();
+		}
 	}
 	
 	public void actionPerformed( ActionEvent e ) {
 	    String command = e.getActionCommand();
+	    
 	    JFrame frame = new JFrame();
 	    if (command.equals( "delete_group" )) {
 	    	
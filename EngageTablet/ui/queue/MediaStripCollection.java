@@ -1,9 +1,11 @@
 package ui.queue;
 
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Vector;
 
 import main.Engage;
+import backend.library.MediaFile;
 import backend.queue.StationQueue;
 
 public class MediaStripCollection {
@@ -27,5 +29,36 @@ public class MediaStripCollection {
 	public MediaStrip getStripForStation(String stationName) {
 		return ((MediaStrip)stationNameToStrip.get(stationName));
 	}
+	
+	/**
+	 * Replaces the strip for a station with a new one showing what the station holds
+	 * now, such as after a change has been undone. The same tab is selected, if it is 
+	 * still there.
+	 * 
+	 * @param station The StationQueue that has changed.
+	 * @return The new MediaStrip, or null if there is no strip for the station.
+	 */
+	public MediaStrip rebuildStrip(StationQueue station) {
+		MediaStrip old = getStripForStation(station.getStationName());
+		if(old == null) return null;
+		
+		MediaStrip strip = new MediaStrip(station, main);
+		stationNameToStrip.put(station.getStationName(), strip);
+		
+		// The last tab is "Add Group", which is not one to leave selected.
+		int tab = Math.min(old.getView().getSelectedIndex(), strip.getView().getTabCount()-2);
+		if(tab >= 0) strip.getView().setSelectedIndex(tab);
+		return strip;
+	}
+	
+	public void mediaFileRemoved(MediaFile mFile) {
+		Iterator it = stationNameToStrip.values().iterator();
+		while(it.hasNext()) ((MediaStrip)it.next()).mediaFileRemoved(mFile);
+	}
+	
+	public void mediaFileChanged(MediaFile mFile) {
+		Iterator it = stationNameToStrip.values().iterator();
+		while(it.hasNext()) ((MediaStrip)it.next()).mediaFileChanged(mFile);
+	}
 
 }
@@ -7,8 +7,14 @@ import java.awt.Graphics;
 import java.awt.Image;
 import java.awt.Point;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
 import javax.swing.ImageIcon;
 import javax.swing.JPanel;
+import javax.swing.SwingUtilities;
 
 import main.Constants;
 import backend.library.MediaFile;
@@ -43,7 +49,27 @@ public class ImagePanel extends JPanel{
 
 	private Image stageImage;
 	private MediaFile centralMediaFile;
+	
+	// True while stageImage is only the thumbnail, standing in for the central image,
+	// in which case it is stretched to the size the central image will have.
+	private boolean stageImageIsPlaceholder = false;
 	private String stageTitle;
+	
+	// Loads central images off of the event thread, one at a time.
+	private static ExecutorService loader = Executors.newSingleThreadExecutor(new ThreadFactory() {
+		public Thread newThread(Runnable r) {
+			Thread thread = new Thread(r, "ImagePanel-Loader");
+			thread.setDaemon(true);
+			return thread;
+		}
+	});
+	
+	// The central image that is currently being loaded, if any.
+	private Future pendingLoad;
+	
+	// Counts calls to setMediaFile, so that a load that finishes after the instructor
+	// has moved on can tell that its image is no longer wanted.
+	private int displayCount = 0;
 
 	//-------------------------------------------------------------------------
 	// END Private Fields
@@ -102,20 +128,34 @@ public class ImagePanel extends JPanel{
 		g.drawString(stageTitle, (int)((PANEL_SIZE.width-titleWidth)/2), 23);
 		
 		if (stageImage != null){
-			Point p = getOffset(stageImage);
+			Dimension size = getDrawnSize(stageImage);
+			Point p = getOffset(size);
 			
 			// Draws a black background.
 			g.setColor(Color.BLACK);
 			g.fillRect(SIDE_THICKNESS,TOP_THICKNESS,Constants.CENTER_SIZE.width, Constants.CENTER_SIZE.height);
 			
 			// Draws an image on top of the black background.
-			g.drawImage(stageImage, p.x+SIDE_THICKNESS, p.y+TOP_THICKNESS, this);
+			g.drawImage(stageImage, p.x+SIDE_THICKNESS, p.y+TOP_THICKNESS, size.width, size.height, this);
 		}
 	}
 	
-	private Point getOffset(Image image){
-		int x = (Constants.CENTER_SIZE.width - image.getWidth(null))/2;
-		int y = (Constants.CENTER_SIZE.height -image.getHeight(null))/2;
+	/*
+	 * Returns the size the image is drawn at: its own size, or for a placeholder, the
+	 * largest size with the same proportions that fits in the center.
+	 */
+	private Dimension getDrawnSize(Image image){
+		int width = image.getWidth(null);
+		int height = image.getHeight(null);
+		if(!stageImageIsPlaceholder || width <= 0 || height <= 0) return new Dimension(width, height);
+		
+		double scale = Math.min((double)Constants.CENTER_SIZE.width/width, (double)Constants.CENTER_SIZE.height/height);
+		return new Dimension((int)(width*scale), (int)(height*scale));
+	}
+	
+	private Point getOffset(Dimension size){
+		int x = (Constants.CENTER_SIZE.width - size.width)/2;
+		int y = (Constants.CENTER_SIZE.height - size.height)/2;
 		return new Point(x,y);
 	}
 
@@ -133,20 +173,64 @@ public class ImagePanel extends JPanel{
 	 * This method dismisses the previously shown image and paints the new image.
 	 * If the new image is null, it simply shows the background.
 	 * 
+	 * If the central image is not already in memory, the thumbnail (if it has 
+	 * already been loaded) is stretched and shown in its place while the central image is loaded in the background, 
+	 * so this never makes the event thread wait on a decode. 
+	 * 
 	 * @param newImage the image to be displayed on the ImagePanel
 	 */
 	public void setMediaFile(MediaFile newImage) {	
 		this.centralMediaFile = newImage;
 		
-		if (centralMediaFile != null) 
-			stageImage = centralMediaFile.getCentralImage();
-		else
+		// Whatever we were loading before is no longer wanted.
+		final int request = ++displayCount;
+		if(pendingLoad != null) pendingLoad.cancel(false);
+		pendingLoad = null;
+		stageImageIsPlaceholder = false;
+		
+		if (centralMediaFile == null) 
 			stageImage = null;
+		else {
+			stageImage = centralMediaFile.peekCentralImage();
+			
+			if(stageImage == null) {
+				stageImage = getPlaceholder(centralMediaFile);
+				stageImageIsPlaceholder = (stageImage != null);
+				
+				final MediaFile file = centralMediaFile;
+				pendingLoad = loader.submit(new Runnable() {
+					public void run() {
+						final Image image = file.getCentralImage();
+						
+						// Swap it in on the event thread, unless another image was shown in the meantime.
+						SwingUtilities.invokeLater(new Runnable() {
+							public void run() {
+								if(request != displayCount) return;
+								stageImage = image;
+								stageImageIsPlaceholder = false;
+								pendingLoad = null;
+								repaint();
+							}
+						});
+					}
+				});
+			}
+		}
 
 		setStageTitle();
 		this.repaint();
 	}
 	
+	/*
+	 * Returns the thumbnail of a file, to be stretched in place of the central image,
+	 * or null if the thumbnail has not been loaded yet. Never loads anything.
+	 */
+	private static Image getPlaceholder(MediaFile file) {
+		Image thumb = file.peekThumbImage();
+		if(thumb == null || thumb.getWidth(null) <= 0 || thumb.getHeight(null) <= 0) return null;
+		return thumb;
+	}
+	
 	/*
 	 * Sets the title to reflect the name of the currently displayed image.
 	 */